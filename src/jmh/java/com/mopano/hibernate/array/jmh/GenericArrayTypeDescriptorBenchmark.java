@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.jmh;
+
+import com.mopano.hibernate.array.PgOffsetTimeType;
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.BigDecimalType;
+import org.hibernate.type.InstantType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.StringType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hot paths of {@link GenericArrayTypeDescriptor}, without a database.
+ * Binding goes to a stub {@link java.sql.Connection#createArrayOf(java.lang.String, java.lang.Object[])},
+ * and extraction reads back the stub {@link java.sql.Array} it returned.
+ *
+ * Run all with {@code ./gradlew jmh}, or a subset with
+ * {@code ./gradlew jmh -PjmhArgs='GenericArrayTypeDescriptorBenchmark.fromString -p size=10000'}.
+ *
+ * @author Yordan Gigov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenericArrayTypeDescriptorBenchmark {
+
+	public enum ElementType {
+		LONG( LongType.INSTANCE, null ),
+		STRING( StringType.INSTANCE, null ),
+		BIG_DECIMAL( BigDecimalType.INSTANCE, null ),
+		UUID( PostgresUUIDType.INSTANCE, null ),
+		INSTANT( InstantType.INSTANCE, java.sql.Timestamp.class ),
+		OFFSET_TIME( PgOffsetTimeType.INSTANCE, String.class );
+
+		// same unwrap classes as ArrayTypeContributor uses
+		final AbstractStandardBasicType<?> base;
+		final Class unwrap;
+
+		ElementType(AbstractStandardBasicType<?> base, Class unwrap) {
+			this.base = base;
+			this.unwrap = unwrap;
+		}
+
+		Object element(Random random, int index) {
+			switch ( this ) {
+				case LONG:
+					return random.nextLong();
+				case STRING:
+					// every 16th element needs escaping
+					return ( index & 15 ) == 0 ? "quoted \"" + index + "\" \\ value" : "element " + index;
+				case BIG_DECIMAL:
+					return BigDecimal.valueOf( random.nextLong(), 4 );
+				case UUID:
+					return new UUID( random.nextLong(), random.nextLong() );
+				case INSTANT:
+					return Instant.ofEpochSecond( 1500000000L + random.nextInt( 100000000 ), random.nextInt( 1000000 ) * 1000L );
+				case OFFSET_TIME:
+					return OffsetTime.of( LocalTime.ofSecondOfDay( random.nextInt( 86400 ) ), ZoneOffset.ofHours( random.nextInt( 25 ) - 12 ) );
+				default:
+					throw new AssertionError( this );
+			}
+		}
+	}
+
+	@Param
+	public ElementType elementType;
+
+	@Param({ "1", "100", "10000", "1000000" })
+	public int size;
+
+	private GenericArrayTypeDescriptor<Object> descriptor;
+	private SharedSessionContractImplementor session;
+	private Object[] value;
+	private Object[] equalValue;
+	private String literal;
+	private java.sql.Array driverArray;
+	private final StringBuilder buffer = new StringBuilder();
+
+	@Setup(Level.Trial)
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		descriptor = new GenericArrayTypeDescriptor<>( (AbstractStandardBasicType<Object>) elementType.base, elementType.unwrap );
+		session = StubJdbc.session();
+		Random random = new Random( 42 );
+		value = (Object[]) java.lang.reflect.Array.newInstance( descriptor.getJavaTypeClass().getComponentType(), size );
+		for ( int i = 0; i < size; i ++ ) {
+			value[ i ] = elementType.element( random, i );
+		}
+		equalValue = descriptor.getMutabilityPlan().deepCopy( value );
+		literal = descriptor.toString( value );
+		driverArray = descriptor.unwrap( value, java.sql.Array.class, session );
+	}
+
+	@Benchmark
+	public Object[] wrap() {
+		return descriptor.wrap( driverArray, session );
+	}
+
+	@Benchmark
+	public java.sql.Array unwrap() {
+		return descriptor.unwrap( value, java.sql.Array.class, session );
+	}
+
+	@Benchmark
+	public Object[] fromString() {
+		return descriptor.fromString( literal );
+	}
+
+	@Benchmark
+	public String toStringLiteral() {
+		return descriptor.toString( value );
+	}
+
+	@Benchmark
+	public int appendTo() throws IOException {
+		// reused buffer, as when streaming many rows
+		buffer.setLength( 0 );
+		descriptor.appendTo( value, buffer );
+		return buffer.length();
+	}
+
+	@Benchmark
+	public boolean areEqual() {
+		return descriptor.areEqual( value, equalValue );
+	}
+
+	@Benchmark
+	public int extractHashCode() {
+		return descriptor.extractHashCode( value );
+	}
+
+	@Benchmark
+	public Object[] deepCopy() {
+		return descriptor.getMutabilityPlan().deepCopy( value );
+	}
+
+	@Benchmark
+	public Object disassemble() {
+		return descriptor.getMutabilityPlan().disassemble( value );
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.jmh;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQL94Dialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Database-free stand-ins for the session, connection and driver arrays used by the descriptors.
+ * Anything the benchmarks do not need throws {@link UnsupportedOperationException}.
+ *
+ * @author Yordan Gigov
+ */
+final class StubJdbc {
+
+	private static final Dialect DIALECT = new PostgreSQL94Dialect();
+
+	private StubJdbc() {
+	}
+
+	/**
+	 * @return session whose connection creates {@link #array(java.lang.Object[])} stubs
+	 */
+	static SharedSessionContractImplementor session() {
+		final JdbcServices jdbcServices = proxy( JdbcServices.class, (p, method, args) -> {
+			if ( "getDialect".equals( method.getName() ) ) {
+				return DIALECT;
+			}
+			throw new UnsupportedOperationException( method.toString() );
+		} );
+		final Connection connection = proxy( Connection.class, (p, method, args) -> {
+			if ( "createArrayOf".equals( method.getName() ) ) {
+				return array( (Object[]) args[1] );
+			}
+			if ( "isWrapperFor".equals( method.getName() ) ) {
+				return Boolean.FALSE;
+			}
+			throw new UnsupportedOperationException( method.toString() );
+		} );
+		return proxy( SharedSessionContractImplementor.class, (p, method, args) -> {
+			switch ( method.getName() ) {
+				case "connection":
+					return connection;
+				case "getJdbcServices":
+					return jdbcServices;
+				default:
+					throw new UnsupportedOperationException( method.toString() );
+			}
+		} );
+	}
+
+	/**
+	 * @param elements What {@link Array#getArray()} should return a copy of.
+	 * @return driver array stub, which like a driver builds a new array on every call
+	 */
+	static Array array(final Object[] elements) {
+		return proxy( Array.class, (p, method, args) -> {
+			switch ( method.getName() ) {
+				case "getArray":
+					return elements.clone();
+				case "free":
+					return null;
+				default:
+					throw new UnsupportedOperationException( method.toString() );
+			}
+		} );
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> iface, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance( StubJdbc.class.getClassLoader(), new Class<?>[] { iface }, (p, method, args) -> {
+			if ( method.getDeclaringClass() == Object.class ) {
+				switch ( method.getName() ) {
+					case "equals":
+						return p == args[0];
+					case "hashCode":
+						return System.identityHashCode( p );
+					default:
+						return iface.getSimpleName() + " stub";
+				}
+			}
+			return handler.invoke( p, method, args );
+		} );
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.spi.MetadataBuilderInitializer;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers HQL and Criteria functions for the PostgreSQL array operators, so containment and overlap
+ * predicates run in the database, where GIN indexes can serve them:
+ * <ul>
+ * <li>{@code array_contains(a, b)} renders {@code a @> b}</li>
+ * <li>{@code array_contained(a, b)} renders {@code a <@ b}</li>
+ * <li>{@code array_overlaps(a, b)} renders {@code a && b}</li>
+ * <li>{@code array_any(v, a)} renders {@code v = ANY(a)}</li>
+ * <li>{@code cardinality(a)} and {@code array_length(a, dimension)}</li>
+ * </ul>
+ * The predicates return booleans, so HQL compares them, as in {@code where array_overlaps(e.tags, :tags) = true}.
+ * Only registered for PostgreSQL dialects.
+ *
+ * @author Yordan Gigov
+ */
+public class ArrayFunctionContributor implements MetadataBuilderInitializer {
+
+	@Override
+	public void contribute(MetadataBuilder metadataBuilder, StandardServiceRegistry serviceRegistry) {
+		JdbcServices jdbcServices = serviceRegistry.getService( JdbcServices.class );
+		Dialect dialect = jdbcServices == null ? null : jdbcServices.getDialect();
+		if ( ! ( dialect instanceof org.hibernate.dialect.PostgreSQL82Dialect ) ) {
+			return;
+		}
+		metadataBuilder.applySqlFunction( "array_contains", new SQLFunctionTemplate( StandardBasicTypes.BOOLEAN, "(?1 @> ?2)" ) );
+		metadataBuilder.applySqlFunction( "array_contained", new SQLFunctionTemplate( StandardBasicTypes.BOOLEAN, "(?1 <@ ?2)" ) );
+		metadataBuilder.applySqlFunction( "array_overlaps", new SQLFunctionTemplate( StandardBasicTypes.BOOLEAN, "(?1 && ?2)" ) );
+		metadataBuilder.applySqlFunction( "array_any", new SQLFunctionTemplate( StandardBasicTypes.BOOLEAN, "(?1 = ANY(?2))" ) );
+		metadataBuilder.applySqlFunction( "cardinality", new SQLFunctionTemplate( StandardBasicTypes.INTEGER, "cardinality(?1)" ) );
+		metadataBuilder.applySqlFunction( "array_length", new SQLFunctionTemplate( StandardBasicTypes.INTEGER, "array_length(?1, ?2)" ) );
+	}
+
+}
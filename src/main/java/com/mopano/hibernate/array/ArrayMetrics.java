@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+/**
+ * Receives measurements of array binding and extraction, to be passed on to a metrics library.
+ * Enabled by setting {@code hibernate.arrays.metrics} to an instance, class or class name of an implementation.
+ * One instance serves all array types of a service registry and is called from any thread.
+ * Without the setting, nothing is measured.
+ *
+ * @author Yordan Gigov
+ */
+public interface ArrayMetrics {
+
+	/**
+	 * Called after an array has been converted for the driver.
+	 *
+	 * @param arrayClass Java class of the array, such as {@code Long[].class}.
+	 * @param elements Number of elements.
+	 * @param conversionNanos Time spent converting the elements, in nanoseconds.
+	 * @param createNanos Time spent creating the driver's array, in nanoseconds.
+	 */
+	void bound(Class<?> arrayClass, int elements, long conversionNanos, long createNanos);
+
+	/**
+	 * Called after an array has been read from the driver.
+	 *
+	 * @param arrayClass Java class of the array, such as {@code Long[].class}.
+	 * @param elements Number of elements.
+	 * @param nanos Time spent reading and converting the array, in nanoseconds.
+	 */
+	void extracted(Class<?> arrayClass, int elements, long nanos);
+}
@@ -7,15 +7,26 @@
  */
 package com.mopano.hibernate.array;
 
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.hibernate.boot.model.TypeContributions;
 import org.hibernate.boot.model.TypeContributor;
+import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
+import org.hibernate.boot.registry.classloading.spi.ClassLoadingException;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.config.spi.ConfigurationService;
 import org.hibernate.engine.config.spi.StandardConverters;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
 import org.hibernate.type.BigDecimalType;
 import org.hibernate.type.BigIntegerType;
 import org.hibernate.type.BinaryType;
@@ -109,6 +120,7 @@ public class ArrayTypeContributor implements TypeContributor {
 		final boolean nationalText = config.getSetting("hibernate.arrays.national.text", StandardConverters.BOOLEAN, Boolean.FALSE);
 		final boolean nationalClob = config.getSetting("hibernate.arrays.national.clob", StandardConverters.BOOLEAN, Boolean.FALSE);
 		final boolean nationalMaterializedClob = config.getSetting("hibernate.arrays.national.materialized_clob", StandardConverters.BOOLEAN, Boolean.FALSE);
+		final boolean immutableArrays = config.getSetting("hibernate.arrays.immutable", StandardConverters.BOOLEAN, Boolean.FALSE);
 		final String uuidType = config.getSetting("hibernate.arrays.uuidtype", StandardConverters.STRING, "default").toLowerCase();
 		final boolean binaryUUIDs = "both".equals(uuidType) || "all".equals(uuidType) || "binary".equals(uuidType);
 		final boolean charUUIDs = "both".equals(uuidType) || "all".equals(uuidType) || "char".equals(uuidType);
@@ -132,242 +144,256 @@ public class ArrayTypeContributor implements TypeContributor {
 			log.debugf("Creation of array type based on org.hibernate.type.MaterializedNClobType: %s", (nationalMaterializedClob ? "enabled" : "disabled"));
 			log.debugf("Creation of array type based on org.hibernate.type.UUIDBinaryType: %s", (binaryUUIDs ? "enabled" : "disabled"));
 			log.debugf("Creation of array type based on org.hibernate.type.UUIDCharType: %s", (charUUIDs ? "enabled" : "disabled"));
+			log.debugf("Arrays immutable by default: %s", (immutableArrays ? "enabled" : "disabled"));
 		}
 
-		ArrayTypes BOOLEAN = ArrayTypes.get(BooleanType.INSTANCE, serviceRegistry);
-		ArrayTypes NUMERIC_BOOLEAN = ArrayTypes.get(NumericBooleanType.INSTANCE, serviceRegistry);
-		ArrayTypes TRUE_FALSE = ArrayTypes.get(TrueFalseType.INSTANCE, serviceRegistry);
-		ArrayTypes YES_NO = ArrayTypes.get(YesNoType.INSTANCE, serviceRegistry);
-		ArrayTypes SHORT = ArrayTypes.get(ShortType.INSTANCE, serviceRegistry);
-		ArrayTypes INTEGER = ArrayTypes.get(IntegerType.INSTANCE, serviceRegistry);
-		ArrayTypes LONG = ArrayTypes.get(LongType.INSTANCE, serviceRegistry);
-		ArrayTypes FLOAT = ArrayTypes.get(FloatType.INSTANCE, serviceRegistry);
-		ArrayTypes DOUBLE = ArrayTypes.get(DoubleType.INSTANCE, serviceRegistry);
-		ArrayTypes BIG_INTEGER = ArrayTypes.get(BigIntegerType.INSTANCE, serviceRegistry);
-		ArrayTypes BIG_DECIMAL = ArrayTypes.get(BigDecimalType.INSTANCE, serviceRegistry);
-		ArrayTypes STRING = ArrayTypes.get(StringType.INSTANCE, serviceRegistry);
-		ArrayTypes URL = ArrayTypes.get(UrlType.INSTANCE, serviceRegistry);
-		ArrayTypes TIME = ArrayTypes.get(TimeType.INSTANCE, serviceRegistry);
-		ArrayTypes DATE = ArrayTypes.get(DateType.INSTANCE, serviceRegistry);
-		ArrayTypes TIMESTAMP = ArrayTypes.get(TimestampType.INSTANCE, serviceRegistry);
-		ArrayTypes CALENDAR = ArrayTypes.get(CalendarType.INSTANCE, serviceRegistry);
-		ArrayTypes CALENDAR_DATE = ArrayTypes.get(CalendarDateType.INSTANCE, serviceRegistry);
-		ArrayTypes CLASS = ArrayTypes.get(ClassType.INSTANCE, serviceRegistry, String.class);
-		ArrayTypes LOCALE = ArrayTypes.get(LocaleType.INSTANCE, serviceRegistry);
-		ArrayTypes CURRENCY = ArrayTypes.get(CurrencyType.INSTANCE, serviceRegistry);
-		ArrayTypes TIMEZONE = ArrayTypes.get(TimeZoneType.INSTANCE, serviceRegistry);
-		ArrayTypes BINARY = ArrayTypes.get(BinaryType.INSTANCE, serviceRegistry);
-		ArrayTypes IMAGE = ArrayTypes.get(ImageType.INSTANCE, serviceRegistry);
-		ArrayTypes BLOB = ArrayTypes.get(BlobType.INSTANCE, serviceRegistry);
-		ArrayTypes MATERIALIZED_BLOB = ArrayTypes.get(MaterializedBlobType.INSTANCE, serviceRegistry);
-		ArrayTypes CHAR_ARRAY = ArrayTypes.get(CharArrayType.INSTANCE, serviceRegistry);
-		ArrayTypes CHARACTER_ARRAY = ArrayTypes.get(CharacterArrayType.INSTANCE, serviceRegistry);
-		ArrayTypes TEXT = ArrayTypes.get(TextType.INSTANCE, serviceRegistry);
-		ArrayTypes CLOB = ArrayTypes.get(ClobType.INSTANCE, serviceRegistry);
-		ArrayTypes MATERIALIZED_CLOB = ArrayTypes.get(MaterializedClobType.INSTANCE, serviceRegistry );
-		ArrayTypes SERIALIZABLE = ArrayTypes.get(SerializableType.INSTANCE, serviceRegistry );
+		final ArrayTypeFilter filter = new ArrayTypeFilter( config.getSetting( "hibernate.arrays.types", StandardConverters.STRING ) );
+		if ( log.isDebugEnabled() ) {
+			log.debugf("Array element types: %s", filter);
+		}
 
-		ArrayTypes INSTANT = ArrayTypes.get(InstantType.INSTANCE, serviceRegistry, java.sql.Timestamp.class );
-		ArrayTypes DURATION = ArrayTypes.get(DurationType.INSTANCE, serviceRegistry, Long.class );
-		ArrayTypes LOCAL_DATE_TIME = ArrayTypes.get(LocalDateTimeType.INSTANCE, serviceRegistry, java.sql.Timestamp.class );
-		ArrayTypes LOCAL_DATE = ArrayTypes.get(LocalDateType.INSTANCE, serviceRegistry, java.sql.Date.class );
-		ArrayTypes LOCAL_TIME = ArrayTypes.get(LocalTimeType.INSTANCE, serviceRegistry, java.sql.Time.class );
-		ArrayTypes ZONED_DATE_TIME = ArrayTypes.get(ZonedDateTimeType.INSTANCE, serviceRegistry, java.sql.Timestamp.class );
-		ArrayTypes OFFSET_DATE_TIME = ArrayTypes.get(OffsetDateTimeType.INSTANCE, serviceRegistry, java.sql.Timestamp.class );
-		ArrayTypes OFFSET_TIME = ArrayTypes.get(PgOffsetTimeType.INSTANCE, serviceRegistry, String.class );
+		final List<ArrayTypes<?>> arrays = new ArrayList<>();
+		ArrayTypes BOOLEAN = filter.get(arrays, BooleanType.INSTANCE, serviceRegistry, null);
+		ArrayTypes NUMERIC_BOOLEAN = filter.get(arrays, NumericBooleanType.INSTANCE, serviceRegistry, Integer.class);
+		ArrayTypes TRUE_FALSE = filter.get(arrays, TrueFalseType.INSTANCE, serviceRegistry, String.class);
+		ArrayTypes YES_NO = filter.get(arrays, YesNoType.INSTANCE, serviceRegistry, String.class);
+		ArrayTypes SHORT = filter.get(arrays, ShortType.INSTANCE, serviceRegistry, null);
+		ArrayTypes INTEGER = filter.get(arrays, IntegerType.INSTANCE, serviceRegistry, null);
+		ArrayTypes LONG = filter.get(arrays, LongType.INSTANCE, serviceRegistry, null);
+		ArrayTypes FLOAT = filter.get(arrays, FloatType.INSTANCE, serviceRegistry, null);
+		ArrayTypes DOUBLE = filter.get(arrays, DoubleType.INSTANCE, serviceRegistry, null);
+		ArrayTypes BIG_INTEGER = filter.get(arrays, BigIntegerType.INSTANCE, serviceRegistry, null);
+		ArrayTypes BIG_DECIMAL = filter.get(arrays, BigDecimalType.INSTANCE, serviceRegistry, null);
+		ArrayTypes STRING = filter.get(arrays, StringType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, UrlType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, TimeType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, DateType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, TimestampType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, CalendarType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, CalendarDateType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, ClassType.INSTANCE, serviceRegistry, String.class);
+		filter.get(arrays, LocaleType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, CurrencyType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, TimeZoneType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, BinaryType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, ImageType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, BlobType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, MaterializedBlobType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, CharArrayType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, CharacterArrayType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, TextType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, ClobType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, MaterializedClobType.INSTANCE, serviceRegistry, null);
+		filter.get(arrays, SerializableType.INSTANCE, serviceRegistry, null);
 
-		ArrayTypes BYTE = null;
-		ArrayTypes CHARACTER = null;
-		ArrayTypes WRAPPER_BINARY = null;
-		ArrayTypes NTEXT = null;
-		ArrayTypes NCLOB = null;
-		ArrayTypes STRING_N_VARCHAR = null;
-		ArrayTypes MATERIALIZED_NCLOB = null;
-		ArrayTypes UUID_BINARY = null;
-		ArrayTypes UUID_CHAR = null;
-		ArrayTypes POSTGRES_UUID = null;
+		// Java 8 time classes
+		ArrayTypes INSTANT = filter.get(arrays, InstantType.INSTANCE, serviceRegistry, java.sql.Timestamp.class);
+		ArrayTypes DURATION = filter.get(arrays, DurationType.INSTANCE, serviceRegistry, Long.class);
+		ArrayTypes LOCAL_DATE_TIME = filter.get(arrays, LocalDateTimeType.INSTANCE, serviceRegistry, java.sql.Timestamp.class);
+		ArrayTypes LOCAL_DATE = filter.get(arrays, LocalDateType.INSTANCE, serviceRegistry, java.sql.Date.class);
+		ArrayTypes LOCAL_TIME = filter.get(arrays, LocalTimeType.INSTANCE, serviceRegistry, java.sql.Time.class);
+		ArrayTypes ZONED_DATE_TIME = filter.get(arrays, ZonedDateTimeType.INSTANCE, serviceRegistry, java.sql.Timestamp.class);
+		ArrayTypes OFFSET_DATE_TIME = filter.get(arrays, OffsetDateTimeType.INSTANCE, serviceRegistry, java.sql.Timestamp.class);
+		ArrayTypes OFFSET_TIME = filter.get(arrays, PgOffsetTimeType.INSTANCE, serviceRegistry, String.class);
 
 		if ( replaceByteArrays ) {
-			BYTE = ArrayTypes.get(ByteType.INSTANCE, serviceRegistry);
+			filter.get(arrays, ByteType.INSTANCE, serviceRegistry, null);
 		}
 		if ( replaceCharArrays ) {
-			CHARACTER = ArrayTypes.get(CharacterType.INSTANCE, serviceRegistry);
+			filter.get(arrays, CharacterType.INSTANCE, serviceRegistry, null);
 		}
 		if ( byteWrapArrays ) {
-			WRAPPER_BINARY = ArrayTypes.get(WrapperBinaryType.INSTANCE, serviceRegistry);
+			filter.get(arrays, WrapperBinaryType.INSTANCE, serviceRegistry, null);
+		}
+		if ( nationalString ) {
+			filter.get(arrays, StringNVarcharType.INSTANCE, serviceRegistry, null);
 		}
 		if ( nationalText ) {
-			NTEXT = ArrayTypes.get(NTextType.INSTANCE, serviceRegistry );
+			filter.get(arrays, NTextType.INSTANCE, serviceRegistry, null);
 		}
 		if ( nationalClob ) {
-			NCLOB = ArrayTypes.get(NClobType.INSTANCE, serviceRegistry );
-		}
-		if ( nationalString ) {
-			STRING_N_VARCHAR = ArrayTypes.get(StringNVarcharType.INSTANCE, serviceRegistry );
+			filter.get(arrays, NClobType.INSTANCE, serviceRegistry, null);
 		}
 		if ( nationalMaterializedClob ) {
-			MATERIALIZED_NCLOB = ArrayTypes.get(MaterializedNClobType.INSTANCE, serviceRegistry );
-		}
-		if ( binaryUUIDs ) {
-			UUID_BINARY = ArrayTypes.get(UUIDBinaryType.INSTANCE, serviceRegistry);
-		}
-		if ( charUUIDs ) {
-			UUID_CHAR = ArrayTypes.get(UUIDCharType.INSTANCE, serviceRegistry);
-		}
-		if ( postgresUUIDs ) {
-			POSTGRES_UUID = ArrayTypes.get(PostgresUUIDType.INSTANCE, serviceRegistry );
+			filter.get(arrays, MaterializedNClobType.INSTANCE, serviceRegistry, null);
 		}
+		ArrayTypes<UUID> UUID_BINARY = binaryUUIDs ? filter.get(arrays, UUIDBinaryType.INSTANCE, serviceRegistry, byte[].class) : null;
+		ArrayTypes<UUID> UUID_CHAR = charUUIDs ? filter.get(arrays, UUIDCharType.INSTANCE, serviceRegistry, null) : null;
+		ArrayTypes<UUID> POSTGRES_UUID = postgresUUIDs ? filter.get(arrays, PostgresUUIDType.INSTANCE, serviceRegistry, null) : null;
 
-		// Do we really need all these types?
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( BOOLEAN.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( NUMERIC_BOOLEAN.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( TRUE_FALSE.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( YES_NO.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( SHORT.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( INTEGER.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( LONG.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( FLOAT.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( DOUBLE.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( BIG_INTEGER.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( BIG_DECIMAL.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( STRING.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( URL.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( TIME.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( DATE.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( TIMESTAMP.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( CALENDAR.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( CALENDAR_DATE.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( CLASS.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( LOCALE.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( CURRENCY.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( TIMEZONE.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( BINARY.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( IMAGE.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( BLOB.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( MATERIALIZED_BLOB.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( CHAR_ARRAY.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( CHARACTER_ARRAY.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( TEXT.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( CLOB.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( MATERIALIZED_CLOB.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( SERIALIZABLE.getJavaTypeDescriptor() );
+		// enum arrays, by name or by ordinal, of the listed classes
+		final Map<Class<?>, Boolean> enumClasses = new LinkedHashMap<>();
+		listEnums( enumClasses, config.getSetting("hibernate.arrays.enums", StandardConverters.STRING), false, serviceRegistry, log );
+		listEnums( enumClasses, config.getSetting("hibernate.arrays.enum_ordinals", StandardConverters.STRING), true, serviceRegistry, log );
+		final List<ArrayTypes<?>> enums = enumTypes( enumClasses, serviceRegistry, log );
+		arrays.addAll( enums );
 
-		// Java 8 time classes
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( INSTANT.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( DURATION.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( LOCAL_DATE_TIME.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( LOCAL_DATE.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( LOCAL_TIME.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( ZONED_DATE_TIME.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( OFFSET_DATE_TIME.getJavaTypeDescriptor() );
-		JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( OFFSET_TIME.getJavaTypeDescriptor() );
-
-		// could use the booleans, but that leaves the null-pointer warnings
-		if ( BYTE != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( BYTE.getJavaTypeDescriptor() );
-		}
-		if ( CHARACTER != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( CHARACTER.getJavaTypeDescriptor() );
+		// arrays of primitives, multi-dimensional arrays and arrays in direct buffers
+		final List<AbstractSingleColumnStandardBasicType<?>> others = new ArrayList<>();
+		if ( filter.allows( boolean.class ) ) {
+			others.add( PrimitiveArrayTypes.BOOLEAN );
 		}
-		if ( WRAPPER_BINARY != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( WRAPPER_BINARY.getJavaTypeDescriptor() );
+		if ( filter.allows( short.class ) ) {
+			others.add( PrimitiveArrayTypes.SHORT );
 		}
-		if ( STRING_N_VARCHAR != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( STRING_N_VARCHAR.getJavaTypeDescriptor() );
+		if ( filter.allows( int.class ) ) {
+			others.add( PrimitiveArrayTypes.INTEGER );
 		}
-		if ( NTEXT != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( NTEXT.getJavaTypeDescriptor() );
+		if ( filter.allows( long.class ) ) {
+			others.add( PrimitiveArrayTypes.LONG );
+			others.add( MultiArrayTypes.LONG );
+			others.add( BufferArrayTypes.LONG );
 		}
-		if ( NCLOB != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( NCLOB.getJavaTypeDescriptor() );
+		if ( filter.allows( float.class ) ) {
+			others.add( PrimitiveArrayTypes.FLOAT );
+			others.add( BufferArrayTypes.FLOAT );
 		}
-		if ( MATERIALIZED_NCLOB != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( MATERIALIZED_NCLOB.getJavaTypeDescriptor() );
+		if ( filter.allows( double.class ) ) {
+			others.add( PrimitiveArrayTypes.DOUBLE );
+			others.add( MultiArrayTypes.DOUBLE );
+			others.add( BufferArrayTypes.DOUBLE );
 		}
-		if ( UUID_BINARY != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( UUID_BINARY.getJavaTypeDescriptor() );
-		}
-		if ( UUID_CHAR != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( UUID_CHAR.getJavaTypeDescriptor() );
+
+		for ( ArrayTypes<?> type : arrays ) {
+			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( type.getJavaTypeDescriptor() );
 		}
-		if ( POSTGRES_UUID != null ) {
-			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( POSTGRES_UUID.getJavaTypeDescriptor() );
+		for ( AbstractSingleColumnStandardBasicType<?> type : others ) {
+			JavaTypeDescriptorRegistry.INSTANCE.addDescriptor( type.getJavaTypeDescriptor() );
 		}
 
 		// register the Hibernate type mappings
-		typeContributions.contributeType( BOOLEAN );
-		typeContributions.contributeType( NUMERIC_BOOLEAN );
-		typeContributions.contributeType( TRUE_FALSE );
-		typeContributions.contributeType( YES_NO );
-		typeContributions.contributeType( SHORT );
-		typeContributions.contributeType( INTEGER );
-		typeContributions.contributeType( LONG );
-		typeContributions.contributeType( FLOAT );
-		typeContributions.contributeType( DOUBLE );
-		typeContributions.contributeType( BIG_INTEGER );
-		typeContributions.contributeType( BIG_DECIMAL );
-		typeContributions.contributeType( STRING );
-		typeContributions.contributeType( URL );
-		typeContributions.contributeType( TIME );
-		typeContributions.contributeType( DATE );
-		typeContributions.contributeType( TIMESTAMP );
-		typeContributions.contributeType( CALENDAR );
-		typeContributions.contributeType( CALENDAR_DATE );
-		typeContributions.contributeType( CLASS );
-		typeContributions.contributeType( LOCALE );
-		typeContributions.contributeType( CURRENCY );
-		typeContributions.contributeType( TIMEZONE );
-		typeContributions.contributeType( BINARY );
-		typeContributions.contributeType( IMAGE );
-		typeContributions.contributeType( BLOB );
-		typeContributions.contributeType( MATERIALIZED_BLOB );
-		typeContributions.contributeType( CHAR_ARRAY );
-		typeContributions.contributeType( CHARACTER_ARRAY );
-		typeContributions.contributeType( TEXT );
-		typeContributions.contributeType( CLOB );
-		typeContributions.contributeType( MATERIALIZED_CLOB );
-		typeContributions.contributeType( SERIALIZABLE );
-
-		// Java 8 time classes
-		typeContributions.contributeType( INSTANT );
-		typeContributions.contributeType( DURATION );
-		typeContributions.contributeType( LOCAL_DATE_TIME );
-		typeContributions.contributeType( LOCAL_DATE );
-		typeContributions.contributeType( LOCAL_TIME );
-		typeContributions.contributeType( ZONED_DATE_TIME );
-		typeContributions.contributeType( OFFSET_DATE_TIME );
-		typeContributions.contributeType( OFFSET_TIME );
-
-		if ( BYTE != null ) {
-			typeContributions.contributeType( BYTE );
-		}
-		if ( CHARACTER != null ) {
-			typeContributions.contributeType( CHARACTER );
+		for ( ArrayTypes<?> type : arrays ) {
+			contribute( typeContributions, type, immutableArrays );
 		}
-		if ( WRAPPER_BINARY != null ) {
-			typeContributions.contributeType( WRAPPER_BINARY );
+		for ( AbstractSingleColumnStandardBasicType<?> type : others ) {
+			contribute( typeContributions, type, immutableArrays );
 		}
-		if ( STRING_N_VARCHAR != null ) {
-			typeContributions.contributeType( STRING_N_VARCHAR );
+
+		// collections stored in arrays, one element type for each class
+		contributeCollections( typeContributions, BOOLEAN, SHORT, INTEGER, LONG, FLOAT, DOUBLE, BIG_INTEGER, BIG_DECIMAL, STRING,
+				INSTANT, DURATION, LOCAL_DATE_TIME, LOCAL_DATE, LOCAL_TIME, ZONED_DATE_TIME, OFFSET_DATE_TIME, OFFSET_TIME );
+		contributeCollections( typeContributions, enums.toArray( new ArrayTypes<?>[enums.size()] ) );
+		if ( POSTGRES_UUID != null ) {
+			contributeCollections( typeContributions, POSTGRES_UUID );
 		}
-		if ( NTEXT != null ) {
-			typeContributions.contributeType( NTEXT );
+		else if ( UUID_CHAR != null ) {
+			contributeCollections( typeContributions, UUID_CHAR );
 		}
-		if ( NCLOB != null ) {
-			typeContributions.contributeType( NCLOB );
+		else if ( UUID_BINARY != null ) {
+			contributeCollections( typeContributions, UUID_BINARY );
 		}
-		if ( MATERIALIZED_NCLOB != null ) {
-			typeContributions.contributeType( MATERIALIZED_NCLOB );
+
+	}
+
+	/**
+	 * Collects the enums listed in a setting. An enum listed twice keeps its first storage.
+	 *
+	 * @param enums Enum classes, with whether they are stored by ordinal.
+	 * @param setting Enum class names, separated by commas or whitespace. May be null.
+	 * @param ordinal Whether the elements are stored by ordinal instead of by name.
+	 * @param serviceRegistry Service registry the types are created for.
+	 * @param log Where to report classes that cannot be used.
+	 */
+	private static void listEnums(Map<Class<?>, Boolean> enums, String setting, boolean ordinal, ServiceRegistry serviceRegistry, Logger log) {
+		if ( setting == null || setting.trim().isEmpty() ) {
+			return;
 		}
-		if ( UUID_BINARY != null ) {
-			typeContributions.contributeType( UUID_BINARY );
+		ClassLoaderService classLoader = serviceRegistry.getService( ClassLoaderService.class );
+		for ( String name : setting.trim().split( "[,\\s]+" ) ) {
+			Class<?> cls;
+			try {
+				cls = classLoader.classForName( name );
+			}
+			catch ( ClassLoadingException ex ) {
+				log.warnf( "Enum class %s not found, no array type added", name );
+				continue;
+			}
+			if ( ! cls.isEnum() ) {
+				log.warnf( "Class %s is not an enum, no array type added", name );
+				continue;
+			}
+			if ( enums.putIfAbsent( cls, ordinal ) != null ) {
+				log.warnf( "Enum %s is listed twice, arrays use the first storage listed", name );
+			}
 		}
-		if ( UUID_CHAR != null ) {
-			typeContributions.contributeType( UUID_CHAR );
+	}
+
+	/**
+	 * Builds the array types of the listed enums. They are named by the simple name of the enum,
+	 * or by the full name where several listed enums share a simple name.
+	 *
+	 * @param enums Enum classes, with whether they are stored by ordinal.
+	 * @param serviceRegistry Service registry the types are created for.
+	 * @param log Where to report enums that are named in full.
+	 * @return the array types
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static List<ArrayTypes<?>> enumTypes(Map<Class<?>, Boolean> enums, ServiceRegistry serviceRegistry, Logger log) {
+		Map<String, Integer> simpleNames = new HashMap<>();
+		for ( Class<?> cls : enums.keySet() ) {
+			simpleNames.merge( cls.getSimpleName(), 1, Integer::sum );
+		}
+		List<ArrayTypes<?>> types = new ArrayList<>( enums.size() );
+		for ( Map.Entry<Class<?>, Boolean> entry : enums.entrySet() ) {
+			Class cls = entry.getKey();
+			boolean ordinal = entry.getValue();
+			boolean qualified = simpleNames.get( cls.getSimpleName() ) > 1;
+			if ( qualified ) {
+				log.warnf( "Enum %s shares its simple name with another listed enum, its array types are named %s[]",
+						cls.getName(), cls.getName() );
+			}
+			types.add( ArrayTypes.get( new EnumElementType( cls, ordinal, qualified ), serviceRegistry, ordinal ? Short.class : String.class ) );
+		}
+		return types;
+	}
+
+	/**
+	 * Contributes the {@link java.util.List}, {@link java.util.Set} and, for comparable elements,
+	 * {@link java.util.SortedSet} types of each array type.
+	 *
+	 * @param typeContributions Where to contribute.
+	 * @param types The array types, null for those left out.
+	 */
+	private static void contributeCollections(TypeContributions typeContributions, ArrayTypes<?>... types) {
+		for ( ArrayTypes<?> type : types ) {
+			if ( type != null ) {
+				contributeCollections( typeContributions, type );
+			}
 		}
-		if ( POSTGRES_UUID != null ) {
-			typeContributions.contributeType( POSTGRES_UUID );
+	}
+
+	/**
+	 * Contributes the {@link java.util.List}, {@link java.util.Set} and, for comparable elements,
+	 * {@link java.util.SortedSet} types of an array type.
+	 *
+	 * @param typeContributions Where to contribute.
+	 * @param type The array type.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> void contributeCollections(TypeContributions typeContributions, ArrayTypes<T> type) {
+		typeContributions.contributeType( CollectionArrayTypes.list( type ) );
+		typeContributions.contributeType( CollectionArrayTypes.set( type ) );
+		Class<T> componentClass = ( (GenericArrayTypeDescriptor<T>) type.getJavaTypeDescriptor() ).getComponentClass();
+		if ( Comparable.class.isAssignableFrom( componentClass ) ) {
+			typeContributions.contributeType( CollectionArrayTypes.sortedSet( type ) );
 		}
+	}
 
+	/**
+	 * Contributes the type, its {@link ImmutableArrayType} variant and, for arrays of objects,
+	 * its {@link LazyArrayType} variant.
+	 *
+	 * @param typeContributions Where to contribute.
+	 * @param type The mutable type.
+	 * @param immutable Whether the immutable variant replaces the mutable type.
+	 */
+	private static <T> void contribute(TypeContributions typeContributions, AbstractSingleColumnStandardBasicType<T> type, boolean immutable) {
+		if ( ! immutable ) {
+			typeContributions.contributeType( type );
+		}
+		typeContributions.contributeType( new ImmutableArrayType<>( type, immutable ) );
+		if ( type instanceof ArrayTypes ) {
+			typeContributions.contributeType( new LazyArrayType<>( (ArrayTypes<?>) type ) );
+		}
 	}
 }
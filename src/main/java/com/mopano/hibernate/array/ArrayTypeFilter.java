@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.AbstractStandardBasicType;
+
+/**
+ * The element types listed in the {@code hibernate.arrays.types} setting, such as {@code Long, String, java.util.UUID, long}.
+ * Only array types of the listed element classes are built and contributed. Names are simple or full class names.
+ * Primitive names also cover the multi-dimensional and buffer types of that primitive.
+ * Without the setting, all types are contributed.
+ *
+ * @author Yordan Gigov
+ */
+class ArrayTypeFilter {
+
+	/**
+	 * Null when all types are allowed.
+	 */
+	private final Set<String> names;
+
+	ArrayTypeFilter(String setting) {
+		if ( setting == null || setting.trim().isEmpty() ) {
+			this.names = null;
+		}
+		else {
+			this.names = new LinkedHashSet<>();
+			for ( String name : setting.trim().split( "[,\\s]+" ) ) {
+				names.add( name );
+			}
+		}
+	}
+
+	/**
+	 * @param componentClass Java class of the elements.
+	 * @return whether arrays of the class are contributed
+	 */
+	boolean allows(Class<?> componentClass) {
+		return names == null || names.contains( componentClass.getSimpleName() ) || names.contains( componentClass.getName() );
+	}
+
+	/**
+	 * Builds the array type only if its elements are allowed.
+	 *
+	 * @param <T> element type
+	 * @param arrays List to add the type to.
+	 * @param baseDescriptor Type of the elements.
+	 * @param registry Service registry the type is created for.
+	 * @param unwrap Class to convert the elements to for binding, null for the default.
+	 * @return the array type, or null if its elements are not allowed
+	 */
+	<T> ArrayTypes<T> get(List<ArrayTypes<?>> arrays, AbstractStandardBasicType<T> baseDescriptor, ServiceRegistry registry, Class unwrap) {
+		if ( ! allows( baseDescriptor.getJavaTypeDescriptor().getJavaTypeClass() ) ) {
+			return null;
+		}
+		ArrayTypes<T> type = ArrayTypes.get( baseDescriptor, registry, unwrap );
+		arrays.add( type );
+		return type;
+	}
+
+	@Override
+	public String toString() {
+		return names == null ? "all" : names.toString();
+	}
+}
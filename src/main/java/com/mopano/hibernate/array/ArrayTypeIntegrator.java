@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
+import java.util.Iterator;
+
+import org.hibernate.HibernateException;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.OptimisticLockStyle;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.Component;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Property;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.Type;
+
+/**
+ * Refuses entities whose optimistic locking compares the loaded state with fingerprinted arrays, and drops the
+ * array types built for the service registry of a session factory when it closes.
+ *
+ * @author Yordan Gigov
+ */
+public class ArrayTypeIntegrator implements Integrator {
+
+	@Override
+	public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+		for ( PersistentClass entity : metadata.getEntityBindings() ) {
+			OptimisticLockStyle style = entity.getOptimisticLockStyle();
+			if ( style == OptimisticLockStyle.ALL || style == OptimisticLockStyle.DIRTY ) {
+				// the loaded state holds an empty stand-in for such arrays, which the WHERE clause would compare to
+				checkLocking( entity.getEntityName(), entity.getPropertyClosureIterator() );
+			}
+		}
+	}
+
+	private static void checkLocking(String path, Iterator<?> properties) {
+		while ( properties.hasNext() ) {
+			Property property = (Property) properties.next();
+			if ( property.getValue() instanceof Component ) {
+				checkLocking( path + "." + property.getName(), ( (Component) property.getValue() ).getPropertyIterator() );
+				continue;
+			}
+			Type type = property.getType();
+			if ( type.isMutable() && type instanceof AbstractStandardBasicType
+					&& ( (AbstractStandardBasicType<?>) type ).getJavaTypeDescriptor() instanceof GenericArrayTypeDescriptor
+					&& ( (GenericArrayTypeDescriptor<?>) ( (AbstractStandardBasicType<?>) type ).getJavaTypeDescriptor() ).keepsFingerprints() ) {
+				throw new HibernateException( path + "." + property.getName() + " is fingerprinted for dirty checking, "
+						+ "which optimistic locking of all or dirty properties does not support. "
+						+ "Use a version, or leave hibernate.arrays.fingerprint_threshold unset." );
+			}
+		}
+	}
+
+	@Override
+	public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+		// type contributors get the registry the factory's own is built on
+		ArrayTypes.release( serviceRegistry.getParentServiceRegistry() );
+	}
+
+}
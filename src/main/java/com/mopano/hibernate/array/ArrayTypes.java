@@ -10,11 +10,23 @@ package com.mopano.hibernate.array;
 import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
 import com.mopano.hibernate.array.sql.ArrayTypeDescriptor;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.IdentityHashMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
 import org.hibernate.boot.registry.classloading.spi.ClassLoadingException;
+import org.hibernate.boot.registry.selector.spi.StrategySelector;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.service.ServiceRegistry;
 import org.hibernate.type.AbstractSingleColumnStandardBasicType;
 import org.hibernate.type.AbstractStandardBasicType;
@@ -27,50 +39,142 @@ public class ArrayTypes<T>
 
 	private static final long serialVersionUID = 7485056093781707625L;
 
-	private static final IdentityHashMap<AbstractStandardBasicType<?>, ArrayTypes<?>> existingTypes = new IdentityHashMap<>();
+	/**
+	 * Types built for each service registry. The registries are weak keys,
+	 * and the types do not refer to them, so the types of a registry go when it does.
+	 */
+	private static final Map<ServiceRegistry, RegistryTypes> existingTypes = Collections.synchronizedMap( new WeakHashMap<>() );
 
-	@SuppressWarnings("unchecked")
 	public static <T> ArrayTypes<T> get(AbstractStandardBasicType<T> baseDescriptor, ServiceRegistry registry) {
-		ArrayTypes<T> t = (ArrayTypes<T>) existingTypes.get(baseDescriptor);
-		if (t == null) {
-			t = new ArrayTypes<>(baseDescriptor, registry);
-			existingTypes.put(baseDescriptor, t);
-		}
-		return t;
+		return get( baseDescriptor, registry, null );
 	}
 
 	@SuppressWarnings("unchecked")
 	public static <T> ArrayTypes<T> get(AbstractStandardBasicType<T> baseDescriptor, ServiceRegistry registry, Class unwrap) {
-		ArrayTypes<T> t = (ArrayTypes<T>) existingTypes.get(baseDescriptor);
-		if (t == null) {
-			t = new ArrayTypes<>(baseDescriptor, registry, unwrap);
-			existingTypes.put(baseDescriptor, t);
-		}
-		return t;
+		return (ArrayTypes<T>) registryTypes( registry ).types.computeIfAbsent( new AbstractMap.SimpleImmutableEntry<>( baseDescriptor, unwrap ),
+				k -> new ArrayTypes<>( baseDescriptor, registry, unwrap ) );
+	}
+
+	private static RegistryTypes registryTypes(ServiceRegistry registry) {
+		return existingTypes.computeIfAbsent( registry, RegistryTypes::new );
+	}
+
+	/**
+	 * Drops the types built for a service registry. Called when a session factory closes,
+	 * for the registry it was built from.
+	 *
+	 * @param registry Service registry the types were built for.
+	 */
+	public static void release(ServiceRegistry registry) {
+		existingTypes.remove( registry );
 	}
 
 	private final String name;
+	private final String elementName;
 	private final String[] regKeys;
-	private final ServiceRegistry registry;
 
 	public ArrayTypes(AbstractStandardBasicType<T> baseDescriptor, ServiceRegistry registry) {
 		this( baseDescriptor, registry, null );
 	}
 
 	public ArrayTypes(AbstractStandardBasicType<T> baseDescriptor, ServiceRegistry registry, Class unwrap) {
-		super( ArrayTypeDescriptor.INSTANCE, new GenericArrayTypeDescriptor<>( baseDescriptor, unwrap ) );
+		super( sqlDescriptor( registry, baseDescriptor ),
+				new GenericArrayTypeDescriptor<>( baseDescriptor, unwrap, dialect( registry ), fingerprintThreshold( registry ),
+						registryTypes( registry ).metrics, eventThreshold( registry ) ) );
 		this.name = baseDescriptor.getName() + "[]";
-		this.registry = registry;
-		this.regKeys = buildTypeRegistrations( baseDescriptor.getRegistrationKeys(), ArrayTypes.class.isInstance( baseDescriptor ) );
+		if ( baseDescriptor instanceof EnumElementType ) {
+			// registered under the class and the name, whether or not the name is also a class
+			this.elementName = baseDescriptor.getName();
+			this.regKeys = new String[]{ "[L" + baseDescriptor.getReturnedClass().getName() + ";", name };
+		}
+		else {
+			this.elementName = baseDescriptor.getReturnedClass().getSimpleName();
+			this.regKeys = buildTypeRegistrations( registry, baseDescriptor.getRegistrationKeys(), ArrayTypes.class.isInstance( baseDescriptor ) );
+		}
+	}
+
+	/**
+	 * What is shared by the types of one service registry.
+	 */
+	private static final class RegistryTypes {
+
+		/**
+		 * Types by base type and unwrap class.
+		 */
+		final ConcurrentMap<Map.Entry<AbstractStandardBasicType<?>, Class>, ArrayTypes<?>> types = new ConcurrentHashMap<>();
+		/**
+		 * The {@code hibernate.arrays.metrics} setting, resolved once for all types.
+		 */
+		final ArrayMetrics metrics;
+
+		RegistryTypes(ServiceRegistry registry) {
+			ConfigurationService config = registry.getService( ConfigurationService.class );
+			Object setting = config == null ? null : config.getSettings().get( "hibernate.arrays.metrics" );
+			this.metrics = setting == null ? null : registry.getService( StrategySelector.class ).resolveStrategy( ArrayMetrics.class, setting );
+		}
+	}
+
+	/**
+	 * @param registry Service registry the type is created for.
+	 * @return the dialect, if the registry already knows it
+	 */
+	private static Dialect dialect(ServiceRegistry registry) {
+		JdbcServices jdbcServices = registry.getService( JdbcServices.class );
+		return jdbcServices == null ? null : jdbcServices.getDialect();
+	}
+
+	/**
+	 * @param registry Service registry the type is created for.
+	 * @param baseDescriptor Type of the elements.
+	 * @return the descriptor for the {@code hibernate.arrays.literal} and {@code hibernate.arrays.binary} settings
+	 */
+	private static ArrayTypeDescriptor sqlDescriptor(ServiceRegistry registry, AbstractStandardBasicType<?> baseDescriptor) {
+		if ( baseDescriptor instanceof EnumElementType && ! ( (EnumElementType<?>) baseDescriptor ).isOrdinal() ) {
+			// the server casts the names to the column's enum type, which has no JDBC type name here
+			return ArrayTypeDescriptor.LITERAL;
+		}
+		ConfigurationService config = registry.getService( ConfigurationService.class );
+		if ( config != null && config.getSetting( "hibernate.arrays.literal", StandardConverters.BOOLEAN, Boolean.FALSE ) ) {
+			return ArrayTypeDescriptor.LITERAL;
+		}
+		return binary( registry ) ? ArrayTypeDescriptor.BINARY : ArrayTypeDescriptor.INSTANCE;
+	}
+
+	/**
+	 * @param registry Service registry the type is created for.
+	 * @return the {@code hibernate.arrays.binary} setting
+	 */
+	private static boolean binary(ServiceRegistry registry) {
+		ConfigurationService config = registry.getService( ConfigurationService.class );
+		return config != null && config.getSetting( "hibernate.arrays.binary", StandardConverters.BOOLEAN, Boolean.FALSE );
+	}
+
+	/**
+	 * @param registry Service registry the type is created for.
+	 * @return the {@code hibernate.arrays.fingerprint_threshold} setting, 0 if not set
+	 */
+	private static int fingerprintThreshold(ServiceRegistry registry) {
+		ConfigurationService config = registry.getService( ConfigurationService.class );
+		return config == null ? 0 : ConfigurationHelper.getInt( "hibernate.arrays.fingerprint_threshold", config.getSettings(), 0 );
+	}
+
+	/**
+	 * @param registry Service registry the type is created for.
+	 * @return the {@code hibernate.arrays.event_threshold} setting, 0 if not set
+	 */
+	private static int eventThreshold(ServiceRegistry registry) {
+		ConfigurationService config = registry.getService( ConfigurationService.class );
+		return config == null ? 0 : ConfigurationHelper.getInt( "hibernate.arrays.event_threshold", config.getSettings(), 0 );
 	}
 
 	/**
 	 * Builds the array registration keys, based on the original type's keys.
 	 *
+	 * @param registry Service registry the type is created for.
 	 * @param baseKeys Array of keys used by the base type.
 	 * @return
 	 */
-	private String[] buildTypeRegistrations(String[] baseKeys, boolean noSQLrecurse) {
+	private static String[] buildTypeRegistrations(ServiceRegistry registry, String[] baseKeys, boolean noSQLrecurse) {
 		ClassLoaderService cls = registry.getService(ClassLoaderService.class);
 		ArrayList<String> keys = new ArrayList<>( baseKeys.length << 1 );
 		for ( String bk : baseKeys ) {
@@ -126,7 +230,7 @@ public class ArrayTypes<T>
 						addSQL = false;
 				}
 				if ( c.isPrimitive() ) {
-					// disallow. 
+					// arrays of primitives are handled by PrimitiveArrayTypes
 					continue;
 				}
 				if ( c.isArray() ) {
@@ -168,9 +272,25 @@ public class ArrayTypes<T>
 		return (String[]) regKeys.clone();
 	}
 
+	/**
+	 * @return how the elements are named in the types built on this one, such as {@code Long} in {@code List<Long>}
+	 */
+	public String getElementName() {
+		return elementName;
+	}
+
 	@Override
 	protected boolean registerUnderJavaType() {
 		return true;
 	}
 
+	@Override
+	protected T[] getReplacement(T[] original, T[] target, SharedSessionContractImplementor session) {
+		// merge hands the copy to the application, so it must never be a fingerprint snapshot
+		if ( isEqual( original, target ) ) {
+			return original;
+		}
+		return ( (GenericArrayTypeDescriptor<T>) getJavaTypeDescriptor() ).copy( original );
+	}
+
 }
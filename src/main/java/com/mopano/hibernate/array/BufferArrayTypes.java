@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.BufferArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.DoubleBufferTypeDescriptor;
+import com.mopano.hibernate.array.java.FloatBufferTypeDescriptor;
+import com.mopano.hibernate.array.java.LongBufferTypeDescriptor;
+import com.mopano.hibernate.array.sql.ArrayTypeDescriptor;
+
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+
+/**
+ * Array types held in direct NIO buffers. Registered under the Java class name, such as {@code java.nio.LongBuffer},
+ * and the simple name, such as {@code LongBuffer}.
+ *
+ * @author Yordan Gigov
+ * @param <B> buffer type
+ */
+public class BufferArrayTypes<B extends Buffer>
+		extends AbstractSingleColumnStandardBasicType<B> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final BufferArrayTypes<LongBuffer> LONG = new BufferArrayTypes<>( LongBufferTypeDescriptor.INSTANCE );
+	public static final BufferArrayTypes<DoubleBuffer> DOUBLE = new BufferArrayTypes<>( DoubleBufferTypeDescriptor.INSTANCE );
+	public static final BufferArrayTypes<FloatBuffer> FLOAT = new BufferArrayTypes<>( FloatBufferTypeDescriptor.INSTANCE );
+
+	private final String name;
+
+	public BufferArrayTypes(BufferArrayTypeDescriptor<B> descriptor) {
+		super( ArrayTypeDescriptor.INSTANCE, descriptor );
+		this.name = descriptor.getJavaTypeClass().getSimpleName();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	protected boolean registerUnderJavaType() {
+		return true;
+	}
+
+}
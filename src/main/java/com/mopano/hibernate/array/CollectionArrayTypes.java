@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.CollectionArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.ListArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.SetArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.SortedSetArrayTypeDescriptor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+
+/**
+ * {@link List}, {@link Set} and {@link SortedSet} attributes stored in array columns.
+ * Registered as the interface and element class names, such as {@code List<Long>} and
+ * {@code java.util.List<java.lang.Long>}, to be used with {@link org.hibernate.annotations.Type}.
+ *
+ * @author Yordan Gigov
+ * @param <C> collection type
+ * @param <T> element type
+ */
+public class CollectionArrayTypes<C extends Collection<T>, T>
+		extends AbstractSingleColumnStandardBasicType<C> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String name;
+	private final String[] regKeys;
+
+	/**
+	 * @param arrayType Type of the array of elements.
+	 * @param descriptor Descriptor of the collection, based on the descriptor of the array type.
+	 */
+	public CollectionArrayTypes(ArrayTypes<T> arrayType, CollectionArrayTypeDescriptor<C, T> descriptor) {
+		super( arrayType.getSqlTypeDescriptor(), descriptor );
+		Class<?> collectionClass = descriptor.getJavaTypeClass();
+		Class<?> componentClass = descriptor.getArrayDescriptor().getComponentClass();
+		this.name = collectionClass.getSimpleName() + "<" + arrayType.getElementName() + ">";
+		this.regKeys = new String[]{ name, collectionClass.getName() + "<" + componentClass.getName() + ">" };
+	}
+
+	public static <T> CollectionArrayTypes<List<T>, T> list(ArrayTypes<T> arrayType) {
+		return new CollectionArrayTypes<>( arrayType, new ListArrayTypeDescriptor<>( arrayDescriptor( arrayType ) ) );
+	}
+
+	public static <T> CollectionArrayTypes<Set<T>, T> set(ArrayTypes<T> arrayType) {
+		return new CollectionArrayTypes<>( arrayType, new SetArrayTypeDescriptor<>( arrayDescriptor( arrayType ) ) );
+	}
+
+	public static <T> CollectionArrayTypes<SortedSet<T>, T> sortedSet(ArrayTypes<T> arrayType) {
+		return new CollectionArrayTypes<>( arrayType, new SortedSetArrayTypeDescriptor<>( arrayDescriptor( arrayType ) ) );
+	}
+
+	private static <T> GenericArrayTypeDescriptor<T> arrayDescriptor(ArrayTypes<T> arrayType) {
+		return (GenericArrayTypeDescriptor<T>) arrayType.getJavaTypeDescriptor();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String[] getRegistrationKeys() {
+		return (String[]) regKeys.clone();
+	}
+
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.ArrayLiteralEncoder;
+import com.mopano.hibernate.array.java.BufferArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.CollectionArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.LazyArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.MultiArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.PrimitiveArrayTypeDescriptor;
+import com.mopano.hibernate.array.sql.PgCopyStream;
+import com.mopano.hibernate.array.sql.PgJdbcSupport;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.BigDecimalType;
+import org.hibernate.type.BigIntegerType;
+import org.hibernate.type.BinaryType;
+import org.hibernate.type.BooleanType;
+import org.hibernate.type.ByteType;
+import org.hibernate.type.CharacterType;
+import org.hibernate.type.ClassType;
+import org.hibernate.type.CurrencyType;
+import org.hibernate.type.DateType;
+import org.hibernate.type.DoubleType;
+import org.hibernate.type.DurationType;
+import org.hibernate.type.FloatType;
+import org.hibernate.type.InstantType;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.LocalDateTimeType;
+import org.hibernate.type.LocalDateType;
+import org.hibernate.type.LocalTimeType;
+import org.hibernate.type.LocaleType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.MaterializedClobType;
+import org.hibernate.type.NumericBooleanType;
+import org.hibernate.type.OffsetDateTimeType;
+import org.hibernate.type.OffsetTimeType;
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.ShortType;
+import org.hibernate.type.StringType;
+import org.hibernate.type.TextType;
+import org.hibernate.type.TimeType;
+import org.hibernate.type.TimestampType;
+import org.hibernate.type.TrueFalseType;
+import org.hibernate.type.Type;
+import org.hibernate.type.UUIDBinaryType;
+import org.hibernate.type.UUIDCharType;
+import org.hibernate.type.UrlType;
+import org.hibernate.type.YesNoType;
+import org.hibernate.type.ZonedDateTimeType;
+import org.hibernate.type.descriptor.java.JavaTypeDescriptor;
+import org.hibernate.type.descriptor.java.UUIDTypeDescriptor;
+
+/**
+ * Bulk loading through PostgreSQL {@code COPY ... FROM STDIN}. Arrays are written straight into the outgoing
+ * buffer, with the literal encoding of {@code toString} where it is the server's own, and otherwise with each
+ * element written as in a scalar column, such as full precision temporals. Rows are taken from the iterator
+ * as the buffer empties, so memory use is bounded by the buffer size and the largest row, and the
+ * iterator is not read faster than the server accepts the data.
+ * <p>
+ * Copied entities bypass the session: they are not made persistent, no events are fired, and
+ * generated identifiers are not supported.
+ *
+ * @author Yordan Gigov
+ */
+public final class CopyLoader {
+
+	/**
+	 * Number of characters collected before they are sent.
+	 */
+	public static final int BUFFER_SIZE = 1 << 16;
+
+	private CopyLoader() {
+	}
+
+	/**
+	 * Copies entities of a class mapped to a single table with single-column basic properties.
+	 *
+	 * @param <E> entity type
+	 * @param session Session whose connection is used. Must be connected to PostgreSQL through PgJDBC.
+	 * @param entityClass Entity class.
+	 * @param entities Entities with assigned identifiers.
+	 * @return number of rows copied
+	 * @throws HibernateException if the mapping is not supported or copying fails
+	 */
+	public static <E> long copyEntities(Session session, Class<E> entityClass, Iterator<? extends E> entities) {
+		final SessionImplementor si = session.unwrap( SessionImplementor.class );
+		final AbstractEntityPersister persister = (AbstractEntityPersister) si.getFactory().getMetamodel().entityPersister( entityClass );
+		if ( persister.isInherited() || persister.getEntityMetamodel().hasSubclasses() ) {
+			throw new HibernateException( "Copying entities with inheritance is not supported: " + persister.getEntityName() );
+		}
+		List<String> columns = new ArrayList<>();
+		List<AbstractStandardBasicType<?>> types = new ArrayList<>();
+		final List<Integer> properties = new ArrayList<>();
+		addColumn( persister.getEntityName(), persister.getIdentifierPropertyName(),
+				persister.getIdentifierColumnNames(), persister.getIdentifierType(), columns, types );
+		final String[] names = persister.getPropertyNames();
+		final boolean[] insertable = persister.getPropertyInsertability();
+		for ( int i = 0; i < names.length; i ++ ) {
+			String[] propertyColumns = persister.getPropertyColumnNames( i );
+			if ( ! insertable[ i ] || propertyColumns.length == 0 ) {
+				continue;
+			}
+			addColumn( persister.getEntityName(), names[ i ], propertyColumns, persister.getPropertyType( names[ i ] ), columns, types );
+			properties.add( i );
+		}
+		final Object[] row = new Object[columns.size()];
+		Iterator<Object[]> rows = new Iterator<Object[]>() {
+			@Override
+			public boolean hasNext() {
+				return entities.hasNext();
+			}
+
+			@Override
+			public Object[] next() {
+				E entity = entities.next();
+				row[ 0 ] = persister.getIdentifier( entity, si );
+				if ( row[ 0 ] == null ) {
+					throw new HibernateException( "Copied entities need an assigned identifier: " + persister.getEntityName() );
+				}
+				Object[] values = persister.getPropertyValues( entity );
+				for ( int c = 0; c < properties.size(); c ++ ) {
+					row[ c + 1 ] = values[ properties.get( c ) ];
+				}
+				return row;
+			}
+		};
+		return copyRows( session, persister.getTableName(), columns.toArray( new String[columns.size()] ),
+				types.toArray( new AbstractStandardBasicType<?>[types.size()] ), rows );
+	}
+
+	private static void addColumn(String entityName, String property, String[] columnNames, Type type,
+			List<String> columns, List<AbstractStandardBasicType<?>> types) {
+		if ( columnNames.length != 1 || ! ( type instanceof AbstractStandardBasicType ) ) {
+			throw new HibernateException( "Copying supports only single-column basic properties, not "
+					+ entityName + "." + property );
+		}
+		columns.add( columnNames[ 0 ] );
+		types.add( (AbstractStandardBasicType<?>) type );
+	}
+
+	/**
+	 * Copies rows of values.
+	 *
+	 * @param session Session whose connection is used. Must be connected to PostgreSQL through PgJDBC.
+	 * @param table Table name, quoted where needed.
+	 * @param columns Column names, quoted where needed.
+	 * @param types Type of the values of each column, such as {@link org.hibernate.type.LongType#INSTANCE} or an {@link ArrayTypes}.
+	 * @param rows Rows, with a value or null for each column. A row may be reused once the next one is requested.
+	 * @return number of rows copied
+	 * @throws HibernateException if copying fails
+	 */
+	public static long copyRows(Session session, String table, String[] columns, AbstractStandardBasicType<?>[] types, Iterator<Object[]> rows) {
+		final String sql = "COPY " + table + " (" + String.join( ", ", columns ) + ") FROM STDIN";
+		return session.doReturningWork( conn -> copy( conn, sql, types, rows ) );
+	}
+
+	private static long copy(Connection conn, String sql, AbstractStandardBasicType<?>[] types, Iterator<Object[]> rows) throws SQLException {
+		if ( ! PgJdbcSupport.isPgConnection( conn ) ) {
+			throw new HibernateException( "COPY needs a PostgreSQL JDBC connection" );
+		}
+		final ValueWriter[] writers = new ValueWriter[types.length];
+		for ( int i = 0; i < types.length; i ++ ) {
+			writers[ i ] = writer( types[ i ] );
+		}
+		final StringBuilder sb = new StringBuilder( BUFFER_SIZE + ( BUFFER_SIZE >> 2 ) );
+		final CopyTextEscaper out = new CopyTextEscaper( sb );
+		try ( PgCopyStream copy = PgCopyStream.open( conn, sql ) ) {
+			while ( rows.hasNext() ) {
+				Object[] row = rows.next();
+				for ( int i = 0; i < writers.length; i ++ ) {
+					if ( i > 0 ) {
+						sb.append( '\t' );
+					}
+					if ( row[ i ] == null ) {
+						sb.append( "\\N" );
+					}
+					else {
+						write( writers[ i ], row[ i ], out );
+					}
+				}
+				sb.append( '\n' );
+				if ( sb.length() >= BUFFER_SIZE ) {
+					copy.write( sb );
+					sb.setLength( 0 );
+				}
+			}
+			if ( sb.length() > 0 ) {
+				copy.write( sb );
+			}
+			return copy.finish();
+		}
+	}
+
+	private static void write(ValueWriter writer, Object value, CopyTextEscaper out) {
+		try {
+			writer.write( value, out );
+		}
+		catch ( IOException ex ) {
+			// the escaper writes to a StringBuilder, which does not throw it
+			throw new HibernateException( ex );
+		}
+	}
+
+	/**
+	 * Writes a value in PostgreSQL's text input format.
+	 */
+	@FunctionalInterface
+	private interface ValueWriter {
+		void write(Object value, Appendable out) throws IOException;
+	}
+
+	/**
+	 * Finds the writer of a column. Scalars are written the way Hibernate binds them,
+	 * not with {@link JavaTypeDescriptor#toString(java.lang.Object)}, whose formats are Hibernate's own.
+	 *
+	 * @param type Type of the column.
+	 * @return the writer
+	 * @throws HibernateException if the type has no known text format
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ValueWriter writer(AbstractStandardBasicType<?> type) {
+		final JavaTypeDescriptor descriptor = type.getJavaTypeDescriptor();
+		if ( descriptor instanceof GenericArrayTypeDescriptor ) {
+			return arrayWriter( (GenericArrayTypeDescriptor) descriptor );
+		}
+		if ( descriptor instanceof CollectionArrayTypeDescriptor ) {
+			final CollectionArrayTypeDescriptor collections = (CollectionArrayTypeDescriptor) descriptor;
+			final ValueWriter elements = arrayWriter( collections.getArrayDescriptor() );
+			return (value, out) -> elements.write( collections.toArray( (Collection) value ), out );
+		}
+		if ( descriptor instanceof LazyArrayTypeDescriptor ) {
+			final ValueWriter elements = arrayWriter( ( (LazyArrayTypeDescriptor) descriptor ).getArrayDescriptor() );
+			return (value, out) -> elements.write( ( (LazyArray) value ).toArray(), out );
+		}
+		if ( descriptor instanceof PrimitiveArrayTypeDescriptor ) {
+			return (value, out) -> ( (PrimitiveArrayTypeDescriptor) descriptor ).appendTo( value, out );
+		}
+		if ( descriptor instanceof BufferArrayTypeDescriptor ) {
+			return (value, out) -> ( (BufferArrayTypeDescriptor) descriptor ).appendTo( (Buffer) value, out );
+		}
+		if ( descriptor instanceof MultiArrayTypeDescriptor ) {
+			// literals of numbers
+			return (value, out) -> out.append( descriptor.toString( value ) );
+		}
+		if ( type instanceof LongType || type instanceof IntegerType || type instanceof ShortType || type instanceof ByteType
+				|| type instanceof BigIntegerType || type instanceof BigDecimalType || type instanceof DoubleType || type instanceof FloatType
+				|| type instanceof StringType || type instanceof TextType || type instanceof MaterializedClobType || type instanceof CharacterType
+				|| type instanceof UrlType || type instanceof LocaleType || type instanceof PostgresUUIDType || type instanceof UUIDCharType ) {
+			// numbers in Java notation, which numeric, real and double precision accept, and plain text
+			return (value, out) -> out.append( value.toString() );
+		}
+		if ( type instanceof BooleanType ) {
+			return (value, out) -> out.append( (Boolean) value ? 't' : 'f' );
+		}
+		if ( type instanceof NumericBooleanType ) {
+			return (value, out) -> out.append( (Boolean) value ? '1' : '0' );
+		}
+		if ( type instanceof YesNoType ) {
+			return (value, out) -> out.append( (Boolean) value ? 'Y' : 'N' );
+		}
+		if ( type instanceof TrueFalseType ) {
+			return (value, out) -> out.append( (Boolean) value ? 'T' : 'F' );
+		}
+		if ( type instanceof CurrencyType ) {
+			return (value, out) -> out.append( ( (Currency) value ).getCurrencyCode() );
+		}
+		if ( type instanceof ClassType ) {
+			return (value, out) -> out.append( ( (Class<?>) value ).getName() );
+		}
+		if ( type instanceof BinaryType ) {
+			return (value, out) -> appendBytea( (byte[]) value, out );
+		}
+		if ( type instanceof UUIDBinaryType ) {
+			return (value, out) -> appendBytea( UUIDTypeDescriptor.ToBytesTransformer.INSTANCE.transform( (UUID) value ), out );
+		}
+		if ( type instanceof DurationType ) {
+			return (value, out) -> ArrayLiteralEncoder.appendLong( out, ( (Duration) value ).toNanos() );
+		}
+		if ( type instanceof LocalDateType ) {
+			return (value, out) -> out.append( DateTimeFormatter.ISO_LOCAL_DATE.format( (LocalDate) value ) );
+		}
+		if ( type instanceof LocalTimeType ) {
+			return (value, out) -> out.append( DateTimeFormatter.ISO_LOCAL_TIME.format( (LocalTime) value ) );
+		}
+		if ( type instanceof LocalDateTimeType ) {
+			return (value, out) -> out.append( DateTimeFormatter.ISO_LOCAL_DATE_TIME.format( (LocalDateTime) value ) );
+		}
+		if ( type instanceof OffsetTimeType || type instanceof PgOffsetTimeType ) {
+			return (value, out) -> out.append( DateTimeFormatter.ISO_OFFSET_TIME.format( (OffsetTime) value ) );
+		}
+		if ( type instanceof InstantType ) {
+			return (value, out) -> appendInstant( (Instant) value, out );
+		}
+		if ( type instanceof ZonedDateTimeType ) {
+			return (value, out) -> appendInstant( ( (ZonedDateTime) value ).toInstant(), out );
+		}
+		if ( type instanceof OffsetDateTimeType ) {
+			return (value, out) -> appendInstant( ( (OffsetDateTime) value ).toInstant(), out );
+		}
+		if ( type instanceof TimestampType ) {
+			return (value, out) -> out.append( value instanceof Timestamp ? value.toString() : new Timestamp( ( (java.util.Date) value ).getTime() ).toString() );
+		}
+		if ( type instanceof DateType ) {
+			return (value, out) -> out.append( new java.sql.Date( ( (java.util.Date) value ).getTime() ).toString() );
+		}
+		if ( type instanceof TimeType ) {
+			return (value, out) -> out.append( new java.sql.Time( ( (java.util.Date) value ).getTime() ).toString() );
+		}
+		throw new HibernateException( "Copying does not support values of type " + type.getName() );
+	}
+
+	/**
+	 * Finds the writer of an array column. Elements whose literal form is not the server's own are written
+	 * with the writer of their scalar type and quoted, so types without one are rejected before copying starts.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ValueWriter arrayWriter(GenericArrayTypeDescriptor descriptor) {
+		if ( descriptor.writesServerText() ) {
+			return (value, out) -> descriptor.appendTo( (Object[]) value, out );
+		}
+		final ValueWriter element = writer( descriptor.getBaseType() );
+		final StringBuilder text = new StringBuilder();
+		return (value, out) -> {
+			Object[] elements = descriptor.resolve( (Object[]) value );
+			out.append( '{' );
+			for ( int i = 0; i < elements.length; i ++ ) {
+				if ( i > 0 ) {
+					out.append( ',' );
+				}
+				if ( elements[ i ] == null ) {
+					out.append( "NULL" );
+				}
+				else {
+					text.setLength( 0 );
+					element.write( elements[ i ], text );
+					ArrayLiteralEncoder.appendQuoted( out, text );
+				}
+			}
+			out.append( '}' );
+		};
+	}
+
+	/**
+	 * Writes an instant with the offset of the default time zone, as it is bound through {@link Timestamp},
+	 * so that {@code timestamp} columns get the same local time and {@code timestamptz} columns the same instant.
+	 */
+	private static void appendInstant(Instant value, Appendable out) throws IOException {
+		out.append( DateTimeFormatter.ISO_OFFSET_DATE_TIME.format( value.atZone( ZoneId.systemDefault() ) ) );
+	}
+
+	/**
+	 * Writes bytes in the hex format of {@code bytea}.
+	 */
+	private static void appendBytea(byte[] value, Appendable out) throws IOException {
+		out.append( '\\' ).append( 'x' );
+		for ( byte b : value ) {
+			out.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+		}
+	}
+
+	/**
+	 * Escapes the characters that COPY's text format gives a meaning to.
+	 */
+	private static final class CopyTextEscaper implements Appendable {
+
+		private final StringBuilder sb;
+
+		CopyTextEscaper(StringBuilder sb) {
+			this.sb = sb;
+		}
+
+		@Override
+		public Appendable append(CharSequence csq) {
+			return append( csq, 0, csq.length() );
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) {
+			for ( int i = start; i < end; i ++ ) {
+				append( csq.charAt( i ) );
+			}
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) {
+			switch ( c ) {
+				case '\\':
+					sb.append( "\\\\" );
+					break;
+				case '\t':
+					sb.append( "\\t" );
+					break;
+				case '\n':
+					sb.append( "\\n" );
+					break;
+				case '\r':
+					sb.append( "\\r" );
+					break;
+				default:
+					sb.append( c );
+			}
+			return this;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import java.util.Arrays;
+
+/**
+ * Multi-dimensional {@code double} array, mapped to {@code double precision[][]} and deeper.
+ *
+ * @author Yordan Gigov
+ */
+public final class DoubleMultiArray extends MultiArray {
+
+	private static final long serialVersionUID = 1L;
+
+	private final double[] data;
+
+	/**
+	 * Creates an array of zeros.
+	 *
+	 * @param dimensions Length of each dimension, outermost first.
+	 */
+	public DoubleMultiArray(int... dimensions) {
+		super( dimensions );
+		this.data = new double[size()];
+	}
+
+	/**
+	 * @param data Elements in row-major order. Used as is, not copied.
+	 * @param dimensions Length of each dimension, outermost first.
+	 * @throws IllegalArgumentException if the data length does not match the dimensions
+	 */
+	public DoubleMultiArray(double[] data, int... dimensions) {
+		super( dimensions );
+		if ( data.length != size() ) {
+			throw new IllegalArgumentException( "Data length " + data.length + " does not match dimensions " + Arrays.toString( dimensions ) );
+		}
+		this.data = data;
+	}
+
+	/**
+	 * @param rows Rows of equal length.
+	 * @return two-dimensional array with the values of the rows
+	 * @throws IllegalArgumentException if the rows differ in length
+	 */
+	public static DoubleMultiArray of(double[][] rows) {
+		final int columns = rows.length == 0 ? 0 : rows[ 0 ].length;
+		double[] data = new double[rows.length * columns];
+		for ( int i = 0; i < rows.length; i ++ ) {
+			if ( rows[ i ].length != columns ) {
+				throw new IllegalArgumentException( "Row " + i + " has " + rows[ i ].length + " elements instead of " + columns );
+			}
+			System.arraycopy( rows[ i ], 0, data, i * columns, columns );
+		}
+		return new DoubleMultiArray( data, rows.length, columns );
+	}
+
+	/**
+	 * @return the elements in row-major order. Changes write through.
+	 */
+	public double[] getData() {
+		return data;
+	}
+
+	public double get(int... indices) {
+		return data[ indexOf( indices ) ];
+	}
+
+	public void set(double value, int... indices) {
+		data[ indexOf( indices ) ] = value;
+	}
+
+	@Override
+	public DoubleMultiArray copy() {
+		return new DoubleMultiArray( data.clone(), getDimensions() );
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( this == obj ) {
+			return true;
+		}
+		if ( ! ( obj instanceof DoubleMultiArray ) ) {
+			return false;
+		}
+		DoubleMultiArray other = (DoubleMultiArray) obj;
+		return sameShape( other ) && Arrays.equals( data, other.data );
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + Arrays.hashCode( data );
+	}
+
+	@Override
+	public String toString() {
+		return "DoubleMultiArray" + Arrays.toString( getDimensions() ) + Arrays.toString( data );
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.EnumJavaTypeDescriptor;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+import org.hibernate.type.descriptor.sql.SmallIntTypeDescriptor;
+import org.hibernate.type.descriptor.sql.VarcharTypeDescriptor;
+
+/**
+ * Element type of enum arrays, only used to build {@link ArrayTypes}. Ordinals are stored as {@code smallint[]}.
+ * Names are stored in an array of a PostgreSQL enum type, which is bound as a literal for the server to cast.
+ *
+ * @param <E> enum type
+ * @author Yordan Gigov
+ */
+public class EnumElementType<E extends Enum<E>> extends AbstractSingleColumnStandardBasicType<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Class<E> enumClass;
+	private final boolean ordinal;
+	private final boolean qualified;
+
+	/**
+	 * @param enumClass The enum.
+	 * @param ordinal Whether elements are stored by ordinal instead of by name.
+	 */
+	public EnumElementType(Class<E> enumClass, boolean ordinal) {
+		this( enumClass, ordinal, false );
+	}
+
+	/**
+	 * @param enumClass The enum.
+	 * @param ordinal Whether elements are stored by ordinal instead of by name.
+	 * @param qualified Whether the types are named by the full class name, for enums whose simple name is not unique.
+	 */
+	public EnumElementType(Class<E> enumClass, boolean ordinal, boolean qualified) {
+		super( ordinal ? SmallIntTypeDescriptor.INSTANCE : VarcharTypeDescriptor.INSTANCE,
+				new EnumJavaTypeDescriptor<>( enumClass, ordinal ) );
+		this.enumClass = enumClass;
+		this.ordinal = ordinal;
+		this.qualified = qualified;
+	}
+
+	public boolean isOrdinal() {
+		return ordinal;
+	}
+
+	/**
+	 * The array types are registered under this name followed by {@code []}, such as {@code "Role[]"} for
+	 * {@code @Type}, since Hibernate maps attributes with enum elements to its EnumType unless told otherwise.
+	 *
+	 * @return the simple name of the enum, or the full name if it is qualified
+	 */
+	@Override
+	public String getName() {
+		return qualified ? enumClass.getName() : enumClass.getSimpleName();
+	}
+
+	@Override
+	public String[] getRegistrationKeys() {
+		return new String[]{ enumClass.getName() };
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( ! ( obj instanceof EnumElementType ) ) {
+			return false;
+		}
+		EnumElementType<?> other = (EnumElementType<?>) obj;
+		return enumClass == other.enumClass && ordinal == other.ordinal && qualified == other.qualified;
+	}
+
+	@Override
+	public int hashCode() {
+		return enumClass.hashCode() * 4 + ( ordinal ? 2 : 0 ) + ( qualified ? 1 : 0 );
+	}
+}
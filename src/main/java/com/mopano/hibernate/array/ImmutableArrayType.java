@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
+import java.util.LinkedHashSet;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+import org.hibernate.type.descriptor.java.ImmutableMutabilityPlan;
+import org.hibernate.type.descriptor.java.JavaTypeDescriptor;
+import org.hibernate.type.descriptor.java.MutabilityPlan;
+
+/**
+ * Array type for values that are replaced, but never modified in place.
+ * Snapshots and copies share the loaded array, so dirty checking sees the same reference
+ * and skips comparing the elements.
+ * <p>
+ * Registered as {@code imm_} followed by the Java type name, such as {@code imm_Long[]}
+ * or {@code imm_long[]}, and by each key of the mutable type, such as {@code imm_text[]},
+ * following Hibernate's own {@code imm_date} and similar types.
+ * Hash codes of long object arrays are computed once per array.
+ *
+ * @author Yordan Gigov
+ * @param <T> array type
+ */
+public class ImmutableArrayType<T>
+		extends AbstractSingleColumnStandardBasicType<T> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String name;
+	private final String[] regKeys;
+
+	/**
+	 * @param baseType The mutable type.
+	 * @param replaceBase Whether to also register under the keys of the mutable type, replacing it.
+	 */
+	public ImmutableArrayType(AbstractSingleColumnStandardBasicType<T> baseType, boolean replaceBase) {
+		super( baseType.getSqlTypeDescriptor(), memoizeHashes( baseType.getJavaTypeDescriptor() ) );
+		this.name = "imm_" + ( baseType instanceof ArrayTypes
+				? ( (ArrayTypes<?>) baseType ).getElementName() + "[]"
+				: baseType.getJavaTypeDescriptor().getJavaTypeClass().getSimpleName() );
+		LinkedHashSet<String> keys = new LinkedHashSet<>();
+		keys.add( name );
+		for ( String key : baseType.getRegistrationKeys() ) {
+			keys.add( "imm_" + key );
+		}
+		if ( replaceBase ) {
+			for ( String key : baseType.getRegistrationKeys() ) {
+				keys.add( key );
+			}
+		}
+		this.regKeys = keys.toArray( new String[keys.size()] );
+	}
+
+	/**
+	 * @param descriptor Descriptor of the mutable type.
+	 * @return a descriptor that remembers array hash codes, where there is one
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> JavaTypeDescriptor<T> memoizeHashes(JavaTypeDescriptor<T> descriptor) {
+		if ( descriptor instanceof GenericArrayTypeDescriptor ) {
+			// values are never modified in place, so their hash codes never change
+			return (JavaTypeDescriptor<T>) ( (GenericArrayTypeDescriptor<?>) descriptor ).withMemoizedHashes();
+		}
+		return descriptor;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String[] getRegistrationKeys() {
+		return (String[]) regKeys.clone();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected MutabilityPlan<T> getMutabilityPlan() {
+		return ImmutableMutabilityPlan.INSTANCE;
+	}
+
+}
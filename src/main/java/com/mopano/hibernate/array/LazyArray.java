@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.ArrayLiteralDecoder;
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Read-only array loaded as the server's text, whose elements are parsed when they are read.
+ * The length and slices are read without parsing the other elements.
+ * The whole array is parsed once, the first time it is needed, and kept.
+ * Reading elements one at a time parses the whole array after a few reads, so loops over it stay linear.
+ * <p>
+ * To change the attribute, assign a new instance made with {@link #of(Object[])}.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+public final class LazyArray<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Number of elements read one at a time before the whole array is parsed.
+	 */
+	private static final int READS_BEFORE_LOAD = 4;
+
+	private final GenericArrayTypeDescriptor<T> descriptor;
+	private final String literal;
+	private volatile T[] elements;
+	private int length = -1;
+	private transient int reads;
+
+	/**
+	 * @param descriptor Descriptor of the array type, for parsing the literal.
+	 * @param literal Array literal.
+	 */
+	public LazyArray(GenericArrayTypeDescriptor<T> descriptor, String literal) {
+		this.descriptor = descriptor;
+		this.literal = literal;
+	}
+
+	private LazyArray(T[] elements) {
+		this.descriptor = null;
+		this.literal = null;
+		this.elements = elements;
+		this.length = elements.length;
+	}
+
+	/**
+	 * @param <T> element type
+	 * @param elements Elements. Not copied, so they must not be modified afterwards.
+	 * @return array of the elements
+	 */
+	public static <T> LazyArray<T> of(T[] elements) {
+		return new LazyArray<>( elements );
+	}
+
+	/**
+	 * @return number of elements
+	 */
+	public int length() {
+		if ( length < 0 ) {
+			T[] e = elements;
+			length = e != null ? e.length : ArrayLiteralDecoder.count( literal );
+		}
+		return length;
+	}
+
+	/**
+	 * @param index Index of the element, starting at 0.
+	 * @return the element
+	 * @throws ArrayIndexOutOfBoundsException if there is no such element
+	 */
+	public T get(int index) {
+		if ( index < 0 || index >= length() ) {
+			throw new ArrayIndexOutOfBoundsException( index );
+		}
+		T[] e = elements;
+		if ( e != null ) {
+			return e[ index ];
+		}
+		if ( ++ reads > READS_BEFORE_LOAD ) {
+			return toArray()[ index ];
+		}
+		return descriptor.fromString( literal, index, index + 1 )[ 0 ];
+	}
+
+	/**
+	 * @param from Index of the first element, starting at 0.
+	 * @param to Index after the last element.
+	 * @return new array of the elements in the range, shorter if the array ends first
+	 */
+	public T[] slice(int from, int to) {
+		if ( from < 0 || to < from ) {
+			throw new IllegalArgumentException( "Invalid range " + from + " to " + to );
+		}
+		T[] e = elements;
+		if ( e != null ) {
+			return Arrays.copyOfRange( e, Math.min( from, e.length ), Math.min( to, e.length ) );
+		}
+		return descriptor.fromString( literal, from, to );
+	}
+
+	/**
+	 * @return whether all elements have been parsed
+	 */
+	public boolean isLoaded() {
+		return elements != null;
+	}
+
+	/**
+	 * @return all elements, parsed on the first call. Shared, so it must not be modified.
+	 */
+	public T[] toArray() {
+		T[] e = elements;
+		if ( e == null ) {
+			e = descriptor.fromString( literal );
+			elements = e;
+		}
+		return e;
+	}
+
+	/**
+	 * @return the array literal as read, or null for instances made from elements
+	 */
+	public String getLiteral() {
+		return literal;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( obj == this ) {
+			return true;
+		}
+		if ( ! ( obj instanceof LazyArray ) ) {
+			return false;
+		}
+		LazyArray<?> other = (LazyArray<?>) obj;
+		if ( literal != null && literal.equals( other.literal ) ) {
+			return true;
+		}
+		return Arrays.equals( toArray(), other.toArray() );
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode( toArray() );
+	}
+
+	@Override
+	public String toString() {
+		return literal != null ? literal : Arrays.toString( elements );
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.LazyArrayTypeDescriptor;
+
+import java.util.LinkedHashSet;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+
+/**
+ * Array type for {@link LazyArray} attributes, for large arrays that are rarely read in full.
+ * <p>
+ * Registered as {@code lazy_} followed by the Java type name, such as {@code lazy_Long[]},
+ * and by each key of the array type, such as {@code lazy_bigint[]}.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+public class LazyArrayType<T>
+		extends AbstractSingleColumnStandardBasicType<LazyArray<T>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String name;
+	private final String[] regKeys;
+
+	/**
+	 * @param arrayType Type of the fully loaded arrays.
+	 */
+	public LazyArrayType(ArrayTypes<T> arrayType) {
+		super( arrayType.getSqlTypeDescriptor(),
+				new LazyArrayTypeDescriptor<>( (GenericArrayTypeDescriptor<T>) arrayType.getJavaTypeDescriptor() ) );
+		this.name = "lazy_" + arrayType.getElementName() + "[]";
+		LinkedHashSet<String> keys = new LinkedHashSet<>();
+		keys.add( name );
+		for ( String key : arrayType.getRegistrationKeys() ) {
+			keys.add( "lazy_" + key );
+		}
+		this.regKeys = keys.toArray( new String[keys.size()] );
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String[] getRegistrationKeys() {
+		return (String[]) regKeys.clone();
+	}
+
+}
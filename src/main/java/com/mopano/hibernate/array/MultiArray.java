@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Rectangular array of any number of dimensions, kept in one flat array in row-major order:
+ * the last index changes fastest. Maps to PostgreSQL multi-dimensional arrays, such as {@code bigint[][]},
+ * without an array object per row.
+ *
+ * @author Yordan Gigov
+ */
+public abstract class MultiArray implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int[] dimensions;
+	private final int size;
+
+	/**
+	 * @param dimensions Length of each dimension, outermost first.
+	 * @throws IllegalArgumentException if there are no dimensions or one is negative
+	 */
+	protected MultiArray(int[] dimensions) {
+		if ( dimensions.length == 0 ) {
+			throw new IllegalArgumentException( "At least one dimension is required" );
+		}
+		int s = 1;
+		for ( int d : dimensions ) {
+			if ( d < 0 ) {
+				throw new IllegalArgumentException( "Negative dimension in " + Arrays.toString( dimensions ) );
+			}
+			s = Math.multiplyExact( s, d );
+		}
+		this.dimensions = dimensions.clone();
+		this.size = s;
+	}
+
+	/**
+	 * @return number of dimensions
+	 */
+	public int getDimensionCount() {
+		return dimensions.length;
+	}
+
+	/**
+	 * @param dimension Dimension number, 0 for the outermost.
+	 * @return length of the dimension
+	 */
+	public int getDimension(int dimension) {
+		return dimensions[ dimension ];
+	}
+
+	/**
+	 * @return copy of the dimension lengths, outermost first
+	 */
+	public int[] getDimensions() {
+		return dimensions.clone();
+	}
+
+	/**
+	 * @return total number of elements
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param indices One index per dimension, outermost first.
+	 * @return position of the element in the flat data
+	 * @throws IndexOutOfBoundsException if an index is out of range or the count is wrong
+	 */
+	public int indexOf(int... indices) {
+		if ( indices.length != dimensions.length ) {
+			throw new IndexOutOfBoundsException( "Expected " + dimensions.length + " indices, got " + indices.length );
+		}
+		int index = 0;
+		for ( int i = 0; i < indices.length; i ++ ) {
+			if ( indices[ i ] < 0 || indices[ i ] >= dimensions[ i ] ) {
+				throw new IndexOutOfBoundsException( "Index " + indices[ i ] + " out of range for dimension " + i + " of length " + dimensions[ i ] );
+			}
+			index = index * dimensions[ i ] + indices[ i ];
+		}
+		return index;
+	}
+
+	/**
+	 * @return a copy with its own data
+	 */
+	public abstract MultiArray copy();
+
+	/**
+	 * @param other Array to compare with.
+	 * @return whether both have the same dimensions
+	 */
+	protected boolean sameShape(MultiArray other) {
+		return Arrays.equals( dimensions, other.dimensions );
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode( dimensions );
+	}
+}
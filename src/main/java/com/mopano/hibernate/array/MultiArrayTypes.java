@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.DoubleMultiArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.LongMultiArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.MultiArrayTypeDescriptor;
+import com.mopano.hibernate.array.sql.ArrayTypeDescriptor;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+
+/**
+ * Multi-dimensional array types. Registered under the Java class name, such as
+ * {@code com.mopano.hibernate.array.LongMultiArray}, and the simple name, such as {@code LongMultiArray}.
+ *
+ * @author Yordan Gigov
+ * @param <M> multi-dimensional array type
+ */
+public class MultiArrayTypes<M extends MultiArray>
+		extends AbstractSingleColumnStandardBasicType<M> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final MultiArrayTypes<LongMultiArray> LONG = new MultiArrayTypes<>( LongMultiArrayTypeDescriptor.INSTANCE );
+	public static final MultiArrayTypes<DoubleMultiArray> DOUBLE = new MultiArrayTypes<>( DoubleMultiArrayTypeDescriptor.INSTANCE );
+
+	private final String name;
+
+	public MultiArrayTypes(MultiArrayTypeDescriptor<M> descriptor) {
+		super( ArrayTypeDescriptor.INSTANCE, descriptor );
+		this.name = descriptor.getJavaTypeClass().getSimpleName();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	protected boolean registerUnderJavaType() {
+		return true;
+	}
+
+}
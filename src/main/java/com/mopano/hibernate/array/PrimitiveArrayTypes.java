@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import com.mopano.hibernate.array.java.PrimitiveArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.PrimitiveBooleanArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.PrimitiveDoubleArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.PrimitiveFloatArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.PrimitiveIntegerArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.PrimitiveLongArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.PrimitiveShortArrayTypeDescriptor;
+import com.mopano.hibernate.array.sql.ArrayTypeDescriptor;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+
+/**
+ * Array types of primitives. Registered under the Java array class name, such as {@code [J},
+ * and the Java type name, such as {@code long[]}.
+ *
+ * @author Yordan Gigov
+ * @param <A> primitive array type
+ */
+public class PrimitiveArrayTypes<A>
+		extends AbstractSingleColumnStandardBasicType<A> {
+
+	private static final long serialVersionUID = -2310744170417655263L;
+
+	public static final PrimitiveArrayTypes<boolean[]> BOOLEAN = new PrimitiveArrayTypes<>( PrimitiveBooleanArrayTypeDescriptor.INSTANCE );
+	public static final PrimitiveArrayTypes<short[]> SHORT = new PrimitiveArrayTypes<>( PrimitiveShortArrayTypeDescriptor.INSTANCE );
+	public static final PrimitiveArrayTypes<int[]> INTEGER = new PrimitiveArrayTypes<>( PrimitiveIntegerArrayTypeDescriptor.INSTANCE );
+	public static final PrimitiveArrayTypes<long[]> LONG = new PrimitiveArrayTypes<>( PrimitiveLongArrayTypeDescriptor.INSTANCE );
+	public static final PrimitiveArrayTypes<float[]> FLOAT = new PrimitiveArrayTypes<>( PrimitiveFloatArrayTypeDescriptor.INSTANCE );
+	public static final PrimitiveArrayTypes<double[]> DOUBLE = new PrimitiveArrayTypes<>( PrimitiveDoubleArrayTypeDescriptor.INSTANCE );
+
+	private final String name;
+
+	public PrimitiveArrayTypes(PrimitiveArrayTypeDescriptor<A> descriptor) {
+		super( ArrayTypeDescriptor.INSTANCE, descriptor );
+		this.name = descriptor.getJavaTypeClass().getSimpleName();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	protected boolean registerUnderJavaType() {
+		return true;
+	}
+
+}
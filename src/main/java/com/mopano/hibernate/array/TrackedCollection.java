@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import java.util.Collection;
+
+/**
+ * Collection that counts its modifications, so dirty checking can tell an untouched collection
+ * from its snapshot without comparing the elements.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+public interface TrackedCollection<T> extends Collection<T> {
+
+	/**
+	 * @return number of times the collection was modified
+	 */
+	int getModificationCount();
+
+	/**
+	 * @return a copy that remembers this collection and its modification count
+	 */
+	TrackedCollection<T> copy();
+
+	/**
+	 * @param other Collection to compare with.
+	 * @return true if this is a copy of the other collection and neither was modified since it was made
+	 */
+	boolean isUnmodifiedCopyOf(Object other);
+}
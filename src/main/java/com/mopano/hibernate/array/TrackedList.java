@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * List that counts its modifications. Loaded list attributes mapped to array columns are of this class.
+ * Every change, including those through iterators and sub-lists, goes through
+ * {@link #set(int, java.lang.Object)}, {@link #add(int, java.lang.Object)} or {@link #remove(int)}.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+public class TrackedList<T> extends AbstractList<T> implements TrackedCollection<T>, RandomAccess, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Object[] elements;
+	private int size;
+	private int modifications;
+	private transient Object origin;
+	private transient int originModifications;
+
+	public TrackedList() {
+		this.elements = new Object[10];
+	}
+
+	public TrackedList(Collection<? extends T> items) {
+		this.elements = items.toArray();
+		if ( this.elements.getClass() != Object[].class ) {
+			this.elements = Arrays.copyOf( this.elements, this.elements.length, Object[].class );
+		}
+		this.size = this.elements.length;
+	}
+
+	private TrackedList(Object[] elements) {
+		this.elements = elements;
+		this.size = elements.length;
+	}
+
+	/**
+	 * @param <T> element type
+	 * @param elements Elements of the list. Used as the storage of the list, not copied.
+	 * @return list of the elements
+	 */
+	public static <T> TrackedList<T> wrap(T[] elements) {
+		return new TrackedList<>( elements );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		checkIndex( index, size );
+		return (T) elements[ index ];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T set(int index, T element) {
+		checkIndex( index, size );
+		T old = (T) elements[ index ];
+		elements[ index ] = element;
+		modifications ++;
+		return old;
+	}
+
+	@Override
+	public void add(int index, T element) {
+		checkIndex( index, size + 1 );
+		if ( size == elements.length ) {
+			elements = Arrays.copyOf( elements, Math.max( 10, size + ( size >> 1 ) ) );
+		}
+		System.arraycopy( elements, index, elements, index + 1, size - index );
+		elements[ index ] = element;
+		size ++;
+		modCount ++;
+		modifications ++;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T remove(int index) {
+		checkIndex( index, size );
+		T old = (T) elements[ index ];
+		removeRange( index, index + 1 );
+		return old;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if ( fromIndex >= toIndex ) {
+			return;
+		}
+		System.arraycopy( elements, toIndex, elements, fromIndex, size - toIndex );
+		int newSize = size - ( toIndex - fromIndex );
+		Arrays.fill( elements, newSize, size, null );
+		size = newSize;
+		modCount ++;
+		modifications ++;
+	}
+
+	@Override
+	public void clear() {
+		removeRange( 0, size );
+	}
+
+	@Override
+	public Object[] toArray() {
+		// the storage may be a wrapped array of the element type
+		return Arrays.copyOf( elements, size, Object[].class );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <A> A[] toArray(A[] a) {
+		if ( a.length < size ) {
+			return (A[]) Arrays.copyOf( elements, size, a.getClass() );
+		}
+		System.arraycopy( elements, 0, a, 0, size );
+		if ( a.length > size ) {
+			a[ size ] = null;
+		}
+		return a;
+	}
+
+	@Override
+	public int getModificationCount() {
+		return modifications;
+	}
+
+	@Override
+	public TrackedList<T> copy() {
+		TrackedList<T> copy = new TrackedList<>( Arrays.copyOf( elements, size ) );
+		copy.origin = this;
+		copy.originModifications = modifications;
+		return copy;
+	}
+
+	@Override
+	public boolean isUnmodifiedCopyOf(Object other) {
+		return other == origin && modifications == 0 && ( (TrackedList<?>) other ).modifications == originModifications;
+	}
+
+	private static void checkIndex(int index, int limit) {
+		if ( index < 0 || index >= limit ) {
+			throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + ( limit ) );
+		}
+	}
+}
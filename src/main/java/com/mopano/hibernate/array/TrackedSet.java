@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Set that counts its modifications. Loaded set attributes mapped to array columns are of this class.
+ * Keeps the order of the array elements.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+public class TrackedSet<T> extends AbstractSet<T> implements TrackedCollection<T>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final Set<T> items;
+	private final TrackedSet<T> owner;
+	private int modifications;
+	private transient Object origin;
+	private transient int originModifications;
+
+	public TrackedSet() {
+		this( new LinkedHashSet<>() );
+	}
+
+	public TrackedSet(Collection<? extends T> items) {
+		this( new LinkedHashSet<>( items ) );
+	}
+
+	/**
+	 * @param items Storage of the set. Not copied.
+	 */
+	protected TrackedSet(Set<T> items) {
+		this.items = items;
+		this.owner = this;
+	}
+
+	/**
+	 * @param items View of the owner's storage.
+	 * @param owner Set whose modification count changes with the view.
+	 */
+	protected TrackedSet(Set<T> items, TrackedSet<T> owner) {
+		this.items = items;
+		this.owner = owner.owner;
+	}
+
+	/**
+	 * @param <T> element type
+	 * @param elements Elements of the set.
+	 * @return set of the elements
+	 */
+	public static <T> TrackedSet<T> wrap(T[] elements) {
+		return new TrackedSet<>( new LinkedHashSet<>( Arrays.asList( elements ) ) );
+	}
+
+	protected void modified() {
+		owner.modifications ++;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		final Iterator<T> iterator = items.iterator();
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return iterator.next();
+			}
+
+			@Override
+			public void remove() {
+				iterator.remove();
+				modified();
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return items.size();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return items.contains( o );
+	}
+
+	@Override
+	public boolean add(T e) {
+		if ( items.add( e ) ) {
+			modified();
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if ( items.remove( o ) ) {
+			modified();
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		if ( !items.isEmpty() ) {
+			items.clear();
+			modified();
+		}
+	}
+
+	@Override
+	public Object[] toArray() {
+		return items.toArray();
+	}
+
+	@Override
+	public <A> A[] toArray(A[] a) {
+		return items.toArray( a );
+	}
+
+	@Override
+	public int getModificationCount() {
+		return owner.modifications;
+	}
+
+	@Override
+	public TrackedSet<T> copy() {
+		return linkCopy( new TrackedSet<>( new LinkedHashSet<>( items ) ) );
+	}
+
+	protected <S extends TrackedSet<T>> S linkCopy(S copy) {
+		TrackedSet<T> linked = copy;
+		linked.origin = this;
+		linked.originModifications = getModificationCount();
+		return copy;
+	}
+
+	@Override
+	public boolean isUnmodifiedCopyOf(Object other) {
+		return other == origin && modifications == 0 && ( (TrackedSet<?>) other ).getModificationCount() == originModifications;
+	}
+}
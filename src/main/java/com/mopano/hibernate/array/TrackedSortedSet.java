@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Sorted set that counts its modifications, including those made through its subset views.
+ * Loaded sorted set attributes mapped to array columns are of this class.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+public class TrackedSortedSet<T> extends TrackedSet<T> implements SortedSet<T> {
+
+	private static final long serialVersionUID = 1L;
+
+	public TrackedSortedSet() {
+		super( new TreeSet<>() );
+	}
+
+	public TrackedSortedSet(Comparator<? super T> comparator) {
+		super( new TreeSet<>( comparator ) );
+	}
+
+	public TrackedSortedSet(Collection<? extends T> items) {
+		super( new TreeSet<>( items ) );
+	}
+
+	/**
+	 * @param items Storage of the set. Not copied.
+	 */
+	protected TrackedSortedSet(SortedSet<T> items) {
+		super( items );
+	}
+
+	private TrackedSortedSet(SortedSet<T> items, TrackedSortedSet<T> owner) {
+		super( items, owner );
+	}
+
+	/**
+	 * @param <T> element type
+	 * @param elements Elements of the set in natural order.
+	 * @return set of the elements
+	 */
+	public static <T> TrackedSortedSet<T> wrap(T[] elements) {
+		return new TrackedSortedSet<>( new TreeSet<>( Arrays.asList( elements ) ) );
+	}
+
+	private SortedSet<T> sorted() {
+		return (SortedSet<T>) items;
+	}
+
+	@Override
+	public Comparator<? super T> comparator() {
+		return sorted().comparator();
+	}
+
+	@Override
+	public SortedSet<T> subSet(T fromElement, T toElement) {
+		return new TrackedSortedSet<>( sorted().subSet( fromElement, toElement ), this );
+	}
+
+	@Override
+	public SortedSet<T> headSet(T toElement) {
+		return new TrackedSortedSet<>( sorted().headSet( toElement ), this );
+	}
+
+	@Override
+	public SortedSet<T> tailSet(T fromElement) {
+		return new TrackedSortedSet<>( sorted().tailSet( fromElement ), this );
+	}
+
+	@Override
+	public T first() {
+		return sorted().first();
+	}
+
+	@Override
+	public T last() {
+		return sorted().last();
+	}
+
+	@Override
+	public TrackedSortedSet<T> copy() {
+		TreeSet<T> copy = new TreeSet<>( comparator() );
+		copy.addAll( items );
+		return linkCopy( new TrackedSortedSet<>( copy ) );
+	}
+}
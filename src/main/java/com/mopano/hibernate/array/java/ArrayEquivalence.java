@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.Serializable;
+
+/**
+ * Compares and hashes arrays element by element, the way the element type descriptor does.
+ * Arrays that are equal have the same hash code.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ * @see ArrayEquivalences
+ */
+public interface ArrayEquivalence<T> extends Serializable {
+
+	/**
+	 * @param one Array, not null.
+	 * @param another Array of the same length, not null.
+	 * @return whether all elements are equal
+	 */
+	boolean elementsEqual(T[] one, T[] another);
+
+	/**
+	 * @param value Array, not null.
+	 * @return hash code combining the element hash codes like {@link java.util.Arrays#hashCode(java.lang.Object[])}
+	 */
+	int hashCode(T[] value);
+}
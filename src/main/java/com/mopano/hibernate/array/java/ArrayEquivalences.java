@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.hibernate.type.descriptor.java.JavaTypeDescriptor;
+
+/**
+ * Array equivalences for known types. Integers, strings and UUIDs are compared in loops
+ * specialized for the element class. {@code BigDecimal} follows Hibernate's descriptor:
+ * equal by {@code compareTo}, hashed by {@code intValue}, so {@code 1.0} and {@code 1.00} are
+ * the same key. Everything else goes through the element descriptor.
+ *
+ * @author Yordan Gigov
+ */
+public final class ArrayEquivalences {
+
+	private static final ArrayEquivalence<Long> LONG = new ArrayEquivalence<Long>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean elementsEqual(Long[] one, Long[] another) {
+			for ( int i = 0; i < one.length; i ++ ) {
+				Long a = one[ i ];
+				Long b = another[ i ];
+				if ( a != b && ( a == null || b == null || a.longValue() != b.longValue() ) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode(Long[] value) {
+			int h = 1;
+			for ( Long v : value ) {
+				h = 31 * h + ( v == null ? 0 : Long.hashCode( v ) );
+			}
+			return h;
+		}
+	};
+
+	private static final ArrayEquivalence<Integer> INTEGER = new ArrayEquivalence<Integer>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean elementsEqual(Integer[] one, Integer[] another) {
+			for ( int i = 0; i < one.length; i ++ ) {
+				Integer a = one[ i ];
+				Integer b = another[ i ];
+				if ( a != b && ( a == null || b == null || a.intValue() != b.intValue() ) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode(Integer[] value) {
+			int h = 1;
+			for ( Integer v : value ) {
+				h = 31 * h + ( v == null ? 0 : v );
+			}
+			return h;
+		}
+	};
+
+	private static final ArrayEquivalence<Short> SHORT = new ArrayEquivalence<Short>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean elementsEqual(Short[] one, Short[] another) {
+			for ( int i = 0; i < one.length; i ++ ) {
+				Short a = one[ i ];
+				Short b = another[ i ];
+				if ( a != b && ( a == null || b == null || a.shortValue() != b.shortValue() ) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode(Short[] value) {
+			int h = 1;
+			for ( Short v : value ) {
+				h = 31 * h + ( v == null ? 0 : v );
+			}
+			return h;
+		}
+	};
+
+	private static final ArrayEquivalence<String> STRING = new ArrayEquivalence<String>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean elementsEqual(String[] one, String[] another) {
+			for ( int i = 0; i < one.length; i ++ ) {
+				String a = one[ i ];
+				String b = another[ i ];
+				if ( a != b && ( a == null || ! a.equals( b ) ) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode(String[] value) {
+			int h = 1;
+			for ( String v : value ) {
+				h = 31 * h + ( v == null ? 0 : v.hashCode() );
+			}
+			return h;
+		}
+	};
+
+	private static final ArrayEquivalence<UUID> UUID_EQUIVALENCE = new ArrayEquivalence<UUID>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean elementsEqual(UUID[] one, UUID[] another) {
+			for ( int i = 0; i < one.length; i ++ ) {
+				UUID a = one[ i ];
+				UUID b = another[ i ];
+				if ( a != b && ( a == null || b == null
+						|| a.getMostSignificantBits() != b.getMostSignificantBits()
+						|| a.getLeastSignificantBits() != b.getLeastSignificantBits() ) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode(UUID[] value) {
+			int h = 1;
+			for ( UUID v : value ) {
+				h = 31 * h + ( v == null ? 0 : v.hashCode() );
+			}
+			return h;
+		}
+	};
+
+	private static final ArrayEquivalence<BigDecimal> BIG_DECIMAL = new ArrayEquivalence<BigDecimal>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean elementsEqual(BigDecimal[] one, BigDecimal[] another) {
+			for ( int i = 0; i < one.length; i ++ ) {
+				BigDecimal a = one[ i ];
+				BigDecimal b = another[ i ];
+				if ( a != b && ( a == null || b == null || a.compareTo( b ) != 0 ) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode(BigDecimal[] value) {
+			int h = 1;
+			for ( BigDecimal v : value ) {
+				h = 31 * h + ( v == null ? 0 : v.intValue() );
+			}
+			return h;
+		}
+	};
+
+	private ArrayEquivalences() {
+	}
+
+	/**
+	 * @param <T> element type
+	 * @param descriptor Descriptor of the element type.
+	 * @return the fastest equivalence known for the type, consistent with the descriptor
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ArrayEquivalence<T> forDescriptor(final JavaTypeDescriptor<T> descriptor) {
+		final Class<T> cls = descriptor.getJavaTypeClass();
+		if ( cls == Long.class ) {
+			return (ArrayEquivalence<T>) LONG;
+		}
+		if ( cls == Integer.class ) {
+			return (ArrayEquivalence<T>) INTEGER;
+		}
+		if ( cls == Short.class ) {
+			return (ArrayEquivalence<T>) SHORT;
+		}
+		if ( cls == String.class ) {
+			return (ArrayEquivalence<T>) STRING;
+		}
+		if ( cls == UUID.class ) {
+			return (ArrayEquivalence<T>) UUID_EQUIVALENCE;
+		}
+		if ( cls == BigDecimal.class ) {
+			return (ArrayEquivalence<T>) BIG_DECIMAL;
+		}
+		return new ArrayEquivalence<T>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean elementsEqual(T[] one, T[] another) {
+				for ( int i = 0; i < one.length; i ++ ) {
+					if ( ! descriptor.areEqual( one[ i ], another[ i ] ) ) {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public int hashCode(T[] value) {
+				int h = 1;
+				for ( T v : value ) {
+					h = 31 * h + ( v == null ? 0 : descriptor.extractHashCode( v ) );
+				}
+				return h;
+			}
+		};
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events for operations on large arrays. Only used once
+ * {@link GenericArrayTypeDescriptor} has found the {@code jdk.jfr} API, so the events
+ * are passed around as plain objects, and ended only when one was begun.
+ *
+ * @author Yordan Gigov
+ */
+public final class ArrayEvents {
+
+	public static final int BIND = 0;
+	public static final int EXTRACT = 1;
+	public static final int COMPARE = 2;
+	public static final int COPY = 3;
+
+	/**
+	 * Looked up once, so checking whether a recording wants an event does not create one.
+	 */
+	private static final EventType[] TYPES = {
+		EventType.getEventType( Bind.class ),
+		EventType.getEventType( Extract.class ),
+		EventType.getEventType( Compare.class ),
+		EventType.getEventType( Copy.class )
+	};
+
+	private ArrayEvents() {
+	}
+
+	/**
+	 * @param kind One of {@link #BIND}, {@link #EXTRACT}, {@link #COMPARE} and {@link #COPY}.
+	 * @return whether a recording wants events of that kind
+	 */
+	public static boolean isEnabled(int kind) {
+		return TYPES[kind].isEnabled();
+	}
+
+	/**
+	 * @param kind One of {@link #BIND}, {@link #EXTRACT}, {@link #COMPARE} and {@link #COPY}.
+	 * @param arrayClass Java class of the array.
+	 * @return the started event, or null if no recording wants it
+	 */
+	public static Object begin(int kind, Class<?> arrayClass) {
+		if ( ! TYPES[kind].isEnabled() ) {
+			return null;
+		}
+		final ArrayEvent event;
+		switch ( kind ) {
+			case BIND:
+				event = new Bind();
+				break;
+			case EXTRACT:
+				event = new Extract();
+				break;
+			case COMPARE:
+				event = new Compare();
+				break;
+			default:
+				event = new Copy();
+		}
+		event.arrayType = arrayClass.getSimpleName();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * @param event Event returned by {@link #begin(int, java.lang.Class)}.
+	 * @param elements Number of elements.
+	 */
+	public static void end(Object event, int elements) {
+		ArrayEvent arrayEvent = (ArrayEvent) event;
+		arrayEvent.elements = elements;
+		arrayEvent.commit();
+	}
+
+	@Category({ "Hibernate", "Arrays" })
+	abstract static class ArrayEvent extends Event {
+
+		@Label("Array Type")
+		String arrayType;
+
+		@Label("Elements")
+		int elements;
+	}
+
+	@Name("com.mopano.hibernate.array.Bind")
+	@Label("Array Bind")
+	@Description("Array converted for the JDBC driver")
+	static final class Bind extends ArrayEvent {
+	}
+
+	@Name("com.mopano.hibernate.array.Extract")
+	@Label("Array Extract")
+	@Description("Array read from the JDBC driver")
+	static final class Extract extends ArrayEvent {
+	}
+
+	@Name("com.mopano.hibernate.array.Compare")
+	@Label("Array Compare")
+	@Description("Array compared for dirty checking or as a cache key")
+	static final class Compare extends ArrayEvent {
+	}
+
+	@Name("com.mopano.hibernate.array.Copy")
+	@Label("Array Copy")
+	@Description("Array copied for the dirty checking snapshot")
+	static final class Copy extends ArrayEvent {
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.UUID;
+
+/**
+ * 128-bit fingerprint and length of an array, fed with the exact bits of every element.
+ * Changing a single element always changes the fingerprint. Other changes go unnoticed only
+ * on a hash collision.
+ *
+ * @author Yordan Gigov
+ */
+final class ArrayFingerprint implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	static final int UNSUPPORTED = 0;
+	private static final int INTEGRAL = 1;
+	private static final int DOUBLE = 2;
+	private static final int FLOAT = 3;
+	private static final int BOOLEAN = 4;
+	private static final int UUID_KIND = 5;
+	private static final int STRING = 6;
+	private static final int BIG_DECIMAL = 7;
+	private static final int BIG_INTEGER = 8;
+
+	private static final long C1 = 0x87C37B91114253D5L;
+	private static final long C2 = 0x4CF5AD432745937FL;
+
+	private final int length;
+	private final long high;
+	private final long low;
+
+	private ArrayFingerprint(int length, long high, long low) {
+		this.length = length;
+		this.high = high;
+		this.low = low;
+	}
+
+	/**
+	 * @param componentClass Java class of the elements.
+	 * @return the element kind to pass to {@link #of(int, java.lang.Object[])}, or {@link #UNSUPPORTED}
+	 */
+	static int kindOf(Class<?> componentClass) {
+		if ( componentClass == Long.class || componentClass == Integer.class || componentClass == Short.class ) {
+			return INTEGRAL;
+		}
+		if ( componentClass == Double.class ) {
+			return DOUBLE;
+		}
+		if ( componentClass == Float.class ) {
+			return FLOAT;
+		}
+		if ( componentClass == Boolean.class ) {
+			return BOOLEAN;
+		}
+		if ( componentClass == UUID.class ) {
+			return UUID_KIND;
+		}
+		if ( componentClass == String.class ) {
+			return STRING;
+		}
+		if ( componentClass == BigDecimal.class ) {
+			return BIG_DECIMAL;
+		}
+		if ( componentClass == BigInteger.class ) {
+			return BIG_INTEGER;
+		}
+		return UNSUPPORTED;
+	}
+
+	/**
+	 * @param kind Element kind, as returned by {@link #kindOf(java.lang.Class)}.
+	 * @param values Array to fingerprint. May contain nulls.
+	 * @return the fingerprint
+	 */
+	static ArrayFingerprint of(int kind, Object[] values) {
+		Hasher h = new Hasher();
+		for ( Object v : values ) {
+			if ( v == null ) {
+				h.addNull();
+				continue;
+			}
+			switch ( kind ) {
+				case INTEGRAL:
+					h.add( ( (Number) v ).longValue() );
+					break;
+				case DOUBLE:
+					h.add( Double.doubleToLongBits( (Double) v ) );
+					break;
+				case FLOAT:
+					h.add( Float.floatToIntBits( (Float) v ) );
+					break;
+				case BOOLEAN:
+					h.add( (Boolean) v ? 1L : 0L );
+					break;
+				case UUID_KIND:
+					h.add( ( (UUID) v ).getMostSignificantBits() );
+					h.add( ( (UUID) v ).getLeastSignificantBits() );
+					break;
+				case STRING:
+					h.add( (String) v );
+					break;
+				case BIG_DECIMAL:
+					h.add( ( (BigDecimal) v ).scale() );
+					h.add( ( (BigDecimal) v ).unscaledValue() );
+					break;
+				case BIG_INTEGER:
+					h.add( (BigInteger) v );
+					break;
+				default:
+					throw new IllegalArgumentException( "Unsupported element kind " + kind );
+			}
+		}
+		return h.finish( values.length );
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( ! ( obj instanceof ArrayFingerprint ) ) {
+			return false;
+		}
+		ArrayFingerprint other = (ArrayFingerprint) obj;
+		return length == other.length && high == other.high && low == other.low;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) ( high ^ ( high >>> 32 ) );
+	}
+
+	/**
+	 * Two 64-bit lanes in the style of MurmurHash3. Each step is a bijection of the lane for a
+	 * given word, and of the word for a given lane.
+	 */
+	private static final class Hasher {
+
+		private long h1 = 0x6A09E667F3BCC908L;
+		private long h2 = 0xBB67AE8584CAA73BL;
+
+		void add(long k) {
+			h1 = Long.rotateLeft( h1 ^ ( k * C1 ), 31 ) * 5 + 0x52DCE729L;
+			h2 = Long.rotateLeft( h2 ^ ( Long.rotateLeft( k, 33 ) * C2 ), 33 ) * 5 + 0x38495AB5L;
+		}
+
+		void addNull() {
+			// a different step than any element value
+			h1 = Long.rotateLeft( h1, 17 ) * 9 + 0x3C6EF372FE94F82BL;
+			h2 = Long.rotateLeft( h2, 23 ) * 9 + 0xA54FF53A5F1D36F1L;
+		}
+
+		void add(String s) {
+			final int l = s.length();
+			add( l );
+			int i = 0;
+			for ( ; i + 4 <= l; i += 4 ) {
+				add( (long) s.charAt( i ) << 48 | (long) s.charAt( i + 1 ) << 32 | (long) s.charAt( i + 2 ) << 16 | s.charAt( i + 3 ) );
+			}
+			long rest = 0;
+			for ( ; i < l; i ++ ) {
+				rest = rest << 16 | s.charAt( i );
+			}
+			add( rest );
+		}
+
+		void add(BigInteger value) {
+			if ( value.bitLength() < 64 ) {
+				add( value.longValue() );
+				return;
+			}
+			byte[] bytes = value.toByteArray();
+			add( bytes.length );
+			long word = 0;
+			for ( int i = 0; i < bytes.length; i ++ ) {
+				word = word << 8 | ( bytes[ i ] & 0xFF );
+				if ( ( i & 7 ) == 7 ) {
+					add( word );
+					word = 0;
+				}
+			}
+			add( word );
+		}
+
+		ArrayFingerprint finish(int length) {
+			h1 ^= length;
+			h2 ^= length;
+			h1 += h2;
+			h2 += h1;
+			h1 = mix( h1 );
+			h2 = mix( h2 );
+			h1 += h2;
+			h2 += h1;
+			return new ArrayFingerprint( length, h1, h2 );
+		}
+
+		private static long mix(long k) {
+			k ^= k >>> 33;
+			k *= 0xFF51AFD7ED558CCDL;
+			k ^= k >>> 33;
+			k *= 0xC4CEB9FE1A85EC53L;
+			k ^= k >>> 33;
+			return k;
+		}
+	}
+}
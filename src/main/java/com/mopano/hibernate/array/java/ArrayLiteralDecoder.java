@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+/**
+ * Single-pass decoder for PostgreSQL array literals, such as {@code {1,NULL,"a \"b\""}}.
+ * Elements are handed over as character ranges of the source. Only elements that contain
+ * backslash escapes are copied, into a buffer that is reused for the whole literal.
+ * Nested arrays are handed over whole, braces included, as a single element.
+ *
+ * @author Yordan Gigov
+ */
+public final class ArrayLiteralDecoder {
+
+	/**
+	 * Receives the elements of the array in order.
+	 * The character range is only valid until the method returns.
+	 */
+	public interface Handler {
+
+		void element(CharSequence chars, int start, int end);
+
+		void nullElement();
+	}
+
+	private ArrayLiteralDecoder() {
+	}
+
+	/**
+	 * @param s Array literal, optionally preceded by dimension decoration.
+	 * @return number of elements of the outermost dimension, none of them parsed
+	 * @throws IllegalArgumentException if the literal is malformed
+	 */
+	public static int count(CharSequence s) {
+		final int[] count = new int[1];
+		decode( s, new Handler() {
+			@Override
+			public void element(CharSequence chars, int start, int end) {
+				count[ 0 ] ++;
+			}
+
+			@Override
+			public void nullElement() {
+				count[ 0 ] ++;
+			}
+		} );
+		return count[ 0 ];
+	}
+
+	/**
+	 * @param s Array literal, optionally preceded by dimension decoration, such as {@code [0:1]={1,2}}
+	 * @param handler Receiver of the elements.
+	 * @throws IllegalArgumentException if the literal is malformed
+	 */
+	public static void decode(CharSequence s, Handler handler) {
+		final int len = s.length();
+		int i = skipWhitespace( s, 0, len );
+		if ( i < len && s.charAt( i ) == '[' ) {
+			// dimension decoration, which tells nothing we need
+			while ( i < len && s.charAt( i ) != '=' ) {
+				i ++;
+			}
+			i = skipWhitespace( s, i + 1, len );
+		}
+		int end = len;
+		while ( end > i && Character.isWhitespace( s.charAt( end - 1 ) ) ) {
+			end --;
+		}
+		if ( end - i < 2 || s.charAt( i ) != '{' || s.charAt( end - 1 ) != '}' ) {
+			throw error( s, i, "First and last character must be { and }" );
+		}
+		final int close = end - 1;
+		i = skipWhitespace( s, i + 1, close );
+		if ( i == close ) {
+			return;
+		}
+		StringBuilder buffer = null;
+		while ( true ) {
+			char c = s.charAt( i );
+			if ( c == '"' ) {
+				int start = ++ i;
+				int bufferStart = -1;
+				for ( ; i < close; i ++ ) {
+					c = s.charAt( i );
+					if ( c == '"' ) {
+						break;
+					}
+					if ( c == '\\' ) {
+						if ( bufferStart < 0 ) {
+							if ( buffer == null ) {
+								buffer = new StringBuilder();
+							}
+							bufferStart = buffer.length();
+							buffer.append( s, start, i );
+						}
+						if ( ++ i == close ) {
+							break;
+						}
+						c = s.charAt( i );
+					}
+					if ( bufferStart >= 0 ) {
+						buffer.append( c );
+					}
+				}
+				if ( i >= close ) {
+					throw error( s, start - 1, "Unterminated quoted element" );
+				}
+				if ( bufferStart < 0 ) {
+					handler.element( s, start, i );
+				}
+				else {
+					handler.element( buffer, bufferStart, buffer.length() );
+					buffer.setLength( bufferStart );
+				}
+				i ++;
+			}
+			else if ( c == '{' ) {
+				int start = i;
+				i = skipNested( s, i, close );
+				handler.element( s, start, i );
+			}
+			else if ( c == ',' ) {
+				// no value between commas means null
+				handler.nullElement();
+			}
+			else {
+				int start = i;
+				int last = i;
+				int bufferStart = -1;
+				int bufferLast = -1;
+				for ( ; i < close; i ++ ) {
+					c = s.charAt( i );
+					if ( c == ',' ) {
+						break;
+					}
+					boolean escaped = false;
+					if ( c == '\\' ) {
+						if ( bufferStart < 0 ) {
+							if ( buffer == null ) {
+								buffer = new StringBuilder();
+							}
+							bufferStart = buffer.length();
+							buffer.append( s, start, last );
+							bufferLast = buffer.length();
+							buffer.append( s, last, i );
+						}
+						if ( ++ i == close ) {
+							throw error( s, i, "Escape at end of array" );
+						}
+						c = s.charAt( i );
+						escaped = true;
+					}
+					else if ( c == '"' || c == '{' || c == '}' ) {
+						throw error( s, i, "Unexpected " + c + " in unquoted element" );
+					}
+					if ( bufferStart >= 0 ) {
+						buffer.append( c );
+						if ( escaped || ! Character.isWhitespace( c ) ) {
+							bufferLast = buffer.length();
+						}
+					}
+					else if ( ! Character.isWhitespace( c ) ) {
+						last = i + 1;
+					}
+				}
+				if ( bufferStart >= 0 ) {
+					handler.element( buffer, bufferStart, bufferLast );
+					buffer.setLength( bufferStart );
+				}
+				else if ( last - start == 4
+						&& ( s.charAt( start ) | 0x20 ) == 'n'
+						&& ( s.charAt( start + 1 ) | 0x20 ) == 'u'
+						&& ( s.charAt( start + 2 ) | 0x20 ) == 'l'
+						&& ( s.charAt( start + 3 ) | 0x20 ) == 'l' ) {
+					handler.nullElement();
+				}
+				else {
+					handler.element( s, start, last );
+				}
+			}
+			i = skipWhitespace( s, i, close );
+			if ( i == close ) {
+				return;
+			}
+			if ( s.charAt( i ) != ',' ) {
+				throw error( s, i, "Expected , or } after element" );
+			}
+			i = skipWhitespace( s, i + 1, close );
+			if ( i == close ) {
+				// trailing comma, same as no value between commas
+				handler.nullElement();
+				return;
+			}
+		}
+	}
+
+	private static int skipNested(CharSequence s, int i, int close) {
+		int depth = 0;
+		boolean inQuote = false;
+		for ( ; i < close; i ++ ) {
+			char c = s.charAt( i );
+			if ( c == '\\' ) {
+				i ++;
+			}
+			else if ( c == '"' ) {
+				inQuote = ! inQuote;
+			}
+			else if ( inQuote ) {
+				continue;
+			}
+			else if ( c == '{' ) {
+				depth ++;
+			}
+			else if ( c == '}' && -- depth == 0 ) {
+				return i + 1;
+			}
+		}
+		throw error( s, close, "Unterminated nested array" );
+	}
+
+	private static int skipWhitespace(CharSequence s, int i, int end) {
+		while ( i < end && Character.isWhitespace( s.charAt( i ) ) ) {
+			i ++;
+		}
+		return i;
+	}
+
+	private static IllegalArgumentException error(CharSequence s, int position, String message) {
+		return new IllegalArgumentException( "Cannot parse given string into array. " + message + " at position " + position );
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Writes PostgreSQL array literals, such as {@code {1,NULL,"a \"b\""}}, to any {@link Appendable}.
+ * The counterpart of {@link ArrayLiteralDecoder}.
+ *
+ * @author Yordan Gigov
+ */
+public final class ArrayLiteralEncoder {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private ArrayLiteralEncoder() {
+	}
+
+	/**
+	 * @param <T> element type
+	 * @param value Array to write. Must not be null.
+	 * @param formatter Formatter of the elements.
+	 * @param out Destination.
+	 * @throws IOException if the destination throws it
+	 */
+	public static <T> void encode(T[] value, ElementFormatter<? super T> formatter, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = 0; i < value.length; i ++ ) {
+			if ( i > 0 ) {
+				out.append( ',' );
+			}
+			T v = value[ i ];
+			if ( v == null ) {
+				out.append( "NULL" );
+			}
+			else {
+				formatter.append( out, v );
+			}
+		}
+		out.append( '}' );
+	}
+
+	/**
+	 * @param length Number of elements.
+	 * @param elementLength Typical length of one element.
+	 * @return initial capacity for a buffer holding the literal
+	 */
+	public static int estimateLength(int length, int elementLength) {
+		long estimate = 2L + (long) length * ( elementLength + 1 );
+		return estimate > Integer.MAX_VALUE - 8 ? Integer.MAX_VALUE - 8 : (int) estimate;
+	}
+
+	public static void appendLong(Appendable out, long v) throws IOException {
+		if ( out instanceof StringBuilder ) {
+			( (StringBuilder) out ).append( v );
+		}
+		else {
+			out.append( Long.toString( v ) );
+		}
+	}
+
+	public static void appendDouble(Appendable out, double v) throws IOException {
+		if ( out instanceof StringBuilder ) {
+			( (StringBuilder) out ).append( v );
+		}
+		else {
+			out.append( Double.toString( v ) );
+		}
+	}
+
+	public static void appendFloat(Appendable out, float v) throws IOException {
+		if ( out instanceof StringBuilder ) {
+			( (StringBuilder) out ).append( v );
+		}
+		else {
+			out.append( Float.toString( v ) );
+		}
+	}
+
+	public static void appendUUID(Appendable out, UUID v) throws IOException {
+		final long msb = v.getMostSignificantBits();
+		final long lsb = v.getLeastSignificantBits();
+		appendHex( out, msb >>> 32, 8 );
+		out.append( '-' );
+		appendHex( out, msb >>> 16, 4 );
+		out.append( '-' );
+		appendHex( out, msb, 4 );
+		out.append( '-' );
+		appendHex( out, lsb >>> 48, 4 );
+		out.append( '-' );
+		appendHex( out, lsb, 12 );
+	}
+
+	private static void appendHex(Appendable out, long v, int digits) throws IOException {
+		for ( int shift = ( digits - 1 ) << 2; shift >= 0; shift -= 4 ) {
+			out.append( HEX[ (int) ( v >>> shift ) & 0xF ] );
+		}
+	}
+
+	/**
+	 * Writes the value in double quotes, escaping only double quotes and backslashes.
+	 * Runs of characters that need no escaping are written in one call.
+	 *
+	 * @param out Destination.
+	 * @param s Value to write.
+	 * @throws IOException if the destination throws it
+	 */
+	public static void appendQuoted(Appendable out, CharSequence s) throws IOException {
+		out.append( '"' );
+		int run = 0;
+		for ( int i = 0, len = s.length(); i < len; i ++ ) {
+			char c = s.charAt( i );
+			if ( c == '"' || c == '\\' ) {
+				out.append( s, run, i );
+				out.append( '\\' );
+				run = i;
+			}
+		}
+		out.append( s, run, s.length() );
+		out.append( '"' );
+	}
+}
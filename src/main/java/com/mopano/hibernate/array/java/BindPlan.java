@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import org.hibernate.dialect.Dialect;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Everything binding needs to know about the SQL side of an array type, resolved once per dialect.
+ *
+ * @author Yordan Gigov
+ */
+final class BindPlan {
+
+	private static final Logger LOGGER = Logger.getLogger(BindPlan.class);
+
+	/**
+	 * The dialect the plan was resolved for. Compared by identity.
+	 */
+	final Dialect dialect;
+
+	/**
+	 * Element type name, as passed to {@link java.sql.Connection#createArrayOf(java.lang.String, java.lang.Object[])}.
+	 */
+	final String typeName;
+
+	private BindPlan(Dialect dialect, String typeName) {
+		this.dialect = dialect;
+		this.typeName = typeName;
+	}
+
+	/**
+	 * @param dialect The dialect in use.
+	 * @param sqlType JDBC type of the elements.
+	 * @param fixedTypeName Type name to use without asking the dialect, or null.
+	 * @return the plan
+	 */
+	static BindPlan resolve(Dialect dialect, int sqlType, String fixedTypeName) {
+		if ( fixedTypeName != null ) {
+			return new BindPlan( dialect, fixedTypeName );
+		}
+		String typeName = dialect.getTypeName( sqlType );
+		LOGGER.tracef("Dialect getTypeName %d returned %s", sqlType, typeName);
+		int cutIndex = typeName.indexOf( '(' );
+		if ( cutIndex > 0 ) {
+			// getTypeName for this case required length, etc, parameters.
+			// Cut them out and use database defaults.
+			typeName = typeName.substring( 0, cutIndex );
+		}
+		return new BindPlan( dialect, typeName );
+	}
+}
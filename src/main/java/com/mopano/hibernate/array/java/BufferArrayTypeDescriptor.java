@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.sql.PgBinaryArrays;
+import com.mopano.hibernate.array.sql.PgJdbcSupport;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.hibernate.HibernateException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+import org.hibernate.type.descriptor.java.MutabilityPlan;
+
+/**
+ * Base for arrays held in direct NIO buffers, outside the Java heap. The value is made of the elements
+ * from index 0 up to the limit of the buffer, whatever its position, so relative reads do not change it.
+ * Loaded buffers, and the snapshots taken of them for dirty checking, are direct buffers in native byte order.
+ * Read literals are parsed straight into the buffer, and on PostgreSQL the buffer is bound in binary format.
+ *
+ * @author Yordan Gigov
+ * @param <B> buffer type
+ */
+@SuppressWarnings("unchecked")
+public abstract class BufferArrayTypeDescriptor<B extends Buffer> extends AbstractTypeDescriptor<B> {
+
+	private final int elementLength;
+	private final int elementBytes;
+	private final int sqlType;
+	private final int elementOid;
+	private transient volatile BindPlan bindPlan;
+
+	/**
+	 * @param type Buffer class.
+	 * @param elementLength Typical number of characters of one element in a literal.
+	 * @param elementBytes Size of one element in bytes.
+	 * @param sqlType JDBC type of the elements.
+	 * @param elementOid PostgreSQL type of the elements, for binary binding.
+	 */
+	protected BufferArrayTypeDescriptor(Class<B> type, int elementLength, int elementBytes, int sqlType, int elementOid) {
+		super( type );
+		this.elementLength = elementLength;
+		this.elementBytes = elementBytes;
+		this.sqlType = sqlType;
+		this.elementOid = elementOid;
+	}
+
+	/**
+	 * @param bytes Direct buffer of the needed size, in native byte order.
+	 * @return view of the bytes as the buffer type
+	 */
+	protected abstract B view(ByteBuffer bytes);
+
+	/**
+	 * Copies the remaining elements, leaving the source position unchanged.
+	 *
+	 * @param source Buffer to copy from.
+	 * @param target Buffer to copy into, with enough space.
+	 */
+	protected abstract void copy(B source, B target);
+
+	/**
+	 * @param value Buffer.
+	 * @return a view of the same elements with its position at 0
+	 */
+	protected abstract B rewound(B value);
+
+	/**
+	 * Writes the remaining elements as an array literal.
+	 *
+	 * @param value Buffer to write.
+	 * @param out Destination.
+	 * @throws IOException if the destination throws it
+	 */
+	protected abstract void appendElements(B value, Appendable out) throws IOException;
+
+	/**
+	 * Writes the value as an array literal.
+	 *
+	 * @param value Buffer to write. Must not be null.
+	 * @param out Destination.
+	 * @throws IOException if the destination throws it
+	 */
+	public void appendTo(B value, Appendable out) throws IOException {
+		appendElements( whole( value ), out );
+	}
+
+	/**
+	 * @param value Buffer.
+	 * @return the buffer, or a view of it, with the elements of the value remaining
+	 */
+	private B whole(B value) {
+		return value.position() == 0 ? value : rewound( value );
+	}
+
+	/**
+	 * @param chars Characters of the element.
+	 * @param start Index of the first character.
+	 * @param end Index after the last character.
+	 * @param target Buffer to write the parsed element into, at its position.
+	 */
+	protected abstract void put(CharSequence chars, int start, int end, B target);
+
+	/**
+	 * @param element A non-null element from a driver-supplied array.
+	 * @param target Buffer to write the element into, at its position.
+	 */
+	protected abstract void put(Number element, B target);
+
+	/**
+	 * @param value Buffer.
+	 * @return primitive array of the remaining elements
+	 */
+	protected abstract Serializable toPrimitives(B value);
+
+	/**
+	 * @param primitives Primitive array made by {@link #toPrimitives(java.nio.Buffer)}.
+	 * @return buffer of the elements
+	 */
+	protected abstract B fromPrimitives(Serializable primitives);
+
+	/**
+	 * Boxes the remaining elements for drivers other than PgJDBC.
+	 *
+	 * @param value Buffer.
+	 * @return array of boxed values
+	 */
+	protected abstract Object[] toElements(B value);
+
+	/**
+	 * @param length Number of elements.
+	 * @return new direct buffer in native byte order, with its position at 0 and limit at the length
+	 */
+	public B allocate(int length) {
+		return view( ByteBuffer.allocateDirect( length * elementBytes ).order( ByteOrder.nativeOrder() ) );
+	}
+
+	private final MutabilityPlan<B> mutaplan = new MutabilityPlan<B>() {
+
+		@Override
+		public boolean isMutable() {
+			return true;
+		}
+
+		@Override
+		public B deepCopy(B value) {
+			if ( value == null ) {
+				return null;
+			}
+			value = whole( value );
+			B copy = allocate( value.remaining() );
+			copy( value, copy );
+			return copy;
+		}
+
+		@Override
+		public Serializable disassemble(B value) {
+			return value == null ? null : toPrimitives( whole( value ) );
+		}
+
+		@Override
+		public B assemble(Serializable cached) {
+			return cached == null ? null : fromPrimitives( cached );
+		}
+	};
+
+	@Override
+	public MutabilityPlan<B> getMutabilityPlan() {
+		return mutaplan;
+	}
+
+	@Override
+	public boolean areEqual(B one, B another) {
+		if ( one == another ) {
+			return true;
+		}
+		if ( one == null || another == null ) {
+			return false;
+		}
+		return whole( one ).equals( whole( another ) );
+	}
+
+	@Override
+	public int extractHashCode(B value) {
+		return whole( value ).hashCode();
+	}
+
+	@Override
+	public String toString(B value) {
+		if ( value == null ) {
+			return null;
+		}
+		value = whole( value );
+		StringBuilder sb = new StringBuilder( ArrayLiteralEncoder.estimateLength( value.remaining(), elementLength ) );
+		try {
+			appendElements( value, sb );
+		}
+		catch ( IOException ex ) {
+			// StringBuilder does not throw it
+			throw new HibernateException( ex );
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public B fromString(String string) {
+		if ( string == null ) {
+			return null;
+		}
+		// counted first, so the elements go straight into a buffer of the right size
+		final B target = allocate( ArrayLiteralDecoder.count( string ) );
+		ArrayLiteralDecoder.decode( string, new ArrayLiteralDecoder.Handler() {
+			@Override
+			public void element(CharSequence chars, int start, int end) {
+				put( chars, start, end, target );
+			}
+
+			@Override
+			public void nullElement() {
+				throw new IllegalArgumentException( "Buffer cannot hold the null at index " + target.position() );
+			}
+		} );
+		target.flip();
+		return target;
+	}
+
+	/**
+	 * @param dialect The dialect of the session binding the value.
+	 * @return the plan for that dialect, resolving it only if the dialect changed
+	 */
+	private BindPlan bindPlan(Dialect dialect) {
+		BindPlan plan = bindPlan;
+		if ( plan == null || plan.dialect != dialect ) {
+			plan = BindPlan.resolve( dialect, sqlType, null );
+			bindPlan = plan;
+		}
+		return plan;
+	}
+
+	@Override
+	public <X> X unwrap(B value, Class<X> type, WrapperOptions options) {
+		// function used for PreparedStatement binding
+
+		if ( value == null ) {
+			return null;
+		}
+
+		if ( type.isInstance( value ) ) {
+			return (X) value;
+		}
+
+		if ( String.class.isAssignableFrom( type ) ) {
+			return (X) toString( value );
+		}
+
+		if ( java.sql.Array.class.isAssignableFrom( type ) ) {
+			if (  ! ( options instanceof SharedSessionContractImplementor ) ) {
+				throw new IllegalStateException( "You can't handle the truth! I mean arrays..." );
+			}
+			SharedSessionContractImplementor sess = (SharedSessionContractImplementor) options;
+			value = whole( value );
+			try {
+				Connection conn = sess.connection();
+				if ( value.hasRemaining() && PgJdbcSupport.isPgConnection( conn ) ) {
+					// encoded straight from the buffer, nothing is boxed
+					return (X) PgBinaryArrays.create( conn, elementOid, new int[]{ value.remaining() }, value );
+				}
+				return (X) conn.createArrayOf( bindPlan( sess.getJdbcServices().getDialect() ).typeName, toElements( value ) );
+			}
+			catch ( SQLException ex ) {
+				throw new HibernateException( ex );
+			}
+		}
+
+		throw unknownUnwrap( type );
+	}
+
+	@Override
+	public <X> B wrap(X value, WrapperOptions options) {
+		// function used for ResultSet extraction
+
+		if ( value == null ) {
+			return null;
+		}
+
+		if ( getJavaTypeClass().isInstance( value ) ) {
+			return (B) value;
+		}
+
+		if ( value instanceof String ) {
+			return fromString( (String) value );
+		}
+
+		if ( value instanceof Object[] ) {
+			return fromElements( (Object[]) value );
+		}
+
+		if (  ! ( value instanceof java.sql.Array ) ) {
+			throw unknownWrap( value.getClass() );
+		}
+
+		String literal = PgJdbcSupport.textOf( (java.sql.Array) value );
+		if ( literal != null ) {
+			return fromString( literal );
+		}
+		try {
+			Object raw = ( (java.sql.Array) value ).getArray();
+			if ( raw == null ) {
+				return null;
+			}
+			return fromElements( (Object[]) raw );
+		}
+		catch ( SQLException ex ) {
+			// This basically shouldn't happen unless you've lost connection to the database.
+			throw new HibernateException( ex );
+		}
+	}
+
+	private B fromElements(Object[] raw) {
+		B target = allocate( raw.length );
+		for ( int i = 0; i < raw.length; i ++ ) {
+			if ( raw[ i ] == null ) {
+				throw new HibernateException( "Buffer cannot hold the null found at index " + i );
+			}
+			put( (Number) raw[ i ], target );
+		}
+		target.flip();
+		return target;
+	}
+}
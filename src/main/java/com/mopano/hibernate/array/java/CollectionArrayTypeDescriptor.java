@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.TrackedCollection;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.Collection;
+
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+import org.hibernate.type.descriptor.java.MutabilityPlan;
+
+/**
+ * Base for collections stored in array columns. Conversion is done by the array descriptor of the elements.
+ * Loaded values are {@link TrackedCollection}s, and their snapshots are linked copies,
+ * so dirty checking of an untouched collection does not compare the elements.
+ *
+ * @author Yordan Gigov
+ * @param <C> collection type
+ * @param <T> element type
+ */
+@SuppressWarnings("unchecked")
+public abstract class CollectionArrayTypeDescriptor<C extends Collection<T>, T> extends AbstractTypeDescriptor<C> {
+
+	private final GenericArrayTypeDescriptor<T> arrayDescriptor;
+	private final boolean tracked;
+	private final MutabilityPlan<C> mutaplan = new TrackingMutabilityPlan();
+
+	/**
+	 * @param type Collection interface.
+	 * @param arrayDescriptor Descriptor of the array of elements.
+	 */
+	protected CollectionArrayTypeDescriptor(Class<C> type, GenericArrayTypeDescriptor<T> arrayDescriptor) {
+		super( type );
+		this.arrayDescriptor = arrayDescriptor;
+		// modifications of the elements themselves are not counted by the collection
+		this.tracked = ! arrayDescriptor.hasMutableElements();
+	}
+
+	/**
+	 * @param elements Elements, not used elsewhere.
+	 * @return tracked collection of the elements
+	 */
+	protected abstract C newCollection(T[] elements);
+
+	/**
+	 * @param one Collection. Never null.
+	 * @param another Collection. Never null.
+	 * @return whether the collections have the same elements
+	 */
+	protected abstract boolean contentsEqual(C one, C another);
+
+	public GenericArrayTypeDescriptor<T> getArrayDescriptor() {
+		return arrayDescriptor;
+	}
+
+	/**
+	 * @param value Collection. Must not be null.
+	 * @return array of the elements, in iteration order
+	 */
+	public T[] toArray(Collection<T> value) {
+		return value.toArray( (T[]) Array.newInstance( arrayDescriptor.getComponentClass(), value.size() ) );
+	}
+
+	private class TrackingMutabilityPlan implements MutabilityPlan<C> {
+
+		@Override
+		public boolean isMutable() {
+			return true;
+		}
+
+		@Override
+		public C deepCopy(C value) {
+			if ( value == null ) {
+				return null;
+			}
+			if ( tracked && value instanceof TrackedCollection ) {
+				return (C) ( (TrackedCollection<T>) value ).copy();
+			}
+			return newCollection( arrayDescriptor.copy( toArray( value ) ) );
+		}
+
+		@Override
+		public Serializable disassemble(C value) {
+			return value == null ? null : arrayDescriptor.getMutabilityPlan().disassemble( toArray( value ) );
+		}
+
+		@Override
+		public C assemble(Serializable cached) {
+			return cached == null ? null : newCollection( arrayDescriptor.getMutabilityPlan().assemble( cached ) );
+		}
+
+	}
+
+	@Override
+	public MutabilityPlan<C> getMutabilityPlan() {
+		return mutaplan;
+	}
+
+	@Override
+	public boolean areEqual(C one, C another) {
+		if ( one == another ) {
+			return true;
+		}
+		if ( one == null || another == null ) {
+			return false;
+		}
+		if ( tracked && ( isUnmodifiedCopy( one, another ) || isUnmodifiedCopy( another, one ) ) ) {
+			// the snapshot and the collection it was copied from, neither touched since
+			return true;
+		}
+		return contentsEqual( one, another );
+	}
+
+	private static boolean isUnmodifiedCopy(Collection<?> copy, Collection<?> original) {
+		return copy instanceof TrackedCollection && ( (TrackedCollection<?>) copy ).isUnmodifiedCopyOf( original );
+	}
+
+	@Override
+	public String toString(C value) {
+		return value == null ? null : arrayDescriptor.toString( toArray( value ) );
+	}
+
+	@Override
+	public C fromString(String string) {
+		return string == null ? null : newCollection( arrayDescriptor.fromString( string ) );
+	}
+
+	@Override
+	public <X> X unwrap(C value, Class<X> type, WrapperOptions options) {
+		if ( value == null ) {
+			return null;
+		}
+		if ( type.isInstance( value ) ) {
+			return (X) value;
+		}
+		return arrayDescriptor.unwrap( toArray( value ), type, options );
+	}
+
+	@Override
+	public <X> C wrap(X value, WrapperOptions options) {
+		if ( value == null ) {
+			return null;
+		}
+		if ( getJavaTypeClass().isInstance( value ) ) {
+			return (C) value;
+		}
+		return newCollection( arrayDescriptor.wrap( value, options ) );
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.sql.PgBinaryArrays;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.sql.Types;
+
+/**
+ * Descriptor for {@link DoubleBuffer} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class DoubleBufferTypeDescriptor extends BufferArrayTypeDescriptor<DoubleBuffer> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final DoubleBufferTypeDescriptor INSTANCE = new DoubleBufferTypeDescriptor();
+
+	public DoubleBufferTypeDescriptor() {
+		super( DoubleBuffer.class, 9, 8, Types.DOUBLE, PgBinaryArrays.FLOAT8 );
+	}
+
+	@Override
+	protected DoubleBuffer view(ByteBuffer bytes) {
+		return bytes.asDoubleBuffer();
+	}
+
+	@Override
+	protected void copy(DoubleBuffer source, DoubleBuffer target) {
+		target.put( source.duplicate() );
+		target.flip();
+	}
+
+	@Override
+	protected DoubleBuffer rewound(DoubleBuffer value) {
+		DoubleBuffer whole = value.duplicate();
+		whole.rewind();
+		return whole;
+	}
+
+	@Override
+	protected void appendElements(DoubleBuffer value, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = value.position(); i < value.limit(); i ++ ) {
+			if ( i > value.position() ) {
+				out.append( ',' );
+			}
+			ArrayLiteralEncoder.appendDouble( out, value.get( i ) );
+		}
+		out.append( '}' );
+	}
+
+	@Override
+	protected void put(CharSequence chars, int start, int end, DoubleBuffer target) {
+		target.put( ElementParsers.parseDouble( chars, start, end ) );
+	}
+
+	@Override
+	protected void put(Number element, DoubleBuffer target) {
+		target.put( element.doubleValue() );
+	}
+
+	@Override
+	protected Serializable toPrimitives(DoubleBuffer value) {
+		double[] result = new double[value.remaining()];
+		value.duplicate().get( result );
+		return result;
+	}
+
+	@Override
+	protected DoubleBuffer fromPrimitives(Serializable primitives) {
+		double[] values = (double[]) primitives;
+		DoubleBuffer target = allocate( values.length );
+		target.put( values );
+		target.flip();
+		return target;
+	}
+
+	@Override
+	protected Object[] toElements(DoubleBuffer value) {
+		Double[] boxed = new Double[value.remaining()];
+		for ( int i = 0; i < boxed.length; i ++ ) {
+			boxed[ i ] = value.get( value.position() + i );
+		}
+		return boxed;
+	}
+}
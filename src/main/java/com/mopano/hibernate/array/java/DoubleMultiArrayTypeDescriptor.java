@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.DoubleMultiArray;
+import com.mopano.hibernate.array.sql.PgBinaryArrays;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Descriptor for {@link DoubleMultiArray} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class DoubleMultiArrayTypeDescriptor extends MultiArrayTypeDescriptor<DoubleMultiArray> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final DoubleMultiArrayTypeDescriptor INSTANCE = new DoubleMultiArrayTypeDescriptor();
+
+	public DoubleMultiArrayTypeDescriptor() {
+		super( DoubleMultiArray.class, 9, Types.DOUBLE, PgBinaryArrays.FLOAT8 );
+	}
+
+	@Override
+	public boolean areEqual(DoubleMultiArray one, DoubleMultiArray another) {
+		return one == another || one != null && one.equals( another );
+	}
+
+	@Override
+	public int extractHashCode(DoubleMultiArray value) {
+		return value.hashCode();
+	}
+
+	@Override
+	protected void appendElement(Appendable out, DoubleMultiArray value, int index) throws IOException {
+		ArrayLiteralEncoder.appendDouble( out, value.getData()[ index ] );
+	}
+
+	@Override
+	protected Object dataOf(DoubleMultiArray value) {
+		return value.getData();
+	}
+
+	@Override
+	protected FlatCollector<DoubleMultiArray> newCollector() {
+		return new FlatCollector<DoubleMultiArray>() {
+
+			double[] values = new double[16];
+
+			private void add(double value) {
+				if ( size == values.length ) {
+					values = Arrays.copyOf( values, size << 1 );
+				}
+				values[ size ++ ] = value;
+			}
+
+			@Override
+			protected void add(CharSequence chars, int start, int end) {
+				add( ElementParsers.parseDouble( chars, start, end ) );
+			}
+
+			@Override
+			protected void add(Number value) {
+				add( value.doubleValue() );
+			}
+
+			@Override
+			protected DoubleMultiArray build(int[] dimensions) {
+				return new DoubleMultiArray( size == values.length ? values : Arrays.copyOf( values, size ), dimensions );
+			}
+		};
+	}
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Writes one non-null element of an array literal, quoted and escaped if its type requires it.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ * @see ElementFormatters
+ */
+public interface ElementFormatter<T> extends Serializable {
+
+	void append(Appendable out, T value) throws IOException;
+
+	/**
+	 * @return typical number of characters written for one element, used for pre-sizing buffers
+	 */
+	int estimatedLength();
+}
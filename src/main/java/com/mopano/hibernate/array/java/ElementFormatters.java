@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalAmount;
+import java.util.UUID;
+
+import org.hibernate.type.descriptor.java.JavaTypeDescriptor;
+
+/**
+ * Element formatters for known types. Numbers, booleans, UUIDs and enum ordinals are written unquoted.
+ * Dates and times are quoted, because some formats contain spaces, but never need escaping.
+ * Everything else goes through {@link JavaTypeDescriptor#toString(java.lang.Object)}
+ * and is quoted and escaped.
+ *
+ * @author Yordan Gigov
+ */
+public final class ElementFormatters {
+
+	private static final ElementFormatter<Number> INTEGRAL = new Sized<Number>( 12 ) {
+		@Override
+		public void append(Appendable out, Number value) throws IOException {
+			ArrayLiteralEncoder.appendLong( out, value.longValue() );
+		}
+	};
+
+	private static final ElementFormatter<Double> DOUBLE = new Sized<Double>( 12 ) {
+		@Override
+		public void append(Appendable out, Double value) throws IOException {
+			ArrayLiteralEncoder.appendDouble( out, value );
+		}
+	};
+
+	private static final ElementFormatter<Float> FLOAT = new Sized<Float>( 10 ) {
+		@Override
+		public void append(Appendable out, Float value) throws IOException {
+			ArrayLiteralEncoder.appendFloat( out, value );
+		}
+	};
+
+	private static final ElementFormatter<Object> PLAIN = new Sized<Object>( 12 ) {
+		@Override
+		public void append(Appendable out, Object value) throws IOException {
+			// BigDecimal and BigInteger produce plain or E notation, both valid numeric input
+			out.append( value.toString() );
+		}
+	};
+
+	private static final ElementFormatter<Boolean> BOOLEAN = new Sized<Boolean>( 1 ) {
+		@Override
+		public void append(Appendable out, Boolean value) throws IOException {
+			out.append( value ? 't' : 'f' );
+		}
+	};
+
+	private static final ElementFormatter<UUID> UUID_FORMATTER = new Sized<UUID>( 36 ) {
+		@Override
+		public void append(Appendable out, UUID value) throws IOException {
+			ArrayLiteralEncoder.appendUUID( out, value );
+		}
+	};
+
+	private static final ElementFormatter<String> STRING = new Sized<String>( 16 ) {
+		@Override
+		public void append(Appendable out, String value) throws IOException {
+			ArrayLiteralEncoder.appendQuoted( out, value );
+		}
+	};
+
+	private ElementFormatters() {
+	}
+
+	/**
+	 * @param <T> element type
+	 * @param descriptor Descriptor of the element type.
+	 * @return the fastest formatter known for the type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ElementFormatter<T> forDescriptor(final JavaTypeDescriptor<T> descriptor) {
+		final Class<T> cls = descriptor.getJavaTypeClass();
+		if ( cls == Long.class || cls == Integer.class || cls == Short.class ) {
+			return (ElementFormatter<T>) INTEGRAL;
+		}
+		if ( cls == Double.class ) {
+			return (ElementFormatter<T>) DOUBLE;
+		}
+		if ( cls == Float.class ) {
+			return (ElementFormatter<T>) FLOAT;
+		}
+		if ( cls == BigDecimal.class || cls == BigInteger.class ) {
+			return (ElementFormatter<T>) PLAIN;
+		}
+		if ( cls == Boolean.class ) {
+			return (ElementFormatter<T>) BOOLEAN;
+		}
+		if ( cls == UUID.class ) {
+			return (ElementFormatter<T>) UUID_FORMATTER;
+		}
+		if ( cls == String.class ) {
+			return (ElementFormatter<T>) STRING;
+		}
+		if ( descriptor instanceof EnumJavaTypeDescriptor ) {
+			if ( ( (EnumJavaTypeDescriptor<?>) descriptor ).isOrdinal() ) {
+				return new Sized<T>( 2 ) {
+					@Override
+					public void append(Appendable out, T value) throws IOException {
+						ArrayLiteralEncoder.appendLong( out, ( (Enum<?>) value ).ordinal() );
+					}
+				};
+			}
+			return new Sized<T>( 12 ) {
+				@Override
+				public void append(Appendable out, T value) throws IOException {
+					ArrayLiteralEncoder.appendQuoted( out, ( (Enum<?>) value ).name() );
+				}
+			};
+		}
+		if ( descriptor instanceof GenericArrayTypeDescriptor || descriptor instanceof PrimitiveArrayTypeDescriptor ) {
+			// nested array literal, written as is
+			return new Sized<T>( 32 ) {
+				@Override
+				public void append(Appendable out, T value) throws IOException {
+					out.append( descriptor.toString( value ) );
+				}
+			};
+		}
+		if ( TemporalAccessor.class.isAssignableFrom( cls ) || TemporalAmount.class.isAssignableFrom( cls ) ) {
+			return new Sized<T>( 30 ) {
+				@Override
+				public void append(Appendable out, T value) throws IOException {
+					out.append( '"' ).append( descriptor.toString( value ) ).append( '"' );
+				}
+			};
+		}
+		return new Sized<T>( 16 ) {
+			@Override
+			public void append(Appendable out, T value) throws IOException {
+				ArrayLiteralEncoder.appendQuoted( out, descriptor.toString( value ) );
+			}
+		};
+	}
+
+	private abstract static class Sized<T> implements ElementFormatter<T> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int estimatedLength;
+
+		Sized(int estimatedLength) {
+			this.estimatedLength = estimatedLength;
+		}
+
+		@Override
+		public int estimatedLength() {
+			return estimatedLength;
+		}
+	}
+}
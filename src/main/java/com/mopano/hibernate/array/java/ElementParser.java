@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.Serializable;
+
+/**
+ * Converts one unescaped element of an array literal to its Java value.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ * @see ElementParsers
+ */
+@FunctionalInterface
+public interface ElementParser<T> extends Serializable {
+
+	T parse(CharSequence chars, int start, int end);
+}
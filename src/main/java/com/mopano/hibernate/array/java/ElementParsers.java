@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.BigDecimalType;
+import org.hibernate.type.BigIntegerType;
+import org.hibernate.type.BooleanType;
+import org.hibernate.type.DoubleType;
+import org.hibernate.type.FloatType;
+import org.hibernate.type.InstantType;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.NTextType;
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.ShortType;
+import org.hibernate.type.StringNVarcharType;
+import org.hibernate.type.StringType;
+import org.hibernate.type.TextType;
+import org.hibernate.type.UUIDBinaryType;
+import org.hibernate.type.UUIDCharType;
+import org.hibernate.type.YesNoType;
+import org.hibernate.type.descriptor.java.JavaTypeDescriptor;
+
+/**
+ * Element parsers for known types. Integral and small decimal numbers, booleans, UUIDs and enums
+ * are read straight from the character range. Everything else goes through
+ * {@link JavaTypeDescriptor#fromString(java.lang.String)}.
+ *
+ * @author Yordan Gigov
+ */
+public final class ElementParsers {
+
+	private static final double[] DOUBLE_POWERS = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private static final float[] FLOAT_POWERS = {
+		1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+	};
+
+	private static final long NOT_PLAIN = Long.MIN_VALUE;
+
+	private ElementParsers() {
+	}
+
+	/**
+	 * @param <T> element type
+	 * @param descriptor Descriptor of the element type.
+	 * @return the fastest parser known for the type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ElementParser<T> forDescriptor(JavaTypeDescriptor<T> descriptor) {
+		final Class<T> cls = descriptor.getJavaTypeClass();
+		if ( cls == Long.class ) {
+			return (ElementParser<T>) (ElementParser<Long>) ElementParsers::parseLong;
+		}
+		if ( cls == Integer.class ) {
+			return (ElementParser<T>) (ElementParser<Integer>) ElementParsers::parseInt;
+		}
+		if ( cls == Short.class ) {
+			return (ElementParser<T>) (ElementParser<Short>) ElementParsers::parseShort;
+		}
+		if ( cls == Double.class ) {
+			return (ElementParser<T>) (ElementParser<Double>) ElementParsers::parseDouble;
+		}
+		if ( cls == Float.class ) {
+			return (ElementParser<T>) (ElementParser<Float>) ElementParsers::parseFloat;
+		}
+		if ( cls == BigDecimal.class ) {
+			return (ElementParser<T>) (ElementParser<BigDecimal>) ElementParsers::parseBigDecimal;
+		}
+		if ( cls == BigInteger.class ) {
+			return (ElementParser<T>) (ElementParser<BigInteger>) ElementParsers::parseBigInteger;
+		}
+		if ( cls == Boolean.class ) {
+			return (ElementParser<T>) (ElementParser<Boolean>) ElementParsers::parseBoolean;
+		}
+		if ( cls == UUID.class ) {
+			return (ElementParser<T>) (ElementParser<UUID>) ElementParsers::parseUUID;
+		}
+		if ( cls == String.class ) {
+			return (ElementParser<T>) (ElementParser<String>) (chars, start, end) -> chars.subSequence( start, end ).toString();
+		}
+		if ( cls == Instant.class ) {
+			// InstantJavaDescriptor.fromString casts the parsed value instead of converting it
+			return (ElementParser<T>) (ElementParser<Instant>) (chars, start, end)
+					-> InstantType.FORMATTER.parse( chars.subSequence( start, end ), LocalDateTime::from ).toInstant( ZoneOffset.UTC );
+		}
+		if ( descriptor instanceof EnumJavaTypeDescriptor ) {
+			final EnumJavaTypeDescriptor<?> enums = (EnumJavaTypeDescriptor<?>) descriptor;
+			if ( enums.isOrdinal() ) {
+				return (ElementParser<T>) (ElementParser<Enum<?>>) (chars, start, end) -> enums.fromOrdinal( parseLong( chars, start, end ) );
+			}
+			return (ElementParser<T>) (ElementParser<Enum<?>>) enums::fromName;
+		}
+		return (chars, start, end) -> descriptor.fromString( chars.subSequence( start, end ).toString() );
+	}
+
+	/**
+	 * Decided by the Hibernate type rather than the element class, since types such as {@link YesNoType}
+	 * or {@link UUIDBinaryType} store the same Java class in columns whose text is something else.
+	 *
+	 * @param baseType Type of the elements.
+	 * @return true if the array's PostgreSQL text is read by the parser for the type and
+	 * written the same way by its formatter
+	 */
+	public static boolean readsServerText(AbstractStandardBasicType<?> baseType) {
+		final Class<?> type = baseType.getClass();
+		return type == LongType.class || type == IntegerType.class || type == ShortType.class
+				|| type == DoubleType.class || type == FloatType.class
+				|| type == BigDecimalType.class || type == BigIntegerType.class
+				|| type == BooleanType.class || type == PostgresUUIDType.class || type == UUIDCharType.class
+				|| type == StringType.class || type == TextType.class || type == StringNVarcharType.class || type == NTextType.class
+				|| baseType.getJavaTypeDescriptor() instanceof EnumJavaTypeDescriptor;
+	}
+
+	public static long parseLong(CharSequence s, int start, int end) {
+		if ( start >= end ) {
+			throw numberFormat( s, start, end );
+		}
+		int i = start;
+		char c = s.charAt( i );
+		final boolean negative = c == '-';
+		if ( negative || c == '+' ) {
+			if ( ++ i == end ) {
+				throw numberFormat( s, start, end );
+			}
+		}
+		// accumulate negatively, as Long.parseLong does, so MIN_VALUE fits
+		final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		final long multmin = limit / 10;
+		long result = 0;
+		for ( ; i < end; i ++ ) {
+			int digit = s.charAt( i ) - '0';
+			if ( digit < 0 || digit > 9 || result < multmin ) {
+				throw numberFormat( s, start, end );
+			}
+			result *= 10;
+			if ( result < limit + digit ) {
+				throw numberFormat( s, start, end );
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	public static int parseInt(CharSequence s, int start, int end) {
+		long v = parseLong( s, start, end );
+		if ( v < Integer.MIN_VALUE || v > Integer.MAX_VALUE ) {
+			throw numberFormat( s, start, end );
+		}
+		return (int) v;
+	}
+
+	public static short parseShort(CharSequence s, int start, int end) {
+		long v = parseLong( s, start, end );
+		if ( v < Short.MIN_VALUE || v > Short.MAX_VALUE ) {
+			throw numberFormat( s, start, end );
+		}
+		return (short) v;
+	}
+
+	public static double parseDouble(CharSequence s, int start, int end) {
+		// Exact when both the digits and the power of ten fit in a double.
+		// One division of two exact values is correctly rounded.
+		long unscaled = unscaled( s, start, end, 15 );
+		if ( unscaled != NOT_PLAIN ) {
+			int scale = scale( s, start, end );
+			if ( scale < DOUBLE_POWERS.length ) {
+				if ( unscaled == 0 && s.charAt( start ) == '-' ) {
+					return -0.0d;
+				}
+				return scale == 0 ? (double) unscaled : unscaled / DOUBLE_POWERS[ scale ];
+			}
+		}
+		return Double.parseDouble( s.subSequence( start, end ).toString() );
+	}
+
+	public static float parseFloat(CharSequence s, int start, int end) {
+		long unscaled = unscaled( s, start, end, 7 );
+		if ( unscaled != NOT_PLAIN ) {
+			int scale = scale( s, start, end );
+			if ( scale < FLOAT_POWERS.length ) {
+				if ( unscaled == 0 && s.charAt( start ) == '-' ) {
+					return -0.0f;
+				}
+				return scale == 0 ? (float) unscaled : unscaled / FLOAT_POWERS[ scale ];
+			}
+		}
+		return Float.parseFloat( s.subSequence( start, end ).toString() );
+	}
+
+	public static BigDecimal parseBigDecimal(CharSequence s, int start, int end) {
+		long unscaled = unscaled( s, start, end, 18 );
+		if ( unscaled != NOT_PLAIN ) {
+			return BigDecimal.valueOf( unscaled, scale( s, start, end ) );
+		}
+		return new BigDecimal( s.subSequence( start, end ).toString() );
+	}
+
+	public static BigInteger parseBigInteger(CharSequence s, int start, int end) {
+		long unscaled = unscaled( s, start, end, 18 );
+		if ( unscaled != NOT_PLAIN && scale( s, start, end ) == 0 ) {
+			return BigInteger.valueOf( unscaled );
+		}
+		return new BigInteger( s.subSequence( start, end ).toString() );
+	}
+
+	public static boolean parseBoolean(CharSequence s, int start, int end) {
+		switch ( end - start ) {
+			case 1:
+				switch ( s.charAt( start ) ) {
+					case 't':
+					case 'T':
+					case 'y':
+					case 'Y':
+					case '1':
+						return true;
+					case 'f':
+					case 'F':
+					case 'n':
+					case 'N':
+					case '0':
+						return false;
+				}
+				break;
+			default:
+				String v = s.subSequence( start, end ).toString();
+				if ( "true".equalsIgnoreCase( v ) || "yes".equalsIgnoreCase( v ) || "on".equalsIgnoreCase( v ) ) {
+					return true;
+				}
+				if ( "false".equalsIgnoreCase( v ) || "no".equalsIgnoreCase( v ) || "off".equalsIgnoreCase( v ) ) {
+					return false;
+				}
+		}
+		throw new IllegalArgumentException( "Not a boolean value: " + s.subSequence( start, end ) );
+	}
+
+	public static UUID parseUUID(CharSequence s, int start, int end) {
+		if ( end - start == 36
+				&& s.charAt( start + 8 ) == '-'
+				&& s.charAt( start + 13 ) == '-'
+				&& s.charAt( start + 18 ) == '-'
+				&& s.charAt( start + 23 ) == '-' ) {
+			long msb = hex( s, start, start + 8 ) << 32
+					| hex( s, start + 9, start + 13 ) << 16
+					| hex( s, start + 14, start + 18 );
+			long lsb = hex( s, start + 19, start + 23 ) << 48
+					| hex( s, start + 24, start + 36 );
+			return new UUID( msb, lsb );
+		}
+		return UUID.fromString( s.subSequence( start, end ).toString() );
+	}
+
+	private static long hex(CharSequence s, int start, int end) {
+		long v = 0;
+		for ( int i = start; i < end; i ++ ) {
+			int digit = Character.digit( s.charAt( i ), 16 );
+			if ( digit < 0 ) {
+				throw new IllegalArgumentException( "Invalid UUID: " + s.subSequence( start, end ) );
+			}
+			v = v << 4 | digit;
+		}
+		return v;
+	}
+
+	private static NumberFormatException numberFormat(CharSequence s, int start, int end) {
+		return new NumberFormatException( "For input string: \"" + s.subSequence( start, end ) + "\"" );
+	}
+
+	/**
+	 * Reads a plain decimal number, without exponent, skipping the decimal point.
+	 *
+	 * @return the signed unscaled value, or {@link #NOT_PLAIN} if the number is not plain decimal
+	 * or has more than the given significant digits
+	 */
+	private static long unscaled(CharSequence s, int start, int end, int maxDigits) {
+		int i = start;
+		if ( i >= end ) {
+			return NOT_PLAIN;
+		}
+		char c = s.charAt( i );
+		final boolean negative = c == '-';
+		if ( negative || c == '+' ) {
+			i ++;
+		}
+		boolean point = false;
+		int digits = 0;
+		int significant = 0;
+		long unscaled = 0;
+		for ( ; i < end; i ++ ) {
+			c = s.charAt( i );
+			if ( c >= '0' && c <= '9' ) {
+				digits ++;
+				if ( unscaled != 0 || c != '0' ) {
+					if ( ++ significant > maxDigits ) {
+						return NOT_PLAIN;
+					}
+				}
+				unscaled = unscaled * 10 + ( c - '0' );
+			}
+			else if ( c == '.' && ! point ) {
+				point = true;
+			}
+			else {
+				return NOT_PLAIN;
+			}
+		}
+		if ( digits == 0 ) {
+			return NOT_PLAIN;
+		}
+		return negative ? -unscaled : unscaled;
+	}
+
+	/**
+	 * @return count of digits after the decimal point
+	 */
+	private static int scale(CharSequence s, int start, int end) {
+		for ( int i = end - 1; i >= start; i -- ) {
+			if ( s.charAt( i ) == '.' ) {
+				return end - 1 - i;
+			}
+		}
+		return 0;
+	}
+}
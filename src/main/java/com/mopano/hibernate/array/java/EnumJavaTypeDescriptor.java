@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import org.hibernate.HibernateException;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+
+/**
+ * Enum elements, stored either by name or by ordinal. The constants and the hash codes of their names
+ * are looked up once, so reading an element neither allocates nor copies the text.
+ *
+ * @param <E> enum type
+ * @author Yordan Gigov
+ */
+public class EnumJavaTypeDescriptor<E extends Enum<E>> extends AbstractTypeDescriptor<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final E[] values;
+	private final int[] nameHashes;
+	private final boolean ordinal;
+
+	/**
+	 * @param enumClass The enum.
+	 * @param ordinal Whether elements are stored by ordinal instead of by name.
+	 */
+	public EnumJavaTypeDescriptor(Class<E> enumClass, boolean ordinal) {
+		super( enumClass );
+		this.values = enumClass.getEnumConstants();
+		this.nameHashes = new int[values.length];
+		for ( int i = 0; i < values.length; i++ ) {
+			nameHashes[i] = values[i].name().hashCode();
+		}
+		this.ordinal = ordinal;
+	}
+
+	/**
+	 * @return whether elements are stored by ordinal
+	 */
+	public boolean isOrdinal() {
+		return ordinal;
+	}
+
+	/**
+	 * @param ordinal Stored ordinal.
+	 * @return the constant
+	 */
+	public E fromOrdinal(long ordinal) {
+		if ( ordinal < 0 || ordinal >= values.length ) {
+			throw new HibernateException( "Unknown ordinal " + ordinal + " of " + getJavaTypeClass().getName() );
+		}
+		return values[(int) ordinal];
+	}
+
+	/**
+	 * @param chars Text holding the name.
+	 * @param start Index of the first character.
+	 * @param end Index after the last character.
+	 * @return the constant with that name
+	 */
+	public E fromName(CharSequence chars, int start, int end) {
+		final int length = end - start;
+		int hash = 0;
+		for ( int i = start; i < end; i++ ) {
+			hash = 31 * hash + chars.charAt( i );
+		}
+		for ( int i = 0; i < values.length; i++ ) {
+			if ( nameHashes[i] == hash && matches( values[i].name(), chars, start, length ) ) {
+				return values[i];
+			}
+		}
+		throw new HibernateException( "Unknown name " + chars.subSequence( start, end ) + " of " + getJavaTypeClass().getName() );
+	}
+
+	private static boolean matches(String name, CharSequence chars, int start, int length) {
+		if ( name.length() != length ) {
+			return false;
+		}
+		for ( int i = 0; i < length; i++ ) {
+			if ( name.charAt( i ) != chars.charAt( start + i ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString(E value) {
+		return ordinal ? Integer.toString( value.ordinal() ) : value.name();
+	}
+
+	@Override
+	public E fromString(String string) {
+		return ordinal ? fromOrdinal( Long.parseLong( string ) ) : fromName( string, 0, string.length() );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <X> X unwrap(E value, Class<X> type, WrapperOptions options) {
+		if ( value == null ) {
+			return null;
+		}
+		if ( type.isInstance( value ) ) {
+			return (X) value;
+		}
+		if ( String.class.isAssignableFrom( type ) ) {
+			return (X) value.name();
+		}
+		if ( Short.class.isAssignableFrom( type ) ) {
+			return (X) Short.valueOf( (short) value.ordinal() );
+		}
+		if ( Integer.class.isAssignableFrom( type ) ) {
+			return (X) Integer.valueOf( value.ordinal() );
+		}
+		if ( Long.class.isAssignableFrom( type ) ) {
+			return (X) Long.valueOf( value.ordinal() );
+		}
+		throw unknownUnwrap( type );
+	}
+
+	@Override
+	public <X> E wrap(X value, WrapperOptions options) {
+		if ( value == null ) {
+			return null;
+		}
+		if ( getJavaTypeClass().isInstance( value ) ) {
+			return getJavaTypeClass().cast( value );
+		}
+		if ( value instanceof Number ) {
+			return fromOrdinal( ( (Number) value ).longValue() );
+		}
+		if ( value instanceof String ) {
+			String string = (String) value;
+			return fromName( string, 0, string.length() );
+		}
+		throw unknownWrap( value.getClass() );
+	}
+}
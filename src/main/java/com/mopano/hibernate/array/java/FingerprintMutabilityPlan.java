@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.Serializable;
+
+import org.hibernate.type.descriptor.java.MutabilityPlan;
+
+/**
+ * Mutability plan that snapshots large arrays as a fingerprint instead of a copy.
+ * <p>
+ * The snapshot of an array at or above the threshold is a plain {@code Object[]} holding only a {@link Snapshot}
+ * of the fingerprint and the original, so it carries its own data and needs no shared lookup.
+ * Hibernate keeps it in the persistence context like any other snapshot.
+ * Everything that reads a snapshot goes through {@link #resolve(java.lang.Object[])} first.
+ *
+ * @author Yordan Gigov
+ */
+final class FingerprintMutabilityPlan<T> implements MutabilityPlan<T[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final MutabilityPlan<T[]> copyPlan;
+	private final int kind;
+	private final int threshold;
+
+	/**
+	 * @param copyPlan Plan for arrays below the threshold.
+	 * @param kind Element kind, as returned by {@link ArrayFingerprint#kindOf(java.lang.Class)}.
+	 * @param threshold Smallest array length to fingerprint.
+	 */
+	FingerprintMutabilityPlan(MutabilityPlan<T[]> copyPlan, int kind, int threshold) {
+		this.copyPlan = copyPlan;
+		this.kind = kind;
+		this.threshold = threshold;
+	}
+
+	@Override
+	public boolean isMutable() {
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T[] deepCopy(T[] value) {
+		if ( value == null ) {
+			return null;
+		}
+		if ( snapshotOf( value ) != null ) {
+			// snapshots never change, so they are their own copy
+			return value;
+		}
+		if ( value.length < threshold ) {
+			return copyPlan.deepCopy( value );
+		}
+		// typed by erasure only, so never cast to the array class
+		return (T[]) new Object[]{ new Snapshot( value, ArrayFingerprint.of( kind, value ) ) };
+	}
+
+	/**
+	 * @param value Array to copy. May be a snapshot.
+	 * @return a full copy of the array, or of the original for a snapshot
+	 */
+	T[] copy(T[] value) {
+		return copyPlan.deepCopy( resolve( value ) );
+	}
+
+	@Override
+	public Serializable disassemble(T[] value) {
+		return copyPlan.disassemble( resolve( value ) );
+	}
+
+	@Override
+	public T[] assemble(Serializable cached) {
+		return copyPlan.assemble( cached );
+	}
+
+	/**
+	 * @param value Array or snapshot.
+	 * @return the fingerprint of the array, or the one kept for the snapshot
+	 */
+	ArrayFingerprint fingerprint(T[] value) {
+		Snapshot s = snapshotOf( value );
+		return s != null ? s.fingerprint : ArrayFingerprint.of( kind, value );
+	}
+
+	/**
+	 * @param value Array, may be null.
+	 * @return the snapshot data if the value is a snapshot, otherwise null
+	 */
+	static Snapshot snapshotOf(Object[] value) {
+		return value != null && value.getClass() == Object[].class && value.length == 1 && value[ 0 ] instanceof Snapshot
+				? (Snapshot) value[ 0 ] : null;
+	}
+
+	/**
+	 * @param <A> array element type
+	 * @param value Array, may be null.
+	 * @return the original array if the value is a snapshot, otherwise the value itself
+	 */
+	@SuppressWarnings("unchecked")
+	static <A> A[] resolve(A[] value) {
+		Snapshot s = snapshotOf( value );
+		return s != null ? (A[]) s.original : value;
+	}
+
+	static final class Snapshot implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		final Object[] original;
+		final ArrayFingerprint fingerprint;
+
+		Snapshot(Object[] original, ArrayFingerprint fingerprint) {
+			this.original = original;
+			this.fingerprint = fingerprint;
+		}
+	}
+}
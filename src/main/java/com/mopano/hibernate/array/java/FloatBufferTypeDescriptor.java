@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.sql.PgBinaryArrays;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.sql.Types;
+
+/**
+ * Descriptor for {@link FloatBuffer} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class FloatBufferTypeDescriptor extends BufferArrayTypeDescriptor<FloatBuffer> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final FloatBufferTypeDescriptor INSTANCE = new FloatBufferTypeDescriptor();
+
+	public FloatBufferTypeDescriptor() {
+		super( FloatBuffer.class, 7, 4, Types.FLOAT, PgBinaryArrays.FLOAT4 );
+	}
+
+	@Override
+	protected FloatBuffer view(ByteBuffer bytes) {
+		return bytes.asFloatBuffer();
+	}
+
+	@Override
+	protected void copy(FloatBuffer source, FloatBuffer target) {
+		target.put( source.duplicate() );
+		target.flip();
+	}
+
+	@Override
+	protected FloatBuffer rewound(FloatBuffer value) {
+		FloatBuffer whole = value.duplicate();
+		whole.rewind();
+		return whole;
+	}
+
+	@Override
+	protected void appendElements(FloatBuffer value, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = value.position(); i < value.limit(); i ++ ) {
+			if ( i > value.position() ) {
+				out.append( ',' );
+			}
+			ArrayLiteralEncoder.appendFloat( out, value.get( i ) );
+		}
+		out.append( '}' );
+	}
+
+	@Override
+	protected void put(CharSequence chars, int start, int end, FloatBuffer target) {
+		target.put( ElementParsers.parseFloat( chars, start, end ) );
+	}
+
+	@Override
+	protected void put(Number element, FloatBuffer target) {
+		target.put( element.floatValue() );
+	}
+
+	@Override
+	protected Serializable toPrimitives(FloatBuffer value) {
+		float[] result = new float[value.remaining()];
+		value.duplicate().get( result );
+		return result;
+	}
+
+	@Override
+	protected FloatBuffer fromPrimitives(Serializable primitives) {
+		float[] values = (float[]) primitives;
+		FloatBuffer target = allocate( values.length );
+		target.put( values );
+		target.flip();
+		return target;
+	}
+
+	@Override
+	protected Object[] toElements(FloatBuffer value) {
+		Float[] boxed = new Float[value.remaining()];
+		for ( int i = 0; i < boxed.length; i ++ ) {
+			boxed[ i ] = value.get( value.position() + i );
+		}
+		return boxed;
+	}
+}
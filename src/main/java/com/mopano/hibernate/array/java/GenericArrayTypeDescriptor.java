@@ -7,15 +7,21 @@
  */
 package com.mopano.hibernate.array.java;
 
+import com.mopano.hibernate.array.ArrayMetrics;
+import com.mopano.hibernate.array.sql.PgJdbcSupport;
+
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Array;
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.hibernate.HibernateException;
 import org.hibernate.dialect.Dialect;
-import org.hibernate.internal.SessionImpl;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.type.AbstractStandardBasicType;
 import org.hibernate.type.descriptor.WrapperOptions;
 import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
@@ -31,31 +37,111 @@ import org.jboss.logging.Logger;
 public class GenericArrayTypeDescriptor<T> extends AbstractTypeDescriptor<T[]> {
 
 	private static final Logger LOGGER = Logger.getLogger(GenericArrayTypeDescriptor.class);
+
+	/**
+	 * Shortest array whose hash code is remembered, when hash codes are remembered at all.
+	 * Shorter arrays are hashed faster than they are looked up.
+	 */
+	public static final int MEMOIZED_LENGTH = 64;
+
+	/**
+	 * Whether the JDK has the Flight Recorder API, which Java 8 got in update 262.
+	 */
+	private static final boolean EVENTS_AVAILABLE = eventsAvailable();
+
+	private final AbstractStandardBasicType<T> baseType;
 	private final JavaTypeDescriptor<T> componentDescriptor;
+	private final ElementParser<T> elementParser;
+	private final ElementFormatter<T> elementFormatter;
+	private final ArrayEquivalence<T> equivalence;
+	private final boolean readsServerText;
 	private final Class<T> componentClass;
 	private final MutabilityPlan<T[]> mutaplan;
+	private final FingerprintMutabilityPlan<T> fingerprints;
 	private final int sqlType;
 	private final String sqlTypeName;
 	private final Class unwrapTo;
-	private final boolean skipTypeLookup;
+	private final boolean convertElements;
+	private final String fixedTypeName;
+	private final transient Map<Object[], Integer> hashes;
+	private final transient ArrayMetrics metrics;
+	private final int eventThreshold;
+	private transient volatile BindPlan bindPlan;
 
 	public GenericArrayTypeDescriptor(AbstractStandardBasicType<T> baseDescriptor) {
 		this( baseDescriptor, null );
 	}
 
-	@SuppressWarnings("unchecked")
 	public GenericArrayTypeDescriptor(AbstractStandardBasicType<T> baseDescriptor, Class unwrapTo) {
+		this( baseDescriptor, unwrapTo, null );
+	}
+
+	/**
+	 * @param baseDescriptor Type of the elements.
+	 * @param unwrapTo Class the elements are converted to before binding, or null to bind them as they are.
+	 * @param dialect Dialect to resolve the bind plan for now, instead of on first use. May be null.
+	 */
+	public GenericArrayTypeDescriptor(AbstractStandardBasicType<T> baseDescriptor, Class unwrapTo, Dialect dialect) {
+		this( baseDescriptor, unwrapTo, dialect, 0 );
+	}
+
+	/**
+	 * @param baseDescriptor Type of the elements.
+	 * @param unwrapTo Class the elements are converted to before binding, or null to bind them as they are.
+	 * @param dialect Dialect to resolve the bind plan for now, instead of on first use. May be null.
+	 * @param fingerprintThreshold Smallest array length whose dirty checking snapshot is a fingerprint
+	 * instead of a copy, or 0 to always copy. Ignored for element types that cannot be fingerprinted.
+	 */
+	public GenericArrayTypeDescriptor(AbstractStandardBasicType<T> baseDescriptor, Class unwrapTo, Dialect dialect, int fingerprintThreshold) {
+		this( baseDescriptor, unwrapTo, dialect, fingerprintThreshold, null, 0 );
+	}
+
+	/**
+	 * @param baseDescriptor Type of the elements.
+	 * @param unwrapTo Class the elements are converted to before binding, or null to bind them as they are.
+	 * @param dialect Dialect to resolve the bind plan for now, instead of on first use. May be null.
+	 * @param fingerprintThreshold Smallest array length whose dirty checking snapshot is a fingerprint
+	 * instead of a copy, or 0 to always copy. Ignored for element types that cannot be fingerprinted.
+	 * @param metrics Where to report binding and extraction, or null to measure nothing.
+	 * @param eventThreshold Smallest array length that emits Flight Recorder events, or 0 for none.
+	 */
+	@SuppressWarnings("unchecked")
+	public GenericArrayTypeDescriptor(AbstractStandardBasicType<T> baseDescriptor, Class unwrapTo, Dialect dialect, int fingerprintThreshold,
+			ArrayMetrics metrics, int eventThreshold) {
 		super( (Class<T[]>) Array.newInstance( baseDescriptor.getJavaTypeDescriptor().getJavaTypeClass(), 0 ).getClass() );
+		this.baseType = baseDescriptor;
 		this.componentDescriptor = baseDescriptor.getJavaTypeDescriptor();
 		this.componentClass = baseDescriptor.getJavaTypeDescriptor().getJavaTypeClass();
+		this.elementParser = ElementParsers.forDescriptor( this.componentDescriptor );
+		this.elementFormatter = ElementFormatters.forDescriptor( this.componentDescriptor );
+		this.equivalence = ArrayEquivalences.forDescriptor( this.componentDescriptor );
+		this.hashes = null;
+		this.metrics = metrics;
+		this.eventThreshold = EVENTS_AVAILABLE ? Math.max( eventThreshold, 0 ) : 0;
+		this.readsServerText = ElementParsers.readsServerText( baseDescriptor );
+		MutabilityPlan<T[]> copyPlan;
 		if ( this.componentClass.isArray() ) {
-			this.mutaplan = new LocalArrayMutabilityPlan( this.componentDescriptor.getMutabilityPlan() );
+			copyPlan = new LocalArrayMutabilityPlan( this.componentDescriptor.getMutabilityPlan() );
 		}
 		else {
-			this.mutaplan = ArrayMutabilityPlan.INSTANCE;
+			// cached in packed form where the element type has one
+			copyPlan = PackedMutabilityPlan.forClass( this.componentClass );
+			if ( copyPlan == null ) {
+				copyPlan = ArrayMutabilityPlan.INSTANCE;
+			}
 		}
+		int kind = ArrayFingerprint.kindOf( this.componentClass );
+		if ( fingerprintThreshold > 0 && kind != ArrayFingerprint.UNSUPPORTED ) {
+			this.fingerprints = new FingerprintMutabilityPlan<>( copyPlan, kind, fingerprintThreshold );
+			copyPlan = this.fingerprints;
+		}
+		else {
+			this.fingerprints = null;
+		}
+		this.mutaplan = this.eventThreshold > 0 ? new EventMutabilityPlan( copyPlan ) : copyPlan;
 		this.sqlType = baseDescriptor.getSqlTypeDescriptor().getSqlType();
 		this.unwrapTo = unwrapTo == null ? componentClass : unwrapTo;
+		this.convertElements = ! this.unwrapTo.isAssignableFrom( componentClass );
 		String typeName = baseDescriptor.getName();
 		while (typeName.endsWith("[]") || typeName.endsWith(" array")) {
 			if (typeName.endsWith("[]")) {
@@ -75,11 +161,116 @@ public class GenericArrayTypeDescriptor<T> extends AbstractTypeDescriptor<T[]> {
 			skipTypeLookup = true;
 		}
 		this.sqlTypeName = typeName;
-		this.skipTypeLookup = skipTypeLookup;
+		if ( skipTypeLookup || sqlType == Types.OTHER ) {
+			this.fixedTypeName = typeName;
+		}
+		else if ( sqlType == Types.SQLXML ) {
+			this.fixedTypeName = "xml";
+		}
+		else {
+			this.fixedTypeName = null;
+		}
+		if ( dialect != null ) {
+			this.bindPlan = BindPlan.resolve( dialect, sqlType, fixedTypeName );
+		}
 		LOGGER.tracef("Created GenericArrayTypeDescriptor(sqlType = %d, sqlTypeName = %s, componentClass = %s, unwrapto = %s)",
 				this.sqlType, this.sqlTypeName, this.componentClass.getName(), this.unwrapTo.getName());
 	}
 
+	/**
+	 * Copy of a descriptor that remembers the hash codes of long arrays.
+	 *
+	 * @param base The descriptor to copy.
+	 * @see #withMemoizedHashes()
+	 */
+	protected GenericArrayTypeDescriptor(GenericArrayTypeDescriptor<T> base) {
+		super( base.getJavaTypeClass() );
+		this.baseType = base.baseType;
+		this.componentDescriptor = base.componentDescriptor;
+		this.elementParser = base.elementParser;
+		this.elementFormatter = base.elementFormatter;
+		this.equivalence = base.equivalence;
+		this.readsServerText = base.readsServerText;
+		this.componentClass = base.componentClass;
+		this.mutaplan = base.mutaplan;
+		this.fingerprints = base.fingerprints;
+		this.sqlType = base.sqlType;
+		this.sqlTypeName = base.sqlTypeName;
+		this.unwrapTo = base.unwrapTo;
+		this.convertElements = base.convertElements;
+		this.fixedTypeName = base.fixedTypeName;
+		this.bindPlan = base.bindPlan;
+		this.hashes = Collections.synchronizedMap( new WeakHashMap<>() );
+		this.metrics = base.metrics;
+		this.eventThreshold = base.eventThreshold;
+	}
+
+	/**
+	 * For arrays that are never modified in place, such as those of {@link com.mopano.hibernate.array.ImmutableArrayType}.
+	 * Cache keys and query parameters with such arrays are then hashed once per array.
+	 *
+	 * @return a descriptor that remembers the hash code of each array of {@value #MEMOIZED_LENGTH} or more elements
+	 */
+	public GenericArrayTypeDescriptor<T> withMemoizedHashes() {
+		return hashes != null ? this : new GenericArrayTypeDescriptor<>( this );
+	}
+
+	/**
+	 * @return type of the elements
+	 */
+	public AbstractStandardBasicType<T> getBaseType() {
+		return baseType;
+	}
+
+	public Class<T> getComponentClass() {
+		return componentClass;
+	}
+
+	/**
+	 * @return whether the elements themselves can be modified in place
+	 */
+	public boolean hasMutableElements() {
+		return componentDescriptor.getMutabilityPlan().isMutable();
+	}
+
+	/**
+	 * @return whether the dirty checking snapshots of long arrays are fingerprints instead of copies
+	 */
+	public boolean keepsFingerprints() {
+		return fingerprints != null;
+	}
+
+	/**
+	 * @return JDBC type of the elements
+	 */
+	public int getComponentSqlType() {
+		return sqlType;
+	}
+
+	/**
+	 * @return whether the server's text of the array is parsed, instead of reading the driver's elements
+	 * @see ElementParsers#readsServerText(org.hibernate.type.AbstractStandardBasicType)
+	 */
+	public boolean readsServerText() {
+		return readsServerText;
+	}
+
+	/**
+	 * @return whether {@link #toString(java.lang.Object[])} writes elements the way PostgreSQL reads them,
+	 * so the literal can be bound in place of a driver array
+	 */
+	public boolean writesServerText() {
+		// the formatters of the types whose server text is parsed write that same text
+		return readsServerText;
+	}
+
+	/**
+	 * @return where binding and extraction are reported, null if they are not measured
+	 */
+	public ArrayMetrics getMetrics() {
+		return metrics;
+	}
+
 	@SuppressWarnings("unchecked")
 	private class LocalArrayMutabilityPlan implements MutabilityPlan<T[]> {
 
@@ -118,30 +309,132 @@ public class GenericArrayTypeDescriptor<T> extends AbstractTypeDescriptor<T[]> {
 
 	}
 
+	/**
+	 * Emits copy events around another plan.
+	 */
+	private class EventMutabilityPlan implements MutabilityPlan<T[]> {
+
+		private final MutabilityPlan<T[]> plan;
+
+		EventMutabilityPlan(MutabilityPlan<T[]> plan) {
+			this.plan = plan;
+		}
+
+		@Override
+		public boolean isMutable() {
+			return plan.isMutable();
+		}
+
+		@Override
+		public T[] deepCopy(T[] value) {
+			if ( value == null || value.length < eventThreshold ) {
+				return plan.deepCopy( value );
+			}
+			Object event = ArrayEvents.begin( ArrayEvents.COPY, getJavaTypeClass() );
+			T[] copy = plan.deepCopy( value );
+			if ( event != null ) {
+				ArrayEvents.end( event, value.length );
+			}
+			return copy;
+		}
+
+		@Override
+		public Serializable disassemble(T[] value) {
+			return plan.disassemble( value );
+		}
+
+		@Override
+		public T[] assemble(Serializable cached) {
+			return plan.assemble( cached );
+		}
+	}
+
+	private static boolean eventsAvailable() {
+		try {
+			Class.forName( "jdk.jfr.Event" );
+			return true;
+		}
+		catch ( ClassNotFoundException | LinkageError ex ) {
+			return false;
+		}
+	}
+
+	/**
+	 * @param kind Kind of {@link ArrayEvents} event.
+	 * @param elements Number of elements.
+	 * @return the started event, or null if the array is too short or no recording wants it
+	 */
+	private Object beginEvent(int kind, int elements) {
+		return eventThreshold > 0 && elements >= eventThreshold ? ArrayEvents.begin( kind, getJavaTypeClass() ) : null;
+	}
+
+	/**
+	 * @return the smallest array length that emits Flight Recorder events, 0 if none do
+	 */
+	public int getEventThreshold() {
+		return eventThreshold;
+	}
+
 	@Override
 	public boolean areEqual(T[] one, T[] another) {
-		if (one == null && another == null) {
+		if ( eventThreshold > 0 && one != another && one != null && another != null ) {
+			Object event = beginEvent( ArrayEvents.COMPARE, Math.max( one.length, another.length ) );
+			if ( event != null ) {
+				boolean equal = compare( one, another );
+				ArrayEvents.end( event, Math.max( one.length, another.length ) );
+				return equal;
+			}
+		}
+		return compare( one, another );
+	}
+
+	private boolean compare(T[] one, T[] another) {
+		if (one == another) {
+			// also the case for unchanged immutable arrays, which share the snapshot
 			return true;
 		}
 		if (one == null || another == null) {
 			return false;
 		}
+		if ( PackedMutabilityPlan.isPacked( one ) && PackedMutabilityPlan.isPacked( another ) ) {
+			// query cache keys, compared without boxing the elements again
+			return PackedMutabilityPlan.packedOf( one ).equals( PackedMutabilityPlan.packedOf( another ) );
+		}
+		one = unpacked( one );
+		another = unpacked( another );
+		if ( fingerprints != null
+				&& ( FingerprintMutabilityPlan.snapshotOf( one ) != null || FingerprintMutabilityPlan.snapshotOf( another ) != null ) ) {
+			// a fingerprint snapshot, compared by a single pass over the other array
+			return fingerprints.fingerprint( one ).equals( fingerprints.fingerprint( another ) );
+		}
 		if (one.length != another.length) {
 			return false;
 		}
-
-		final int l = one.length;
-		for (int i = 0; i < l; i++) {
-			if ( ! componentDescriptor.areEqual( one[i], another[i] )) {
+		if ( hashes != null && one.length >= MEMOIZED_LENGTH ) {
+			Integer h1 = hashes.get( one );
+			Integer h2 = hashes.get( another );
+			if ( h1 != null && h2 != null && h1.intValue() != h2.intValue() ) {
 				return false;
 			}
 		}
-		return true;
+		return equivalence.elementsEqual( one, another );
 	}
 
 	@Override
 	public int extractHashCode(T[] value) {
-		return java.util.Arrays.hashCode( value );
+		if ( PackedMutabilityPlan.isPacked( value ) ) {
+			return PackedMutabilityPlan.packedOf( value ).hashCode();
+		}
+		value = resolve( value );
+		if ( hashes == null || value.length < MEMOIZED_LENGTH ) {
+			return equivalence.hashCode( value );
+		}
+		Integer h = hashes.get( value );
+		if ( h == null ) {
+			h = equivalence.hashCode( value );
+			hashes.put( value, h );
+		}
+		return h;
 	}
 
 	@Override
@@ -149,112 +442,144 @@ public class GenericArrayTypeDescriptor<T> extends AbstractTypeDescriptor<T[]> {
 		return this.mutaplan;
 	}
 
+	/**
+	 * Query cache keys hold disassembled parameter values, which Hibernate compares and hashes like arrays.
+	 * Two of them are compared packed, but one compared to an array is unpacked first.
+	 */
+	private T[] unpacked(T[] value) {
+		return PackedMutabilityPlan.isPacked( value ) ? PackedMutabilityPlan.forClass( componentClass ).assemble( (Serializable) value ) : value;
+	}
+
+	/**
+	 * Copies the value in full, even where the mutability plan would keep a fingerprint.
+	 *
+	 * @param value Array to copy, or a snapshot of one.
+	 * @return a copy that can be handed to the application
+	 */
+	public T[] copy(T[] value) {
+		return fingerprints != null ? fingerprints.copy( value ) : mutaplan.deepCopy( value );
+	}
+
+	/**
+	 * @param value Array, or a fingerprint snapshot of one.
+	 * @return the array to read the elements from
+	 */
+	public T[] resolve(T[] value) {
+		return fingerprints != null ? FingerprintMutabilityPlan.resolve( value ) : value;
+	}
+
+	/**
+	 * Writes the value as an array literal, without building an intermediate string.
+	 *
+	 * @param value Array to write. Must not be null.
+	 * @param out Destination.
+	 * @throws IOException if the destination throws it
+	 */
+	public void appendTo(T[] value, Appendable out) throws IOException {
+		ArrayLiteralEncoder.encode( resolve( value ), elementFormatter, out );
+	}
+
 	@Override
 	public String toString(T[] value) {
 		if ( value == null ) {
 			return null;
 		}
-		StringBuilder sb = new StringBuilder();
-		sb.append( '{' );
-		String glue = "";
-		for ( T v : value ) {
-			sb.append( glue );
-			if ( v == null ) {
-				sb.append( "null" );
-				glue = ",";
-				continue;
-			}
-			sb.append( '"' );
-			String valstr = this.componentDescriptor.toString( v );
-			// using replaceAll is a shorter, but much slower way to do this
-			for (int i = 0, len = valstr.length(); i < len; i ++ ) {
-				char c = valstr.charAt( i );
-				// Surrogate pairs. This is how they're done.
-				if (c == '\\' || c == '"') {
-					sb.append( '\\' );
-				}
-				sb.append( c );
-			}
-			sb.append( '"' );
-			glue = ",";
+		value = resolve( value );
+		StringBuilder sb = new StringBuilder( ArrayLiteralEncoder.estimateLength( value.length, elementFormatter.estimatedLength() ) );
+		try {
+			appendTo( value, sb );
 		}
-		sb.append( '}' );
-		String result = sb.toString();
-		return result;
+		catch ( IOException ex ) {
+			// StringBuilder does not throw it
+			throw new HibernateException( ex );
+		}
+		return sb.toString();
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public T[] fromString(String string) {
 		if ( string == null ) {
 			return null;
 		}
-		java.util.ArrayList<String> lst = new java.util.ArrayList<>();
-		string = string.trim();
-		StringBuilder sb = null;
-		char lastchar = string.charAt( string.length() - 1 );
-		char firstchar = string.charAt( 0 );
-		if ( firstchar != '{' || lastchar != '}' ) {
-			throw new IllegalArgumentException( "Cannot parse given string into array of strings. First and last character must be { and }" );
-		}
-		int len = string.length();
-		boolean inquote = false;
-		for ( int i = 1; i < len; i ++ ) {
-			char c = string.charAt( i );
-			if ( c == '"' ) {
-				if (inquote) {
-					lst.add( sb.toString() );
-				}
-				else {
-					sb = new StringBuilder();
-				}
-				inquote = !inquote;
-				continue;
+		Collector collector = new Collector( 0, Integer.MAX_VALUE );
+		ArrayLiteralDecoder.decode( string, collector );
+		return collector.toArray();
+	}
+
+	/**
+	 * Parses a range of the elements of an array literal. Elements outside it are skipped without being parsed.
+	 *
+	 * @param string Array literal.
+	 * @param from Index of the first element, starting at 0.
+	 * @param to Index after the last element. The range ends early where the literal does.
+	 * @return the elements in the range
+	 */
+	public T[] fromString(String string, int from, int to) {
+		if ( string == null ) {
+			return null;
+		}
+		Collector collector = new Collector( from, to );
+		ArrayLiteralDecoder.decode( string, collector );
+		return collector.toArray();
+	}
+
+	/**
+	 * Collects parsed elements in a range, growing the array as needed.
+	 */
+	@SuppressWarnings("unchecked")
+	private class Collector implements ArrayLiteralDecoder.Handler {
+
+		final int from;
+		final int to;
+		T[] values;
+		int size;
+		int index;
+
+		Collector(int from, int to) {
+			this.from = from;
+			this.to = to;
+			this.values = (T[]) Array.newInstance( componentClass, Math.max( 1, Math.min( 16, to - from ) ) );
+		}
+
+		@Override
+		public void element(CharSequence chars, int start, int end) {
+			if ( index >= from && index < to ) {
+				add( elementParser.parse( chars, start, end ) );
 			}
-			else if ( !inquote ) {
-				if ( Character.isWhitespace( c ) ) {
-					continue;
-				}
-				else if ( c == ',' ) {
-					// treat no-value between commas to mean null
-					if ( sb == null ) {
-						lst.add( null );
-					}
-					else {
-						sb = null;
-					}
-					continue;
-				}
-				else {
-					// i + 4, because there has to be a comma or closing brace after null
-					if ( i + 4 < len
-							&& string.charAt( i ) == 'n'
-							&& string.charAt( i + 1 ) == 'u'
-							&& string.charAt( i + 2 ) == 'l'
-							&& string.charAt( i + 3 ) == 'l') {
-						lst.add( null );
-						i += 4;
-						continue;
-					}
-					if (i + 1 == len) {
-						break;
-					}
-					throw new IllegalArgumentException( "Cannot parse given string into array of strings."
-							+ " Outside of quote, but neither whitespace, comma, array end, nor null found." );
-				}
+			index ++;
+		}
+
+		@Override
+		public void nullElement() {
+			if ( index >= from && index < to ) {
+				add( null );
 			}
-			else if ( c == '\\' && i + 2 < len && (string.charAt( i + 1 ) == '\\' || string.charAt( i + 1 ) == '"')) {
-				c = string.charAt( ++i );
+			index ++;
+		}
+
+		private void add(T value) {
+			if ( size == values.length ) {
+				values = java.util.Arrays.copyOf( values, size << 1 );
 			}
-			// If there is ever a null-pointer here, the if-else logic before is incomplete
-			sb.append( c );
+			values[ size ++ ] = value;
 		}
-		String[] objects = lst.toArray( new String[lst.size()] );
-		T[] result = (T[]) Array.newInstance( componentClass, lst.size() );
-		for ( int i = 0; i < result.length; i ++ ) {
-			result[ i ] = componentDescriptor.fromString( objects[ i ] );
+
+		T[] toArray() {
+			return size == values.length ? values : java.util.Arrays.copyOf( values, size );
 		}
-		return result;
+	}
+
+	/**
+	 * @param dialect The dialect of the session binding the value.
+	 * @return the plan for that dialect, resolving it only if the dialect changed
+	 */
+	private BindPlan bindPlan(Dialect dialect) {
+		BindPlan plan = bindPlan;
+		if ( plan == null || plan.dialect != dialect ) {
+			plan = BindPlan.resolve( dialect, sqlType, fixedTypeName );
+			bindPlan = plan;
+		}
+		return plan;
 	}
 
 	@Override
@@ -265,49 +590,38 @@ public class GenericArrayTypeDescriptor<T> extends AbstractTypeDescriptor<T[]> {
 		if ( value == null ) {
 			return null;
 		}
+		// inserts bind the snapshot Hibernate took of the entity state
+		value = resolve( value );
 
 		if ( java.sql.Array.class.isAssignableFrom( type ) ) {
-			Dialect sqlDialect;
-			Connection conn;
-			if (  ! ( options instanceof SessionImpl ) ) {
+			if (  ! ( options instanceof SharedSessionContractImplementor ) ) {
 				throw new IllegalStateException( "You can't handle the truth! I mean arrays..." );
 			}
-			SessionImpl sess = (SessionImpl) options;
-			sqlDialect = sess.getJdbcServices().getDialect();
-			Object[] unwrapped = new Object[value.length];
-			Class cls = value.getClass().getComponentType();
-			for (int i = 0; i < value.length; i++) {
-				unwrapped[i] = unwrapTo.isAssignableFrom( cls )
-						? value[i]
-						: componentDescriptor.unwrap( value[i], unwrapTo, options );
+			SharedSessionContractImplementor sess = (SharedSessionContractImplementor) options;
+			BindPlan plan = bindPlan( sess.getJdbcServices().getDialect() );
+			final Object event = beginEvent( ArrayEvents.BIND, value.length );
+			final long start = metrics == null ? 0L : System.nanoTime();
+			Object[] unwrapped = value;
+			if ( convertElements ) {
+				unwrapped = new Object[value.length];
+				for (int i = 0; i < value.length; i++) {
+					unwrapped[i] = componentDescriptor.unwrap( value[i], unwrapTo, options );
+				}
 			}
+			final long converted = metrics == null ? 0L : System.nanoTime();
 			try {
-				conn = sess.connection();
-				String typeName;
-				if ( skipTypeLookup ) {
-					typeName = sqlTypeName;
+				if ( unwrapTo == byte[].class && PgJdbcSupport.isPgConnection( sess.connection() ) ) {
+					unwrapped = PgJdbcSupport.encodeBytea( unwrapped );
 				}
-				else {
-					switch (sqlType) {
-						case Types.OTHER:
-							typeName = sqlTypeName;
-							break;
-						case Types.SQLXML:
-							typeName = "xml";
-							break;
-						default:
-							typeName = sqlDialect.getTypeName( sqlType );
-							LOGGER.tracef("Dialect getTypeName %d returned %s", sqlType, typeName);
-							break;
-					}
-					int cutIndex = typeName.indexOf( '(' );
-					if ( cutIndex > 0 ) {
-						// getTypeName for this case required length, etc, parameters.
-						// Cut them out and use database defaults.
-						typeName = typeName.substring( 0, cutIndex );
-					}
+				// drivers only read the elements, so the value itself can be passed when nothing is converted
+				X array = (X) sess.connection().createArrayOf( plan.typeName, unwrapped );
+				if ( metrics != null ) {
+					metrics.bound( getJavaTypeClass(), value.length, converted - start, System.nanoTime() - converted );
 				}
-				return (X) conn.createArrayOf( typeName, unwrapped );
+				if ( event != null ) {
+					ArrayEvents.end( event, value.length );
+				}
+				return array;
 			}
 			catch ( SQLException ex ) {
 				// This basically shouldn't happen unless you've lost connection to the database.
@@ -320,31 +634,37 @@ public class GenericArrayTypeDescriptor<T> extends AbstractTypeDescriptor<T[]> {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public <X> T[] wrap(X value, WrapperOptions options) {
 		// function used for ResultSet extraction
 
 		if ( value == null ) {
 			return null;
 		}
+		// the length is only known afterwards, so events are only created while a recording wants them
+		final boolean events = eventThreshold > 0 && ArrayEvents.isEnabled( ArrayEvents.EXTRACT );
+		if ( metrics == null && ! events ) {
+			return wrapValue( value, options );
+		}
+		final Object event = events ? ArrayEvents.begin( ArrayEvents.EXTRACT, getJavaTypeClass() ) : null;
+		final long start = metrics == null ? 0L : System.nanoTime();
+		T[] wrapped = wrapValue( value, options );
+		final int elements = wrapped == null ? 0 : wrapped.length;
+		if ( metrics != null ) {
+			metrics.extracted( getJavaTypeClass(), elements, System.nanoTime() - start );
+		}
+		if ( event != null && elements >= eventThreshold ) {
+			ArrayEvents.end( event, elements );
+		}
+		return wrapped;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <X> T[] wrapValue(X value, WrapperOptions options) {
 
 		Class cls = value.getClass();
 
 		if ( cls.isArray() ) {
-			if ( componentClass.isAssignableFrom( cls.getComponentType() ) ) {
-				Object[] raw = (Object[]) value;
-				T[] wrapped = (T[]) java.lang.reflect.Array.newInstance( componentClass, raw.length );
-				for (int i = 0; i < raw.length; i++) {
-					wrapped[i] = (T) raw[i];
-				}
-				return wrapped;
-			}
-			Object[] raw = (Object[]) value;
-			T[] wrapped = (T[]) java.lang.reflect.Array.newInstance( componentClass, raw.length );
-			for (int i = 0; i < raw.length; i++) {
-				wrapped[i] = componentDescriptor.wrap( raw[i], options );
-			}
-			return wrapped;
+			return fromRaw( (Object[]) value, options );
 		}
 
 		if (  ! ( value instanceof java.sql.Array ) ) {
@@ -352,16 +672,19 @@ public class GenericArrayTypeDescriptor<T> extends AbstractTypeDescriptor<T[]> {
 		}
 
 		java.sql.Array original = (java.sql.Array) value;
+		if ( readsServerText ) {
+			String literal = PgJdbcSupport.textOf( original );
+			if ( literal != null ) {
+				// parse straight into T, skipping the driver's boxed elements
+				return fromString( literal );
+			}
+		}
 		try {
 			Object[] raw = (Object[]) original.getArray();
 			if (raw == null) {
 				return null;
 			}
-			T[] wrapped = (T[]) java.lang.reflect.Array.newInstance( componentClass, raw.length );
-			for (int i = 0; i < raw.length; i++) {
-				wrapped[i] = componentDescriptor.wrap( raw[i], options );
-			}
-			return (T[]) wrapped;
+			return fromRaw( PgJdbcSupport.decodeBytea( raw ), options );
 		}
 		catch ( SQLException ex ) {
 			// This basically shouldn't happen unless you've lost connection to the database.
@@ -369,4 +692,29 @@ public class GenericArrayTypeDescriptor<T> extends AbstractTypeDescriptor<T[]> {
 			throw new HibernateException( ex );
 		}
 	}
+
+	/**
+	 * Converts an array supplied by the driver, copying only when it has to.
+	 *
+	 * @param raw The driver's array.
+	 * @param options Options for converting the elements.
+	 * @return the same array if it is already {@code T[]}, otherwise a copy
+	 */
+	@SuppressWarnings("unchecked")
+	private T[] fromRaw(Object[] raw, WrapperOptions options) {
+		Class<?> rawClass = raw.getClass();
+		if ( rawClass == getJavaTypeClass() ) {
+			// drivers return a new array on every call, so it can be adopted
+			return (T[]) raw;
+		}
+		if ( componentClass.isAssignableFrom( rawClass.getComponentType() ) ) {
+			// array of a subclass, only the array type differs
+			return java.util.Arrays.copyOf( raw, raw.length, getJavaTypeClass() );
+		}
+		T[] wrapped = (T[]) Array.newInstance( componentClass, raw.length );
+		for (int i = 0; i < raw.length; i++) {
+			wrapped[i] = componentDescriptor.wrap( raw[i], options );
+		}
+		return wrapped;
+	}
 }
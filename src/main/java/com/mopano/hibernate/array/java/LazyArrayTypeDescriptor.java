@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.LazyArray;
+import com.mopano.hibernate.array.sql.PgJdbcSupport;
+
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+import org.hibernate.type.descriptor.java.ImmutableMutabilityPlan;
+
+/**
+ * {@link LazyArray} values. Where the driver gives the server's text, it is kept as it is.
+ * Other drivers, and element types that are not parsed from text, get a fully loaded array.
+ * Values are immutable, so dirty checking only compares references.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+@SuppressWarnings("unchecked")
+public class LazyArrayTypeDescriptor<T> extends AbstractTypeDescriptor<LazyArray<T>> {
+
+	private final GenericArrayTypeDescriptor<T> arrayDescriptor;
+
+	public LazyArrayTypeDescriptor(GenericArrayTypeDescriptor<T> arrayDescriptor) {
+		super( (Class) LazyArray.class, ImmutableMutabilityPlan.INSTANCE );
+		this.arrayDescriptor = arrayDescriptor;
+	}
+
+	public GenericArrayTypeDescriptor<T> getArrayDescriptor() {
+		return arrayDescriptor;
+	}
+
+	@Override
+	public boolean areEqual(LazyArray<T> one, LazyArray<T> another) {
+		if ( one == another ) {
+			return true;
+		}
+		if ( one == null || another == null ) {
+			return false;
+		}
+		if ( one.getLiteral() != null && one.getLiteral().equals( another.getLiteral() ) ) {
+			return true;
+		}
+		return arrayDescriptor.areEqual( one.toArray(), another.toArray() );
+	}
+
+	@Override
+	public int extractHashCode(LazyArray<T> value) {
+		return arrayDescriptor.extractHashCode( value.toArray() );
+	}
+
+	@Override
+	public String toString(LazyArray<T> value) {
+		if ( value == null ) {
+			return null;
+		}
+		return value.getLiteral() != null ? value.getLiteral() : arrayDescriptor.toString( value.toArray() );
+	}
+
+	@Override
+	public LazyArray<T> fromString(String string) {
+		return string == null ? null : new LazyArray<>( arrayDescriptor, string );
+	}
+
+	@Override
+	public <X> X unwrap(LazyArray<T> value, Class<X> type, WrapperOptions options) {
+		if ( value == null ) {
+			return null;
+		}
+		if ( type.isInstance( value ) ) {
+			return (X) value;
+		}
+		if ( String.class == type ) {
+			return (X) toString( value );
+		}
+		return arrayDescriptor.unwrap( value.toArray(), type, options );
+	}
+
+	@Override
+	public <X> LazyArray<T> wrap(X value, WrapperOptions options) {
+		if ( value == null ) {
+			return null;
+		}
+		if ( value instanceof LazyArray ) {
+			return (LazyArray<T>) value;
+		}
+		if ( arrayDescriptor.readsServerText() && value instanceof java.sql.Array ) {
+			String literal = PgJdbcSupport.textOf( (java.sql.Array) value );
+			if ( literal != null ) {
+				return new LazyArray<>( arrayDescriptor, literal );
+			}
+		}
+		return LazyArray.of( arrayDescriptor.wrap( value, options ) );
+	}
+}
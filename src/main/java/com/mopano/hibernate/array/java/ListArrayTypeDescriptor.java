@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.TrackedList;
+
+import java.util.List;
+
+/**
+ * Lists stored in array columns, loaded as {@link TrackedList}.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+public class ListArrayTypeDescriptor<T> extends CollectionArrayTypeDescriptor<List<T>, T> {
+
+	@SuppressWarnings("unchecked")
+	public ListArrayTypeDescriptor(GenericArrayTypeDescriptor<T> arrayDescriptor) {
+		super( (Class) List.class, arrayDescriptor );
+	}
+
+	@Override
+	protected List<T> newCollection(T[] elements) {
+		return TrackedList.wrap( elements );
+	}
+
+	@Override
+	protected boolean contentsEqual(List<T> one, List<T> another) {
+		return one.size() == another.size() && getArrayDescriptor().areEqual( toArray( one ), toArray( another ) );
+	}
+
+	@Override
+	public int extractHashCode(List<T> value) {
+		return getArrayDescriptor().extractHashCode( toArray( value ) );
+	}
+}
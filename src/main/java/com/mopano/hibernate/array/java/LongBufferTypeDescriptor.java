@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.sql.PgBinaryArrays;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.sql.Types;
+
+/**
+ * Descriptor for {@link LongBuffer} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class LongBufferTypeDescriptor extends BufferArrayTypeDescriptor<LongBuffer> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final LongBufferTypeDescriptor INSTANCE = new LongBufferTypeDescriptor();
+
+	public LongBufferTypeDescriptor() {
+		super( LongBuffer.class, 7, 8, Types.BIGINT, PgBinaryArrays.INT8 );
+	}
+
+	@Override
+	protected LongBuffer view(ByteBuffer bytes) {
+		return bytes.asLongBuffer();
+	}
+
+	@Override
+	protected void copy(LongBuffer source, LongBuffer target) {
+		target.put( source.duplicate() );
+		target.flip();
+	}
+
+	@Override
+	protected LongBuffer rewound(LongBuffer value) {
+		LongBuffer whole = value.duplicate();
+		whole.rewind();
+		return whole;
+	}
+
+	@Override
+	protected void appendElements(LongBuffer value, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = value.position(); i < value.limit(); i ++ ) {
+			if ( i > value.position() ) {
+				out.append( ',' );
+			}
+			ArrayLiteralEncoder.appendLong( out, value.get( i ) );
+		}
+		out.append( '}' );
+	}
+
+	@Override
+	protected void put(CharSequence chars, int start, int end, LongBuffer target) {
+		target.put( ElementParsers.parseLong( chars, start, end ) );
+	}
+
+	@Override
+	protected void put(Number element, LongBuffer target) {
+		target.put( element.longValue() );
+	}
+
+	@Override
+	protected Serializable toPrimitives(LongBuffer value) {
+		long[] result = new long[value.remaining()];
+		value.duplicate().get( result );
+		return result;
+	}
+
+	@Override
+	protected LongBuffer fromPrimitives(Serializable primitives) {
+		long[] values = (long[]) primitives;
+		LongBuffer target = allocate( values.length );
+		target.put( values );
+		target.flip();
+		return target;
+	}
+
+	@Override
+	protected Object[] toElements(LongBuffer value) {
+		Long[] boxed = new Long[value.remaining()];
+		for ( int i = 0; i < boxed.length; i ++ ) {
+			boxed[ i ] = value.get( value.position() + i );
+		}
+		return boxed;
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.LongMultiArray;
+import com.mopano.hibernate.array.sql.PgBinaryArrays;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Descriptor for {@link LongMultiArray} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class LongMultiArrayTypeDescriptor extends MultiArrayTypeDescriptor<LongMultiArray> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final LongMultiArrayTypeDescriptor INSTANCE = new LongMultiArrayTypeDescriptor();
+
+	public LongMultiArrayTypeDescriptor() {
+		super( LongMultiArray.class, 7, Types.BIGINT, PgBinaryArrays.INT8 );
+	}
+
+	@Override
+	public boolean areEqual(LongMultiArray one, LongMultiArray another) {
+		return one == another || one != null && one.equals( another );
+	}
+
+	@Override
+	public int extractHashCode(LongMultiArray value) {
+		return value.hashCode();
+	}
+
+	@Override
+	protected void appendElement(Appendable out, LongMultiArray value, int index) throws IOException {
+		ArrayLiteralEncoder.appendLong( out, value.getData()[ index ] );
+	}
+
+	@Override
+	protected Object dataOf(LongMultiArray value) {
+		return value.getData();
+	}
+
+	@Override
+	protected FlatCollector<LongMultiArray> newCollector() {
+		return new FlatCollector<LongMultiArray>() {
+
+			long[] values = new long[16];
+
+			private void add(long value) {
+				if ( size == values.length ) {
+					values = Arrays.copyOf( values, size << 1 );
+				}
+				values[ size ++ ] = value;
+			}
+
+			@Override
+			protected void add(CharSequence chars, int start, int end) {
+				add( ElementParsers.parseLong( chars, start, end ) );
+			}
+
+			@Override
+			protected void add(Number value) {
+				add( value.longValue() );
+			}
+
+			@Override
+			protected LongMultiArray build(int[] dimensions) {
+				return new LongMultiArray( size == values.length ? values : Arrays.copyOf( values, size ), dimensions );
+			}
+		};
+	}
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.MultiArray;
+import com.mopano.hibernate.array.sql.PgBinaryArrays;
+import com.mopano.hibernate.array.sql.PgJdbcSupport;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.HibernateException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+import org.hibernate.type.descriptor.java.MutableMutabilityPlan;
+
+/**
+ * Base for {@link MultiArray} types. With PgJDBC the flat data is bound as a binary array and read
+ * from the server's text, so no array is created per row. Other drivers get nested arrays of objects.
+ * Empty arrays are read back with a single dimension of length 0, as PostgreSQL keeps no dimensions for them.
+ *
+ * @author Yordan Gigov
+ * @param <M> multi-dimensional array type
+ */
+@SuppressWarnings("unchecked")
+public abstract class MultiArrayTypeDescriptor<M extends MultiArray> extends AbstractTypeDescriptor<M> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int elementLength;
+	private final int sqlType;
+	private final int elementOid;
+	private transient volatile BindPlan bindPlan;
+
+	/**
+	 * @param type Multi-dimensional array class.
+	 * @param elementLength Typical number of characters of one element in a literal.
+	 * @param sqlType JDBC type of the elements.
+	 * @param elementOid PostgreSQL type OID of the elements, as in {@link PgBinaryArrays}.
+	 */
+	protected MultiArrayTypeDescriptor(Class<M> type, int elementLength, int sqlType, int elementOid) {
+		super( type, new MutableMutabilityPlan<M>() {
+			@Override
+			protected M deepCopyNotNull(M value) {
+				return (M) value.copy();
+			}
+		} );
+		this.elementLength = elementLength;
+		this.sqlType = sqlType;
+		this.elementOid = elementOid;
+	}
+
+	/**
+	 * Writes one element of the flat data.
+	 *
+	 * @param out Destination.
+	 * @param value The array.
+	 * @param index Position in the flat data.
+	 * @throws IOException if the destination throws it
+	 */
+	protected abstract void appendElement(Appendable out, M value, int index) throws IOException;
+
+	/**
+	 * @param value The array.
+	 * @return the flat primitive data
+	 */
+	protected abstract Object dataOf(M value);
+
+	/**
+	 * @return a collector for the elements of a new array
+	 */
+	protected abstract FlatCollector<M> newCollector();
+
+	/**
+	 * Writes the value as a nested array literal, such as {@code {{1,2},{3,4}}}.
+	 *
+	 * @param value Array to write. Must not be null.
+	 * @param out Destination.
+	 * @throws IOException if the destination throws it
+	 */
+	public void appendTo(M value, Appendable out) throws IOException {
+		appendLevel( value, out, 0, 0 );
+	}
+
+	private int appendLevel(M value, Appendable out, int dimension, int index) throws IOException {
+		final int length = value.getDimension( dimension );
+		final boolean innermost = dimension == value.getDimensionCount() - 1;
+		out.append( '{' );
+		for ( int i = 0; i < length; i ++ ) {
+			if ( i > 0 ) {
+				out.append( ',' );
+			}
+			if ( innermost ) {
+				appendElement( out, value, index ++ );
+			}
+			else {
+				index = appendLevel( value, out, dimension + 1, index );
+			}
+		}
+		out.append( '}' );
+		return index;
+	}
+
+	@Override
+	public String toString(M value) {
+		if ( value == null ) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder( ArrayLiteralEncoder.estimateLength( value.size(), elementLength ) );
+		try {
+			appendTo( value, sb );
+		}
+		catch ( IOException ex ) {
+			// StringBuilder does not throw it
+			throw new HibernateException( ex );
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Parses a nested literal of unquoted numbers straight into the flat data.
+	 * Dimension decoration, such as {@code [1:2][1:3]=}, is skipped.
+	 */
+	@Override
+	public M fromString(String string) {
+		if ( string == null ) {
+			return null;
+		}
+		final int len = string.length();
+		int pos = string.indexOf( '{' );
+		if ( pos < 0 ) {
+			throw new IllegalArgumentException( "Not an array literal: " + string );
+		}
+		int ndim = 0;
+		for ( int i = pos; i < len; i ++ ) {
+			char c = string.charAt( i );
+			if ( c == '{' ) {
+				ndim ++;
+			}
+			else if ( ! Character.isWhitespace( c ) ) {
+				break;
+			}
+		}
+		final int[] dimensions = new int[ndim];
+		java.util.Arrays.fill( dimensions, -1 );
+		final int[] counts = new int[ndim];
+		final FlatCollector<M> collector = newCollector();
+		int depth = 0;
+		while ( pos < len ) {
+			char c = string.charAt( pos );
+			if ( c == '{' ) {
+				if ( depth == ndim ) {
+					throw new IllegalArgumentException( "Array literal is not rectangular: " + string );
+				}
+				counts[ depth ++ ] = 0;
+				pos ++;
+			}
+			else if ( c == '}' ) {
+				final int n = counts[ -- depth ];
+				if ( dimensions[ depth ] < 0 ) {
+					dimensions[ depth ] = n;
+				}
+				else if ( dimensions[ depth ] != n ) {
+					throw new IllegalArgumentException( "Array literal is not rectangular: " + string );
+				}
+				pos ++;
+				if ( depth == 0 ) {
+					break;
+				}
+				counts[ depth - 1 ] ++;
+			}
+			else if ( c == ',' || Character.isWhitespace( c ) ) {
+				pos ++;
+			}
+			else {
+				if ( depth != ndim ) {
+					throw new IllegalArgumentException( "Array literal is not rectangular: " + string );
+				}
+				int start = pos;
+				int end;
+				if ( c == '"' ) {
+					start ++;
+					end = string.indexOf( '"', start );
+					if ( end < 0 ) {
+						throw new IllegalArgumentException( "Unterminated quote in array literal: " + string );
+					}
+					pos = end + 1;
+				}
+				else {
+					while ( pos < len && ( c = string.charAt( pos ) ) != ',' && c != '}' && ! Character.isWhitespace( c ) ) {
+						pos ++;
+					}
+					end = pos;
+					if ( end - start == 4 && string.regionMatches( true, start, "NULL", 0, 4 ) ) {
+						throw new IllegalArgumentException( "Multi-dimensional array cannot hold a null" );
+					}
+				}
+				collector.add( string, start, end );
+				counts[ depth - 1 ] ++;
+			}
+		}
+		if ( depth != 0 ) {
+			throw new IllegalArgumentException( "Unterminated array literal: " + string );
+		}
+		return collector.build( dimensions );
+	}
+
+	/**
+	 * @param nested Rectangular nested arrays of numbers, as returned by drivers.
+	 * @return the flattened array
+	 */
+	protected M fromNested(Object nested) {
+		List<Integer> dims = new ArrayList<>();
+		Object level = nested;
+		while ( level != null && level.getClass().isArray() ) {
+			int length = Array.getLength( level );
+			dims.add( length );
+			if ( length == 0 ) {
+				break;
+			}
+			level = Array.get( level, 0 );
+		}
+		int[] dimensions = new int[dims.size()];
+		for ( int i = 0; i < dimensions.length; i ++ ) {
+			dimensions[ i ] = dims.get( i );
+		}
+		FlatCollector<M> collector = newCollector();
+		flatten( nested, dimensions, 0, collector );
+		return collector.build( dimensions );
+	}
+
+	private static void flatten(Object level, int[] dimensions, int dimension, FlatCollector<?> collector) {
+		if ( level == null || ! level.getClass().isArray() || Array.getLength( level ) != dimensions[ dimension ] ) {
+			throw new HibernateException( "Nested arrays are not rectangular" );
+		}
+		final boolean innermost = dimension == dimensions.length - 1;
+		for ( int i = 0; i < dimensions[ dimension ]; i ++ ) {
+			Object element = Array.get( level, i );
+			if ( ! innermost ) {
+				flatten( element, dimensions, dimension + 1, collector );
+			}
+			else if ( element instanceof Number ) {
+				collector.add( (Number) element );
+			}
+			else {
+				throw new HibernateException( "Multi-dimensional array cannot hold " + element );
+			}
+		}
+	}
+
+	/**
+	 * @param value The array.
+	 * @return nested arrays of boxed elements, for drivers that need them
+	 */
+	private Object[] toNested(M value) {
+		Object data = dataOf( value );
+		Object[] nested = new Object[value.getDimension( 0 )];
+		toNested( value, data, nested, 0, 0 );
+		return nested;
+	}
+
+	private static int toNested(MultiArray value, Object data, Object[] level, int dimension, int index) {
+		final boolean innermost = dimension == value.getDimensionCount() - 1;
+		for ( int i = 0; i < level.length; i ++ ) {
+			if ( innermost ) {
+				level[ i ] = Array.get( data, index ++ );
+			}
+			else {
+				Object[] sub = new Object[value.getDimension( dimension + 1 )];
+				index = toNested( value, data, sub, dimension + 1, index );
+				level[ i ] = sub;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * @param dialect The dialect of the session binding the value.
+	 * @return the plan for that dialect, resolving it only if the dialect changed
+	 */
+	private BindPlan bindPlan(Dialect dialect) {
+		BindPlan plan = bindPlan;
+		if ( plan == null || plan.dialect != dialect ) {
+			plan = BindPlan.resolve( dialect, sqlType, null );
+			bindPlan = plan;
+		}
+		return plan;
+	}
+
+	@Override
+	public <X> X unwrap(M value, Class<X> type, WrapperOptions options) {
+		// function used for PreparedStatement binding
+
+		if ( value == null ) {
+			return null;
+		}
+
+		if ( getJavaTypeClass().isAssignableFrom( type ) ) {
+			return (X) value;
+		}
+
+		if ( String.class.isAssignableFrom( type ) ) {
+			return (X) toString( value );
+		}
+
+		if ( java.sql.Array.class.isAssignableFrom( type ) ) {
+			if (  ! ( options instanceof SharedSessionContractImplementor ) ) {
+				throw new IllegalStateException( "You can't handle the truth! I mean arrays..." );
+			}
+			SharedSessionContractImplementor sess = (SharedSessionContractImplementor) options;
+			try {
+				Connection conn = sess.connection();
+				if ( value.size() > 0 && PgJdbcSupport.isPgConnection( conn ) ) {
+					// the flat data goes into the binary format as it is
+					return (X) PgBinaryArrays.create( conn, elementOid, value.getDimensions(), dataOf( value ) );
+				}
+				return (X) conn.createArrayOf( bindPlan( sess.getJdbcServices().getDialect() ).typeName, toNested( value ) );
+			}
+			catch ( SQLException ex ) {
+				throw new HibernateException( ex );
+			}
+		}
+
+		throw unknownUnwrap( type );
+	}
+
+	@Override
+	public <X> M wrap(X value, WrapperOptions options) {
+		// function used for ResultSet extraction
+
+		if ( value == null ) {
+			return null;
+		}
+
+		if ( getJavaTypeClass().isInstance( value ) ) {
+			return (M) value;
+		}
+
+		if ( value.getClass().isArray() ) {
+			return fromNested( value );
+		}
+
+		if ( value instanceof String ) {
+			return fromString( (String) value );
+		}
+
+		if (  ! ( value instanceof java.sql.Array ) ) {
+			throw unknownWrap( value.getClass() );
+		}
+
+		String literal = PgJdbcSupport.textOf( (java.sql.Array) value );
+		if ( literal != null ) {
+			// parse straight into the flat data
+			return fromString( literal );
+		}
+		try {
+			Object raw = ( (java.sql.Array) value ).getArray();
+			return raw == null ? null : fromNested( raw );
+		}
+		catch ( SQLException ex ) {
+			// This basically shouldn't happen unless you've lost connection to the database.
+			throw new HibernateException( ex );
+		}
+	}
+
+	/**
+	 * Collects elements into flat data, in row-major order.
+	 *
+	 * @param <M> multi-dimensional array type
+	 */
+	protected abstract static class FlatCollector<M> {
+
+		protected int size;
+
+		/**
+		 * Adds an element parsed from a literal.
+		 *
+		 * @param chars Text holding the element.
+		 * @param start Start of the element.
+		 * @param end End of the element, exclusive.
+		 */
+		protected abstract void add(CharSequence chars, int start, int end);
+
+		/**
+		 * Adds an element read from a driver array.
+		 *
+		 * @param value The element.
+		 */
+		protected abstract void add(Number value);
+
+		/**
+		 * @param dimensions Length of each dimension.
+		 * @return the array
+		 */
+		protected abstract M build(int[] dimensions);
+	}
+}
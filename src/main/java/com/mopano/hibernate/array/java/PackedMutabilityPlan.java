@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.hibernate.type.descriptor.java.MutabilityPlan;
+
+/**
+ * Mutability plan for arrays of immutable elements, which puts a packed form of the array
+ * in the second-level cache instead of a copy of the boxed elements.
+ * Numbers go into a primitive array, UUIDs into pairs of longs, dates and times into
+ * epoch based values and strings into one UTF-8 byte array, each prefixed by its length.
+ * Nulls are kept in a bitmap.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+abstract class PackedMutabilityPlan<T> implements MutabilityPlan<T[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final PackedMutabilityPlan<Long> LONG = new PackedMutabilityPlan<Long>() {
+		@Override
+		Packed pack(Long[] value) {
+			long[] packed = new long[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					packed[ i ] = value[ i ];
+				}
+			}
+			return new Packed( value, packed, null );
+		}
+
+		@Override
+		Long[] unpack(Packed packed) {
+			long[] values = (long[]) packed.values;
+			Long[] array = new Long[values.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = values[ i ];
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<Integer> INTEGER = new PackedMutabilityPlan<Integer>() {
+		@Override
+		Packed pack(Integer[] value) {
+			int[] packed = new int[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					packed[ i ] = value[ i ];
+				}
+			}
+			return new Packed( value, packed, null );
+		}
+
+		@Override
+		Integer[] unpack(Packed packed) {
+			int[] values = (int[]) packed.values;
+			Integer[] array = new Integer[values.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = values[ i ];
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<Short> SHORT = new PackedMutabilityPlan<Short>() {
+		@Override
+		Packed pack(Short[] value) {
+			short[] packed = new short[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					packed[ i ] = value[ i ];
+				}
+			}
+			return new Packed( value, packed, null );
+		}
+
+		@Override
+		Short[] unpack(Packed packed) {
+			short[] values = (short[]) packed.values;
+			Short[] array = new Short[values.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = values[ i ];
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<Double> DOUBLE = new PackedMutabilityPlan<Double>() {
+		@Override
+		Packed pack(Double[] value) {
+			double[] packed = new double[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					packed[ i ] = value[ i ];
+				}
+			}
+			return new Packed( value, packed, null );
+		}
+
+		@Override
+		Double[] unpack(Packed packed) {
+			double[] values = (double[]) packed.values;
+			Double[] array = new Double[values.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = values[ i ];
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<Float> FLOAT = new PackedMutabilityPlan<Float>() {
+		@Override
+		Packed pack(Float[] value) {
+			float[] packed = new float[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					packed[ i ] = value[ i ];
+				}
+			}
+			return new Packed( value, packed, null );
+		}
+
+		@Override
+		Float[] unpack(Packed packed) {
+			float[] values = (float[]) packed.values;
+			Float[] array = new Float[values.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = values[ i ];
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<Boolean> BOOLEAN = new PackedMutabilityPlan<Boolean>() {
+		@Override
+		Packed pack(Boolean[] value) {
+			long[] bits = new long[( value.length + 63 ) >>> 6];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null && value[ i ] ) {
+					bits[ i >>> 6 ] |= 1L << i;
+				}
+			}
+			return new Packed( value, bits, new int[]{ value.length } );
+		}
+
+		@Override
+		Boolean[] unpack(Packed packed) {
+			long[] bits = (long[]) packed.values;
+			Boolean[] array = new Boolean[packed.extra[ 0 ]];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = ( bits[ i >>> 6 ] & 1L << i ) != 0;
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<UUID> UUID_PLAN = new PackedMutabilityPlan<UUID>() {
+		@Override
+		Packed pack(UUID[] value) {
+			long[] packed = new long[value.length << 1];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					packed[ i << 1 ] = value[ i ].getMostSignificantBits();
+					packed[ ( i << 1 ) + 1 ] = value[ i ].getLeastSignificantBits();
+				}
+			}
+			return new Packed( value, packed, null );
+		}
+
+		@Override
+		UUID[] unpack(Packed packed) {
+			long[] values = (long[]) packed.values;
+			UUID[] array = new UUID[values.length >>> 1];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = new UUID( values[ i << 1 ], values[ ( i << 1 ) + 1 ] );
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<Instant> INSTANT = new PackedMutabilityPlan<Instant>() {
+		@Override
+		Packed pack(Instant[] value) {
+			long[] seconds = new long[value.length];
+			int[] nanos = new int[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					seconds[ i ] = value[ i ].getEpochSecond();
+					nanos[ i ] = value[ i ].getNano();
+				}
+			}
+			return new Packed( value, seconds, nanos );
+		}
+
+		@Override
+		Instant[] unpack(Packed packed) {
+			long[] seconds = (long[]) packed.values;
+			Instant[] array = new Instant[seconds.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = Instant.ofEpochSecond( seconds[ i ], packed.extra[ i ] );
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<Duration> DURATION = new PackedMutabilityPlan<Duration>() {
+		@Override
+		Packed pack(Duration[] value) {
+			long[] seconds = new long[value.length];
+			int[] nanos = new int[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					seconds[ i ] = value[ i ].getSeconds();
+					nanos[ i ] = value[ i ].getNano();
+				}
+			}
+			return new Packed( value, seconds, nanos );
+		}
+
+		@Override
+		Duration[] unpack(Packed packed) {
+			long[] seconds = (long[]) packed.values;
+			Duration[] array = new Duration[seconds.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = Duration.ofSeconds( seconds[ i ], packed.extra[ i ] );
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<LocalDateTime> LOCAL_DATE_TIME = new PackedMutabilityPlan<LocalDateTime>() {
+		@Override
+		Packed pack(LocalDateTime[] value) {
+			long[] seconds = new long[value.length];
+			int[] nanos = new int[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					seconds[ i ] = value[ i ].toEpochSecond( ZoneOffset.UTC );
+					nanos[ i ] = value[ i ].getNano();
+				}
+			}
+			return new Packed( value, seconds, nanos );
+		}
+
+		@Override
+		LocalDateTime[] unpack(Packed packed) {
+			long[] seconds = (long[]) packed.values;
+			LocalDateTime[] array = new LocalDateTime[seconds.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = LocalDateTime.ofEpochSecond( seconds[ i ], packed.extra[ i ], ZoneOffset.UTC );
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<LocalDate> LOCAL_DATE = new PackedMutabilityPlan<LocalDate>() {
+		@Override
+		Packed pack(LocalDate[] value) {
+			long[] days = new long[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					days[ i ] = value[ i ].toEpochDay();
+				}
+			}
+			return new Packed( value, days, null );
+		}
+
+		@Override
+		LocalDate[] unpack(Packed packed) {
+			long[] days = (long[]) packed.values;
+			LocalDate[] array = new LocalDate[days.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = LocalDate.ofEpochDay( days[ i ] );
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<LocalTime> LOCAL_TIME = new PackedMutabilityPlan<LocalTime>() {
+		@Override
+		Packed pack(LocalTime[] value) {
+			long[] nanos = new long[value.length];
+			for ( int i = 0; i < value.length; i ++ ) {
+				if ( value[ i ] != null ) {
+					nanos[ i ] = value[ i ].toNanoOfDay();
+				}
+			}
+			return new Packed( value, nanos, null );
+		}
+
+		@Override
+		LocalTime[] unpack(Packed packed) {
+			long[] nanos = (long[]) packed.values;
+			LocalTime[] array = new LocalTime[nanos.length];
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					array[ i ] = LocalTime.ofNanoOfDay( nanos[ i ] );
+				}
+			}
+			return array;
+		}
+	};
+
+	private static final PackedMutabilityPlan<String> STRING = new PackedMutabilityPlan<String>() {
+		@Override
+		Packed pack(String[] value) {
+			long size = 0;
+			for ( String v : value ) {
+				if ( v != null ) {
+					int l = utf8Length( v );
+					size += l + varIntLength( l );
+				}
+			}
+			byte[] blob = new byte[Math.toIntExact( size )];
+			int pos = 0;
+			for ( String v : value ) {
+				if ( v != null ) {
+					pos = writeUtf8( v, blob, writeVarInt( utf8Length( v ), blob, pos ) );
+				}
+			}
+			return new Packed( value, blob, new int[]{ value.length } );
+		}
+
+		@Override
+		String[] unpack(Packed packed) {
+			byte[] blob = (byte[]) packed.values;
+			String[] array = new String[packed.extra[ 0 ]];
+			int pos = 0;
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( ! packed.isNull( i ) ) {
+					int length = 0;
+					for ( int shift = 0; ; shift += 7 ) {
+						byte b = blob[ pos ++ ];
+						length |= ( b & 0x7F ) << shift;
+						if ( b >= 0 ) {
+							break;
+						}
+					}
+					array[ i ] = new String( blob, pos, length, StandardCharsets.UTF_8 );
+					pos += length;
+				}
+			}
+			return array;
+		}
+	};
+
+	/**
+	 * @param <T> element type
+	 * @param componentClass Java class of the elements.
+	 * @return the plan for the class, or null if it has no packed form
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> PackedMutabilityPlan<T> forClass(Class<T> componentClass) {
+		final PackedMutabilityPlan<?> plan;
+		if ( componentClass == Long.class ) {
+			plan = LONG;
+		}
+		else if ( componentClass == Integer.class ) {
+			plan = INTEGER;
+		}
+		else if ( componentClass == Short.class ) {
+			plan = SHORT;
+		}
+		else if ( componentClass == Double.class ) {
+			plan = DOUBLE;
+		}
+		else if ( componentClass == Float.class ) {
+			plan = FLOAT;
+		}
+		else if ( componentClass == Boolean.class ) {
+			plan = BOOLEAN;
+		}
+		else if ( componentClass == UUID.class ) {
+			plan = UUID_PLAN;
+		}
+		else if ( componentClass == String.class ) {
+			plan = STRING;
+		}
+		else if ( componentClass == Instant.class ) {
+			plan = INSTANT;
+		}
+		else if ( componentClass == Duration.class ) {
+			plan = DURATION;
+		}
+		else if ( componentClass == LocalDateTime.class ) {
+			plan = LOCAL_DATE_TIME;
+		}
+		else if ( componentClass == LocalDate.class ) {
+			plan = LOCAL_DATE;
+		}
+		else if ( componentClass == LocalTime.class ) {
+			plan = LOCAL_TIME;
+		}
+		else {
+			// zoned and offset times keep their zone objects, other types are unknown
+			plan = null;
+		}
+		return (PackedMutabilityPlan<T>) plan;
+	}
+
+	/**
+	 * @return number of bytes {@link #writeUtf8(java.lang.String, byte[], int)} writes for the string
+	 */
+	private static int utf8Length(String s) {
+		final int l = s.length();
+		int bytes = l;
+		for ( int i = 0; i < l; i ++ ) {
+			char c = s.charAt( i );
+			if ( c >= 0x800 ) {
+				if ( Character.isHighSurrogate( c ) && i + 1 < l && Character.isLowSurrogate( s.charAt( i + 1 ) ) ) {
+					// four bytes for the pair
+					bytes += 2;
+					i ++;
+				}
+				else if ( ! Character.isSurrogate( c ) ) {
+					bytes += 2;
+				}
+			}
+			else if ( c >= 0x80 ) {
+				bytes ++;
+			}
+		}
+		return bytes;
+	}
+
+	private static int writeUtf8(String s, byte[] blob, int pos) {
+		final int l = s.length();
+		for ( int i = 0; i < l; i ++ ) {
+			char c = s.charAt( i );
+			if ( c < 0x80 ) {
+				blob[ pos ++ ] = (byte) c;
+			}
+			else if ( c < 0x800 ) {
+				blob[ pos ++ ] = (byte) ( 0xC0 | c >> 6 );
+				blob[ pos ++ ] = (byte) ( 0x80 | c & 0x3F );
+			}
+			else if ( Character.isHighSurrogate( c ) && i + 1 < l && Character.isLowSurrogate( s.charAt( i + 1 ) ) ) {
+				int cp = Character.toCodePoint( c, s.charAt( ++ i ) );
+				blob[ pos ++ ] = (byte) ( 0xF0 | cp >> 18 );
+				blob[ pos ++ ] = (byte) ( 0x80 | cp >> 12 & 0x3F );
+				blob[ pos ++ ] = (byte) ( 0x80 | cp >> 6 & 0x3F );
+				blob[ pos ++ ] = (byte) ( 0x80 | cp & 0x3F );
+			}
+			else if ( Character.isSurrogate( c ) ) {
+				// unpaired, replaced like String.getBytes does
+				blob[ pos ++ ] = '?';
+			}
+			else {
+				blob[ pos ++ ] = (byte) ( 0xE0 | c >> 12 );
+				blob[ pos ++ ] = (byte) ( 0x80 | c >> 6 & 0x3F );
+				blob[ pos ++ ] = (byte) ( 0x80 | c & 0x3F );
+			}
+		}
+		return pos;
+	}
+
+	private static int varIntLength(int value) {
+		return value < 0x80 ? 1 : value < 0x4000 ? 2 : value < 0x200000 ? 3 : value < 0x10000000 ? 4 : 5;
+	}
+
+	private static int writeVarInt(int value, byte[] blob, int pos) {
+		while ( value >= 0x80 ) {
+			blob[ pos ++ ] = (byte) ( value | 0x80 );
+			value >>>= 7;
+		}
+		blob[ pos ++ ] = (byte) value;
+		return pos;
+	}
+
+	abstract Packed pack(T[] value);
+
+	abstract T[] unpack(Packed packed);
+
+	@Override
+	public boolean isMutable() {
+		return true;
+	}
+
+	@Override
+	public T[] deepCopy(T[] value) {
+		// the elements are immutable
+		return value == null ? null : value.clone();
+	}
+
+	@Override
+	public Serializable disassemble(T[] value) {
+		// wrapped in a plain Object[], because Hibernate also compares and hashes
+		// disassembled values as arrays, as it does for query cache keys
+		return value == null ? null : new Object[]{ pack( value ) };
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T[] assemble(Serializable cached) {
+		if ( isPacked( cached ) ) {
+			return unpack( (Packed) ( (Object[]) cached )[ 0 ] );
+		}
+		// entries cached as a copy of the array
+		return deepCopy( (T[]) cached );
+	}
+
+	/**
+	 * @param value Array, or the disassembled form of one.
+	 * @return whether the value was disassembled by a packed plan
+	 */
+	static boolean isPacked(Object value) {
+		return value != null && value.getClass() == Object[].class
+				&& ( (Object[]) value ).length == 1 && ( (Object[]) value )[ 0 ] instanceof Packed;
+	}
+
+	/**
+	 * @param value Disassembled form of an array, for which {@link #isPacked(java.lang.Object)} holds.
+	 * @return its packed form
+	 */
+	static Packed packedOf(Object value) {
+		return (Packed) ( (Object[]) value )[ 0 ];
+	}
+
+	/**
+	 * The packed form of an array. Slots of null elements are left zero.
+	 * Packed forms of the same element type are equal when their arrays are, but their hash codes
+	 * differ from those of the arrays, so they are only compared to each other.
+	 */
+	static final class Packed implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * One bit per element, set for nulls. Null if there are no null elements.
+		 */
+		final long[] nulls;
+		/**
+		 * Primitive array with the element values.
+		 */
+		final Object values;
+		/**
+		 * Nanoseconds or the array length, depending on the element type.
+		 */
+		final int[] extra;
+
+		Packed(Object[] array, Object values, int[] extra) {
+			this.nulls = nullsOf( array );
+			this.values = values;
+			this.extra = extra;
+		}
+
+		boolean isNull(int index) {
+			return nulls != null && ( nulls[ index >>> 6 ] & 1L << index ) != 0;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if ( obj == this ) {
+				return true;
+			}
+			if ( ! ( obj instanceof Packed ) ) {
+				return false;
+			}
+			Packed other = (Packed) obj;
+			return Arrays.equals( nulls, other.nulls ) && Arrays.equals( extra, other.extra )
+					&& Objects.deepEquals( values, other.values );
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 31 * Arrays.hashCode( nulls ) + Arrays.hashCode( extra );
+			if ( values instanceof long[] ) {
+				return 31 * hash + Arrays.hashCode( (long[]) values );
+			}
+			if ( values instanceof int[] ) {
+				return 31 * hash + Arrays.hashCode( (int[]) values );
+			}
+			if ( values instanceof short[] ) {
+				return 31 * hash + Arrays.hashCode( (short[]) values );
+			}
+			if ( values instanceof double[] ) {
+				return 31 * hash + Arrays.hashCode( (double[]) values );
+			}
+			if ( values instanceof float[] ) {
+				return 31 * hash + Arrays.hashCode( (float[]) values );
+			}
+			return 31 * hash + Arrays.hashCode( (byte[]) values );
+		}
+
+		private static long[] nullsOf(Object[] array) {
+			long[] bits = null;
+			for ( int i = 0; i < array.length; i ++ ) {
+				if ( array[ i ] == null ) {
+					if ( bits == null ) {
+						bits = new long[( array.length + 63 ) >>> 6];
+					}
+					bits[ i >>> 6 ] |= 1L << i;
+				}
+			}
+			return bits;
+		}
+	}
+}
@@ -8,6 +8,7 @@
 package com.mopano.hibernate.array.java;
 
 import java.time.OffsetTime;
+import org.hibernate.type.OffsetTimeType;
 import org.hibernate.type.descriptor.WrapperOptions;
 import org.hibernate.type.descriptor.java.OffsetTimeJavaDescriptor;
 
@@ -21,6 +22,12 @@ public class PgOffsetTimeJavaDescriptor extends OffsetTimeJavaDescriptor {
 
 	public static final PgOffsetTimeJavaDescriptor INSTANCE = new PgOffsetTimeJavaDescriptor();
 
+	@Override
+	public OffsetTime fromString(String string) {
+		// the parent casts the parsed value instead of converting it
+		return OffsetTime.parse( string, OffsetTimeType.FORMATTER );
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public <X> X unwrap(OffsetTime offsetTime, Class<X> type, WrapperOptions options) {
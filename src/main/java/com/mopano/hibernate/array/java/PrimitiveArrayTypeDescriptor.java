@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.sql.PgJdbcSupport;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.hibernate.HibernateException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+import org.hibernate.type.descriptor.java.ArrayMutabilityPlan;
+
+/**
+ * Base for arrays of primitives. The elements are never boxed, except when binding
+ * through a JDBC driver that only accepts arrays of objects.
+ *
+ * @author Yordan Gigov
+ * @param <A> primitive array type
+ */
+@SuppressWarnings("unchecked")
+public abstract class PrimitiveArrayTypeDescriptor<A> extends AbstractTypeDescriptor<A> {
+
+	private final int elementLength;
+	private final int sqlType;
+	private transient volatile BindPlan bindPlan;
+
+	/**
+	 * @param type Primitive array class.
+	 * @param elementLength Typical number of characters of one element in a literal.
+	 * @param sqlType JDBC type of the elements.
+	 */
+	protected PrimitiveArrayTypeDescriptor(Class<A> type, int elementLength, int sqlType) {
+		// ArrayMutabilityPlan copies with System.arraycopy, which is fine for primitives
+		super( type, ArrayMutabilityPlan.INSTANCE );
+		this.elementLength = elementLength;
+		this.sqlType = sqlType;
+	}
+
+	/**
+	 * Writes the value as an array literal.
+	 *
+	 * @param value Array to write. Must not be null.
+	 * @param out Destination.
+	 * @throws IOException if the destination throws it
+	 */
+	public abstract void appendTo(A value, Appendable out) throws IOException;
+
+	@Override
+	public String toString(A value) {
+		if ( value == null ) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder( ArrayLiteralEncoder.estimateLength( Array.getLength( value ), elementLength ) );
+		try {
+			appendTo( value, sb );
+		}
+		catch ( IOException ex ) {
+			// StringBuilder does not throw it
+			throw new HibernateException( ex );
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Converts an array of boxed values, as returned by most drivers.
+	 *
+	 * @param raw Array of boxed values.
+	 * @return primitive array
+	 */
+	protected abstract A fromElements(Object[] raw);
+
+	/**
+	 * Boxes the values for drivers that cannot create arrays from primitives.
+	 *
+	 * @param value Primitive array.
+	 * @return array of boxed values
+	 */
+	protected abstract Object[] toElements(A value);
+
+	/**
+	 * @param dialect The dialect of the session binding the value.
+	 * @return the plan for that dialect, resolving it only if the dialect changed
+	 */
+	private BindPlan bindPlan(Dialect dialect) {
+		BindPlan plan = bindPlan;
+		if ( plan == null || plan.dialect != dialect ) {
+			plan = BindPlan.resolve( dialect, sqlType, null );
+			bindPlan = plan;
+		}
+		return plan;
+	}
+
+	@Override
+	public <X> X unwrap(A value, Class<X> type, WrapperOptions options) {
+		// function used for PreparedStatement binding
+
+		if ( value == null ) {
+			return null;
+		}
+
+		if ( getJavaTypeClass().isAssignableFrom( type ) ) {
+			return (X) value;
+		}
+
+		if ( String.class.isAssignableFrom( type ) ) {
+			return (X) toString( value );
+		}
+
+		if ( java.sql.Array.class.isAssignableFrom( type ) ) {
+			if (  ! ( options instanceof SharedSessionContractImplementor ) ) {
+				throw new IllegalStateException( "You can't handle the truth! I mean arrays..." );
+			}
+			SharedSessionContractImplementor sess = (SharedSessionContractImplementor) options;
+			String typeName = bindPlan( sess.getJdbcServices().getDialect() ).typeName;
+			try {
+				Connection conn = sess.connection();
+				if ( PgJdbcSupport.isPgConnection( conn ) ) {
+					return (X) PgJdbcSupport.createPrimitiveArrayOf( conn, typeName, value );
+				}
+				// the standard API only takes arrays of objects
+				return (X) conn.createArrayOf( typeName, toElements( value ) );
+			}
+			catch ( SQLException ex ) {
+				throw new HibernateException( ex );
+			}
+		}
+
+		throw unknownUnwrap( type );
+	}
+
+	@Override
+	public <X> A wrap(X value, WrapperOptions options) {
+		// function used for ResultSet extraction
+
+		if ( value == null ) {
+			return null;
+		}
+
+		if ( getJavaTypeClass().isInstance( value ) ) {
+			return (A) value;
+		}
+
+		if ( value instanceof Object[] ) {
+			return fromElements( (Object[]) value );
+		}
+
+		if ( value instanceof String ) {
+			return fromString( (String) value );
+		}
+
+		if (  ! ( value instanceof java.sql.Array ) ) {
+			throw unknownWrap( value.getClass() );
+		}
+
+		String literal = PgJdbcSupport.textOf( (java.sql.Array) value );
+		if ( literal != null ) {
+			// parse straight into the primitives, nothing is boxed
+			return fromString( literal );
+		}
+		try {
+			Object raw = ( (java.sql.Array) value ).getArray();
+			if ( raw == null ) {
+				return null;
+			}
+			if ( getJavaTypeClass().isInstance( raw ) ) {
+				return (A) raw;
+			}
+			return fromElements( (Object[]) raw );
+		}
+		catch ( SQLException ex ) {
+			// This basically shouldn't happen unless you've lost connection to the database.
+			throw new HibernateException( ex );
+		}
+	}
+
+	/**
+	 * Gets a non-null element from a driver-supplied array.
+	 *
+	 * @param raw Array of boxed values.
+	 * @param index Index of the element.
+	 * @return the element
+	 * @throws HibernateException if the element is null
+	 */
+	protected static Object nonNull(Object[] raw, int index) {
+		Object v = raw[ index ];
+		if ( v == null ) {
+			throw new HibernateException( "Array of primitives cannot hold the null found at index " + index );
+		}
+		return v;
+	}
+
+	/**
+	 * Base for collecting the elements of an array literal into a primitive array.
+	 */
+	protected abstract static class Collector implements ArrayLiteralDecoder.Handler {
+
+		protected int size;
+
+		@Override
+		public void nullElement() {
+			throw new IllegalArgumentException( "Array of primitives cannot hold the null at index " + size );
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Descriptor for {@code boolean[]} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class PrimitiveBooleanArrayTypeDescriptor extends PrimitiveArrayTypeDescriptor<boolean[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final PrimitiveBooleanArrayTypeDescriptor INSTANCE = new PrimitiveBooleanArrayTypeDescriptor();
+
+	public PrimitiveBooleanArrayTypeDescriptor() {
+		super( boolean[].class, 1, Types.BOOLEAN );
+	}
+
+	@Override
+	public boolean areEqual(boolean[] one, boolean[] another) {
+		return Arrays.equals( one, another );
+	}
+
+	@Override
+	public int extractHashCode(boolean[] value) {
+		return Arrays.hashCode( value );
+	}
+
+	@Override
+	public void appendTo(boolean[] value, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = 0; i < value.length; i ++ ) {
+			if ( i > 0 ) {
+				out.append( ',' );
+			}
+			out.append( value[ i ] ? 't' : 'f' );
+		}
+		out.append( '}' );
+	}
+
+	@Override
+	public boolean[] fromString(String string) {
+		if ( string == null ) {
+			return null;
+		}
+		BooleanCollector collector = new BooleanCollector();
+		ArrayLiteralDecoder.decode( string, collector );
+		return collector.size == collector.values.length ? collector.values : Arrays.copyOf( collector.values, collector.size );
+	}
+
+	@Override
+	protected boolean[] fromElements(Object[] raw) {
+		boolean[] result = new boolean[raw.length];
+		for ( int i = 0; i < raw.length; i ++ ) {
+			result[ i ] = ( (Boolean) nonNull( raw, i ) ).booleanValue();
+		}
+		return result;
+	}
+
+	@Override
+	protected Object[] toElements(boolean[] value) {
+		Boolean[] boxed = new Boolean[value.length];
+		for ( int i = 0; i < value.length; i ++ ) {
+			boxed[ i ] = value[ i ];
+		}
+		return boxed;
+	}
+
+	private static final class BooleanCollector extends Collector {
+
+		boolean[] values = new boolean[16];
+
+		@Override
+		public void element(CharSequence chars, int start, int end) {
+			if ( size == values.length ) {
+				values = Arrays.copyOf( values, size << 1 );
+			}
+			values[ size ++ ] = ElementParsers.parseBoolean( chars, start, end );
+		}
+	}
+}
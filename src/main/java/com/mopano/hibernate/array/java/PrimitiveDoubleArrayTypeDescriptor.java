@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Descriptor for {@code double[]} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class PrimitiveDoubleArrayTypeDescriptor extends PrimitiveArrayTypeDescriptor<double[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final PrimitiveDoubleArrayTypeDescriptor INSTANCE = new PrimitiveDoubleArrayTypeDescriptor();
+
+	public PrimitiveDoubleArrayTypeDescriptor() {
+		super( double[].class, 9, Types.DOUBLE );
+	}
+
+	@Override
+	public boolean areEqual(double[] one, double[] another) {
+		return Arrays.equals( one, another );
+	}
+
+	@Override
+	public int extractHashCode(double[] value) {
+		return Arrays.hashCode( value );
+	}
+
+	@Override
+	public void appendTo(double[] value, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = 0; i < value.length; i ++ ) {
+			if ( i > 0 ) {
+				out.append( ',' );
+			}
+			ArrayLiteralEncoder.appendDouble( out, value[ i ] );
+		}
+		out.append( '}' );
+	}
+
+	@Override
+	public double[] fromString(String string) {
+		if ( string == null ) {
+			return null;
+		}
+		DoubleCollector collector = new DoubleCollector();
+		ArrayLiteralDecoder.decode( string, collector );
+		return collector.size == collector.values.length ? collector.values : Arrays.copyOf( collector.values, collector.size );
+	}
+
+	@Override
+	protected double[] fromElements(Object[] raw) {
+		double[] result = new double[raw.length];
+		for ( int i = 0; i < raw.length; i ++ ) {
+			result[ i ] = ( (Number) nonNull( raw, i ) ).doubleValue();
+		}
+		return result;
+	}
+
+	@Override
+	protected Object[] toElements(double[] value) {
+		Double[] boxed = new Double[value.length];
+		for ( int i = 0; i < value.length; i ++ ) {
+			boxed[ i ] = value[ i ];
+		}
+		return boxed;
+	}
+
+	private static final class DoubleCollector extends Collector {
+
+		double[] values = new double[16];
+
+		@Override
+		public void element(CharSequence chars, int start, int end) {
+			if ( size == values.length ) {
+				values = Arrays.copyOf( values, size << 1 );
+			}
+			values[ size ++ ] = ElementParsers.parseDouble( chars, start, end );
+		}
+	}
+}
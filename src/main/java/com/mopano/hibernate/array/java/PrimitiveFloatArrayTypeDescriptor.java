@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Descriptor for {@code float[]} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class PrimitiveFloatArrayTypeDescriptor extends PrimitiveArrayTypeDescriptor<float[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final PrimitiveFloatArrayTypeDescriptor INSTANCE = new PrimitiveFloatArrayTypeDescriptor();
+
+	public PrimitiveFloatArrayTypeDescriptor() {
+		super( float[].class, 7, Types.FLOAT );
+	}
+
+	@Override
+	public boolean areEqual(float[] one, float[] another) {
+		return Arrays.equals( one, another );
+	}
+
+	@Override
+	public int extractHashCode(float[] value) {
+		return Arrays.hashCode( value );
+	}
+
+	@Override
+	public void appendTo(float[] value, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = 0; i < value.length; i ++ ) {
+			if ( i > 0 ) {
+				out.append( ',' );
+			}
+			ArrayLiteralEncoder.appendFloat( out, value[ i ] );
+		}
+		out.append( '}' );
+	}
+
+	@Override
+	public float[] fromString(String string) {
+		if ( string == null ) {
+			return null;
+		}
+		FloatCollector collector = new FloatCollector();
+		ArrayLiteralDecoder.decode( string, collector );
+		return collector.size == collector.values.length ? collector.values : Arrays.copyOf( collector.values, collector.size );
+	}
+
+	@Override
+	protected float[] fromElements(Object[] raw) {
+		float[] result = new float[raw.length];
+		for ( int i = 0; i < raw.length; i ++ ) {
+			result[ i ] = ( (Number) nonNull( raw, i ) ).floatValue();
+		}
+		return result;
+	}
+
+	@Override
+	protected Object[] toElements(float[] value) {
+		Float[] boxed = new Float[value.length];
+		for ( int i = 0; i < value.length; i ++ ) {
+			boxed[ i ] = value[ i ];
+		}
+		return boxed;
+	}
+
+	private static final class FloatCollector extends Collector {
+
+		float[] values = new float[16];
+
+		@Override
+		public void element(CharSequence chars, int start, int end) {
+			if ( size == values.length ) {
+				values = Arrays.copyOf( values, size << 1 );
+			}
+			values[ size ++ ] = ElementParsers.parseFloat( chars, start, end );
+		}
+	}
+}
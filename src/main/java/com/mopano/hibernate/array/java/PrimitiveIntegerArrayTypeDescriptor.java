@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Descriptor for {@code int[]} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class PrimitiveIntegerArrayTypeDescriptor extends PrimitiveArrayTypeDescriptor<int[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final PrimitiveIntegerArrayTypeDescriptor INSTANCE = new PrimitiveIntegerArrayTypeDescriptor();
+
+	public PrimitiveIntegerArrayTypeDescriptor() {
+		super( int[].class, 5, Types.INTEGER );
+	}
+
+	@Override
+	public boolean areEqual(int[] one, int[] another) {
+		return Arrays.equals( one, another );
+	}
+
+	@Override
+	public int extractHashCode(int[] value) {
+		return Arrays.hashCode( value );
+	}
+
+	@Override
+	public void appendTo(int[] value, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = 0; i < value.length; i ++ ) {
+			if ( i > 0 ) {
+				out.append( ',' );
+			}
+			ArrayLiteralEncoder.appendLong( out, value[ i ] );
+		}
+		out.append( '}' );
+	}
+
+	@Override
+	public int[] fromString(String string) {
+		if ( string == null ) {
+			return null;
+		}
+		IntegerCollector collector = new IntegerCollector();
+		ArrayLiteralDecoder.decode( string, collector );
+		return collector.size == collector.values.length ? collector.values : Arrays.copyOf( collector.values, collector.size );
+	}
+
+	@Override
+	protected int[] fromElements(Object[] raw) {
+		int[] result = new int[raw.length];
+		for ( int i = 0; i < raw.length; i ++ ) {
+			result[ i ] = ( (Number) nonNull( raw, i ) ).intValue();
+		}
+		return result;
+	}
+
+	@Override
+	protected Object[] toElements(int[] value) {
+		Integer[] boxed = new Integer[value.length];
+		for ( int i = 0; i < value.length; i ++ ) {
+			boxed[ i ] = value[ i ];
+		}
+		return boxed;
+	}
+
+	private static final class IntegerCollector extends Collector {
+
+		int[] values = new int[16];
+
+		@Override
+		public void element(CharSequence chars, int start, int end) {
+			if ( size == values.length ) {
+				values = Arrays.copyOf( values, size << 1 );
+			}
+			values[ size ++ ] = ElementParsers.parseInt( chars, start, end );
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Descriptor for {@code long[]} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class PrimitiveLongArrayTypeDescriptor extends PrimitiveArrayTypeDescriptor<long[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final PrimitiveLongArrayTypeDescriptor INSTANCE = new PrimitiveLongArrayTypeDescriptor();
+
+	public PrimitiveLongArrayTypeDescriptor() {
+		super( long[].class, 7, Types.BIGINT );
+	}
+
+	@Override
+	public boolean areEqual(long[] one, long[] another) {
+		return Arrays.equals( one, another );
+	}
+
+	@Override
+	public int extractHashCode(long[] value) {
+		return Arrays.hashCode( value );
+	}
+
+	@Override
+	public void appendTo(long[] value, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = 0; i < value.length; i ++ ) {
+			if ( i > 0 ) {
+				out.append( ',' );
+			}
+			ArrayLiteralEncoder.appendLong( out, value[ i ] );
+		}
+		out.append( '}' );
+	}
+
+	@Override
+	public long[] fromString(String string) {
+		if ( string == null ) {
+			return null;
+		}
+		LongCollector collector = new LongCollector();
+		ArrayLiteralDecoder.decode( string, collector );
+		return collector.size == collector.values.length ? collector.values : Arrays.copyOf( collector.values, collector.size );
+	}
+
+	@Override
+	protected long[] fromElements(Object[] raw) {
+		long[] result = new long[raw.length];
+		for ( int i = 0; i < raw.length; i ++ ) {
+			result[ i ] = ( (Number) nonNull( raw, i ) ).longValue();
+		}
+		return result;
+	}
+
+	@Override
+	protected Object[] toElements(long[] value) {
+		Long[] boxed = new Long[value.length];
+		for ( int i = 0; i < value.length; i ++ ) {
+			boxed[ i ] = value[ i ];
+		}
+		return boxed;
+	}
+
+	private static final class LongCollector extends Collector {
+
+		long[] values = new long[16];
+
+		@Override
+		public void element(CharSequence chars, int start, int end) {
+			if ( size == values.length ) {
+				values = Arrays.copyOf( values, size << 1 );
+			}
+			values[ size ++ ] = ElementParsers.parseLong( chars, start, end );
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Descriptor for {@code short[]} handling.
+ *
+ * @author Yordan Gigov
+ */
+public class PrimitiveShortArrayTypeDescriptor extends PrimitiveArrayTypeDescriptor<short[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final PrimitiveShortArrayTypeDescriptor INSTANCE = new PrimitiveShortArrayTypeDescriptor();
+
+	public PrimitiveShortArrayTypeDescriptor() {
+		super( short[].class, 3, Types.SMALLINT );
+	}
+
+	@Override
+	public boolean areEqual(short[] one, short[] another) {
+		return Arrays.equals( one, another );
+	}
+
+	@Override
+	public int extractHashCode(short[] value) {
+		return Arrays.hashCode( value );
+	}
+
+	@Override
+	public void appendTo(short[] value, Appendable out) throws IOException {
+		out.append( '{' );
+		for ( int i = 0; i < value.length; i ++ ) {
+			if ( i > 0 ) {
+				out.append( ',' );
+			}
+			ArrayLiteralEncoder.appendLong( out, value[ i ] );
+		}
+		out.append( '}' );
+	}
+
+	@Override
+	public short[] fromString(String string) {
+		if ( string == null ) {
+			return null;
+		}
+		ShortCollector collector = new ShortCollector();
+		ArrayLiteralDecoder.decode( string, collector );
+		return collector.size == collector.values.length ? collector.values : Arrays.copyOf( collector.values, collector.size );
+	}
+
+	@Override
+	protected short[] fromElements(Object[] raw) {
+		short[] result = new short[raw.length];
+		for ( int i = 0; i < raw.length; i ++ ) {
+			result[ i ] = ( (Number) nonNull( raw, i ) ).shortValue();
+		}
+		return result;
+	}
+
+	@Override
+	protected Object[] toElements(short[] value) {
+		Short[] boxed = new Short[value.length];
+		for ( int i = 0; i < value.length; i ++ ) {
+			boxed[ i ] = value[ i ];
+		}
+		return boxed;
+	}
+
+	private static final class ShortCollector extends Collector {
+
+		short[] values = new short[16];
+
+		@Override
+		public void element(CharSequence chars, int start, int end) {
+			if ( size == values.length ) {
+				values = Arrays.copyOf( values, size << 1 );
+			}
+			values[ size ++ ] = ElementParsers.parseShort( chars, start, end );
+		}
+	}
+}
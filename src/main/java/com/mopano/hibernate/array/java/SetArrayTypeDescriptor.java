@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.TrackedSet;
+
+import java.util.Set;
+
+/**
+ * Sets stored in array columns, loaded as {@link TrackedSet} in the order of the array.
+ * Duplicate elements of the array are dropped.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+public class SetArrayTypeDescriptor<T> extends CollectionArrayTypeDescriptor<Set<T>, T> {
+
+	@SuppressWarnings("unchecked")
+	public SetArrayTypeDescriptor(GenericArrayTypeDescriptor<T> arrayDescriptor) {
+		super( (Class) Set.class, arrayDescriptor );
+	}
+
+	@Override
+	protected Set<T> newCollection(T[] elements) {
+		return TrackedSet.wrap( elements );
+	}
+
+	@Override
+	protected boolean contentsEqual(Set<T> one, Set<T> another) {
+		return one.equals( another );
+	}
+
+	@Override
+	public int extractHashCode(Set<T> value) {
+		return value.hashCode();
+	}
+}
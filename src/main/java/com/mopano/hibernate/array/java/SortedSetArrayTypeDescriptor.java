@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.java;
+
+import com.mopano.hibernate.array.TrackedSortedSet;
+
+import java.util.SortedSet;
+
+/**
+ * Sorted sets stored in array columns, loaded as {@link TrackedSortedSet} in the natural order of the elements.
+ * The arrays must not contain nulls.
+ *
+ * @author Yordan Gigov
+ * @param <T> element type
+ */
+public class SortedSetArrayTypeDescriptor<T> extends CollectionArrayTypeDescriptor<SortedSet<T>, T> {
+
+	@SuppressWarnings("unchecked")
+	public SortedSetArrayTypeDescriptor(GenericArrayTypeDescriptor<T> arrayDescriptor) {
+		super( (Class) SortedSet.class, arrayDescriptor );
+	}
+
+	@Override
+	protected SortedSet<T> newCollection(T[] elements) {
+		return TrackedSortedSet.wrap( elements );
+	}
+
+	@Override
+	protected boolean contentsEqual(SortedSet<T> one, SortedSet<T> another) {
+		return one.equals( another );
+	}
+
+	@Override
+	public int extractHashCode(SortedSet<T> value) {
+		return value.hashCode();
+	}
+}
@@ -7,11 +7,19 @@
  */
 package com.mopano.hibernate.array.sql;
 
+import com.mopano.hibernate.array.ArrayMetrics;
+import com.mopano.hibernate.array.java.ArrayEvents;
+import com.mopano.hibernate.array.java.CollectionArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
 import java.sql.CallableStatement;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Types;
+import java.util.Collection;
 
 import org.hibernate.type.descriptor.ValueBinder;
 import org.hibernate.type.descriptor.ValueExtractor;
@@ -31,7 +39,48 @@ public class ArrayTypeDescriptor implements SqlTypeDescriptor {
 
 	public static final ArrayTypeDescriptor INSTANCE = new ArrayTypeDescriptor();
 
+	/**
+	 * Sends arrays of fixed width numbers and UUIDs in binary format when using the PostgreSQL driver.
+	 * Enabled by the {@code hibernate.arrays.binary} setting.
+	 */
+	public static final ArrayTypeDescriptor BINARY = new ArrayTypeDescriptor( true );
+
+	/**
+	 * Sends arrays of numbers, booleans, UUIDs and strings as array literals, leaving the server to cast them
+	 * to the parameter's type. Does not need {@code createArrayOf} or any other call on the connection.
+	 * Enabled by the {@code hibernate.arrays.literal} setting.
+	 */
+	public static final ArrayTypeDescriptor LITERAL = new ArrayTypeDescriptor( false, true );
+
+	private final boolean binary;
+	private final boolean literal;
+
 	public ArrayTypeDescriptor() {
+		this( false );
+	}
+
+	/**
+	 * @param binary Whether to try the PostgreSQL binary array format before {@code createArrayOf}.
+	 */
+	public ArrayTypeDescriptor(boolean binary) {
+		this( binary, false );
+	}
+
+	/**
+	 * @param binary Whether to try the PostgreSQL binary array format before {@code createArrayOf}.
+	 * @param literal Whether to bind array literals of untyped parameters instead, where the element type allows it.
+	 */
+	public ArrayTypeDescriptor(boolean binary, boolean literal) {
+		this.binary = binary;
+		this.literal = literal;
+	}
+
+	public boolean isBinary() {
+		return binary;
+	}
+
+	public boolean isLiteral() {
+		return literal;
 	}
 
 	@Override
@@ -46,39 +95,162 @@ public class ArrayTypeDescriptor implements SqlTypeDescriptor {
 
 	@Override
 	public <X> ValueBinder<X> getBinder(final JavaTypeDescriptor<X> javaTypeDescriptor) {
+		final int elementOid;
+		final GenericArrayTypeDescriptor<?> descriptor;
+		if ( javaTypeDescriptor instanceof CollectionArrayTypeDescriptor ) {
+			descriptor = ( (CollectionArrayTypeDescriptor<?, ?>) javaTypeDescriptor ).getArrayDescriptor();
+		}
+		else if ( javaTypeDescriptor instanceof GenericArrayTypeDescriptor ) {
+			descriptor = (GenericArrayTypeDescriptor<?>) javaTypeDescriptor;
+		}
+		else {
+			descriptor = null;
+		}
+		if ( binary && PgJdbcSupport.isAvailable() && descriptor != null ) {
+			elementOid = PgBinaryArrays.elementOid( descriptor.getComponentClass(), descriptor.getComponentSqlType() );
+		}
+		else {
+			elementOid = PgBinaryArrays.NONE;
+		}
+		final boolean bindsLiteral = literal && descriptor != null && descriptor.writesServerText();
 		return new BasicBinder<X>( javaTypeDescriptor, this ) {
 
 			@Override
 			protected void doBind(PreparedStatement st, X value, int index, WrapperOptions options) throws SQLException {
-				final java.sql.Array arr = javaTypeDescriptor.unwrap( value, java.sql.Array.class, options );
+				if ( bindsLiteral ) {
+					st.setObject( index, toLiteral( value ), Types.OTHER );
+					return;
+				}
+				final Connection conn = st.getConnection();
+				final boolean pg = PgJdbcSupport.isPgConnection( conn );
+				final java.sql.Array arr = toArray( conn, pg, value, options );
 				st.setArray( index, arr );
+				releaseBound( pg, arr );
 			}
 
 			@Override
 			protected void doBind(CallableStatement st, X value, String name, WrapperOptions options)
 					throws SQLException {
-				final java.sql.Array arr = javaTypeDescriptor.unwrap( value, java.sql.Array.class, options );
+				if ( bindsLiteral ) {
+					st.setObject( name, toLiteral( value ), Types.OTHER );
+					return;
+				}
+				final Connection conn = st.getConnection();
+				final boolean pg = PgJdbcSupport.isPgConnection( conn );
+				final java.sql.Array arr = toArray( conn, pg, value, options );
 				st.setObject( name, arr, java.sql.Types.ARRAY );
+				releaseBound( pg, arr );
+			}
+
+			@SuppressWarnings("unchecked")
+			private String toLiteral(X value) {
+				final ArrayMetrics metrics = descriptor.getMetrics();
+				final long start = metrics == null ? 0L : System.nanoTime();
+				final int elements = value instanceof Collection
+						? ( (Collection) value ).size()
+						: ( (GenericArrayTypeDescriptor) descriptor ).resolve( (Object[]) value ).length;
+				final int eventThreshold = descriptor.getEventThreshold();
+				final Object event = eventThreshold > 0 && elements >= eventThreshold
+						? ArrayEvents.begin( ArrayEvents.BIND, descriptor.getJavaTypeClass() )
+						: null;
+				final String text = javaTypeDescriptor.toString( value );
+				if ( metrics != null ) {
+					// no driver array is created
+					metrics.bound( descriptor.getJavaTypeClass(), elements, System.nanoTime() - start, 0L );
+				}
+				if ( event != null ) {
+					ArrayEvents.end( event, elements );
+				}
+				return text;
+			}
+
+			@SuppressWarnings("unchecked")
+			private java.sql.Array toArray(Connection conn, boolean pg, X value, WrapperOptions options) throws SQLException {
+				if ( pg && elementOid != PgBinaryArrays.NONE ) {
+					final ArrayMetrics metrics = descriptor.getMetrics();
+					final long start = metrics == null ? 0L : System.nanoTime();
+					Object[] elements = javaTypeDescriptor instanceof CollectionArrayTypeDescriptor
+							? ( (CollectionArrayTypeDescriptor) javaTypeDescriptor ).toArray( (Collection) value )
+							: ( (GenericArrayTypeDescriptor) javaTypeDescriptor ).resolve( (Object[]) value );
+					final int eventThreshold = descriptor.getEventThreshold();
+					final Object event = eventThreshold > 0 && elements.length >= eventThreshold
+							? ArrayEvents.begin( ArrayEvents.BIND, descriptor.getJavaTypeClass() )
+							: null;
+					java.sql.Array arr = PgBinaryArrays.create( conn, elementOid, elements );
+					if ( arr != null ) {
+						if ( metrics != null ) {
+							// elements are encoded while creating the array
+							metrics.bound( descriptor.getJavaTypeClass(), elements.length, 0L, System.nanoTime() - start );
+						}
+						if ( event != null ) {
+							ArrayEvents.end( event, elements.length );
+						}
+						return arr;
+					}
+				}
+				return javaTypeDescriptor.unwrap( value, java.sql.Array.class, options );
 			}
 		};
 	}
 
+	/**
+	 * Frees an array once the statement holds its value. PgJDBC copies the value when binding.
+	 * The JDBC specification does not promise that for other drivers, so their arrays
+	 * are left to be released with the statement.
+	 *
+	 * @param pg Whether the array was created by PgJDBC.
+	 * @param arr The bound array.
+	 * @throws SQLException if the driver fails to free the array
+	 */
+	private static void releaseBound(boolean pg, java.sql.Array arr) throws SQLException {
+		if ( pg ) {
+			arr.free();
+		}
+	}
+
+	/**
+	 * Frees an array read from a result set, after its contents have been converted.
+	 *
+	 * @param arr The array. May be null.
+	 * @throws SQLException if the driver fails to free the array
+	 */
+	private static void release(java.sql.Array arr) throws SQLException {
+		if ( arr == null ) {
+			return;
+		}
+		try {
+			arr.free();
+		}
+		catch ( SQLFeatureNotSupportedException ex ) {
+			// JDBC 3 drivers, nothing to release
+		}
+	}
+
 	@Override
 	public <X> ValueExtractor<X> getExtractor(final JavaTypeDescriptor<X> javaTypeDescriptor) {
 		return new BasicExtractor<X>( javaTypeDescriptor, this ) {
 			@Override
 			protected X doExtract(ResultSet rs, String name, WrapperOptions options) throws SQLException {
-				return javaTypeDescriptor.wrap( rs.getArray( name ), options );
+				return wrap( rs.getArray( name ), options );
 			}
 
 			@Override
 			protected X doExtract(CallableStatement statement, int index, WrapperOptions options) throws SQLException {
-				return javaTypeDescriptor.wrap( statement.getArray( index ), options );
+				return wrap( statement.getArray( index ), options );
 			}
 
 			@Override
 			protected X doExtract(CallableStatement statement, String name, WrapperOptions options) throws SQLException {
-				return javaTypeDescriptor.wrap( statement.getArray( name ), options );
+				return wrap( statement.getArray( name ), options );
+			}
+
+			private X wrap(java.sql.Array arr, WrapperOptions options) throws SQLException {
+				try {
+					return javaTypeDescriptor.wrap( arr, options );
+				}
+				finally {
+					release( arr );
+				}
 			}
 		};
 	}
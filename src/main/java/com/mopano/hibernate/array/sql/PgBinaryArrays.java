@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.sql;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+import org.postgresql.core.BaseConnection;
+import org.postgresql.jdbc.PgArray;
+
+/**
+ * Encodes arrays in the PostgreSQL binary array format, so the server does not need to parse
+ * a text literal. Used for element types with a fixed binary width: {@code int2}, {@code int4},
+ * {@code int8}, {@code float4}, {@code float8} and {@code uuid}.
+ * Like {@link PgJdbcSupport}, the driver classes are only touched on PgJDBC connections.
+ *
+ * @author Yordan Gigov
+ */
+public final class PgBinaryArrays {
+
+	public static final int NONE = 0;
+	public static final int INT2 = 21;
+	public static final int INT4 = 23;
+	public static final int INT8 = 20;
+	public static final int FLOAT4 = 700;
+	public static final int FLOAT8 = 701;
+	public static final int UUID_OID = 2950;
+
+	private PgBinaryArrays() {
+	}
+
+	/**
+	 * @param componentClass Java class of the elements.
+	 * @param sqlType JDBC type of the elements.
+	 * @return the element type OID to encode with, or {@link #NONE} if the type has no binary encoding here
+	 */
+	public static int elementOid(Class<?> componentClass, int sqlType) {
+		if ( componentClass == Long.class && sqlType == Types.BIGINT ) {
+			return INT8;
+		}
+		if ( componentClass == Integer.class && sqlType == Types.INTEGER ) {
+			return INT4;
+		}
+		if ( componentClass == Short.class && sqlType == Types.SMALLINT ) {
+			return INT2;
+		}
+		if ( componentClass == Double.class && sqlType == Types.DOUBLE ) {
+			return FLOAT8;
+		}
+		if ( componentClass == Float.class && ( sqlType == Types.FLOAT || sqlType == Types.REAL ) ) {
+			return FLOAT4;
+		}
+		if ( componentClass == UUID.class && sqlType == Types.OTHER ) {
+			// only the PostgreSQL specific UUID type binds as OTHER
+			return UUID_OID;
+		}
+		return NONE;
+	}
+
+	/**
+	 * @param elementOid Element type OID, as returned by {@link #elementOid(java.lang.Class, int)}.
+	 * @return OID of the array type
+	 */
+	private static int arrayOid(int elementOid) {
+		switch ( elementOid ) {
+			case INT2:
+				return 1005;
+			case INT4:
+				return 1007;
+			case INT8:
+				return 1016;
+			case FLOAT4:
+				return 1021;
+			case FLOAT8:
+				return 1022;
+			case UUID_OID:
+				return 2951;
+			default:
+				throw new IllegalArgumentException( "No binary encoding for type OID " + elementOid );
+		}
+	}
+
+	private static int width(int elementOid) {
+		switch ( elementOid ) {
+			case INT2:
+				return 2;
+			case INT4:
+			case FLOAT4:
+				return 4;
+			case INT8:
+			case FLOAT8:
+				return 8;
+			case UUID_OID:
+				return 16;
+			default:
+				throw new IllegalArgumentException( "No binary encoding for type OID " + elementOid );
+		}
+	}
+
+	/**
+	 * Creates a binary array. The caller must make sure {@link PgJdbcSupport#isPgConnection(java.sql.Connection)} is true.
+	 *
+	 * @param conn PgJDBC connection, or a wrapper of one.
+	 * @param elementOid Element type OID, as returned by {@link #elementOid(java.lang.Class, int)}.
+	 * @param values Elements. May contain nulls.
+	 * @return driver array, or null for an empty array, which is left to the text format
+	 * @throws SQLException if the driver cannot create the array
+	 */
+	public static java.sql.Array create(Connection conn, int elementOid, Object[] values) throws SQLException {
+		if ( values.length == 0 ) {
+			return null;
+		}
+		return new PgArray( conn.unwrap( BaseConnection.class ), arrayOid( elementOid ), encode( elementOid, values ) );
+	}
+
+	/**
+	 * Creates a multi-dimensional binary array from elements in row-major order.
+	 * The caller must make sure {@link PgJdbcSupport#isPgConnection(java.sql.Connection)} is true.
+	 *
+	 * @param conn PgJDBC connection, or a wrapper of one.
+	 * @param elementOid {@link #INT8} for {@code long[]} or {@link LongBuffer} data, {@link #FLOAT8} for {@code double[]}
+	 * or {@link DoubleBuffer} data, {@link #FLOAT4} for {@code float[]} or {@link FloatBuffer} data.
+	 * @param dimensions Length of each dimension, outermost first. None may be zero.
+	 * @param data Flat primitive array, or buffer whose remaining elements are written.
+	 * @return driver array
+	 * @throws SQLException if the driver cannot create the array
+	 */
+	public static java.sql.Array create(Connection conn, int elementOid, int[] dimensions, Object data) throws SQLException {
+		return new PgArray( conn.unwrap( BaseConnection.class ), arrayOid( elementOid ), encode( elementOid, dimensions, data ) );
+	}
+
+	/**
+	 * Writes a multi-dimensional array: dimension count, null flag, element type, then length and
+	 * lower bound of each dimension, then the length-prefixed elements.
+	 *
+	 * @param elementOid {@link #INT8}, {@link #FLOAT8} or {@link #FLOAT4}, matching the data.
+	 * @param dimensions Length of each dimension, outermost first. None may be zero.
+	 * @param data Flat primitive array, or buffer whose remaining elements are written.
+	 * @return the binary representation
+	 */
+	public static byte[] encode(int elementOid, int[] dimensions, Object data) {
+		final int width = width( elementOid );
+		final int length = data instanceof Buffer ? ( (Buffer) data ).remaining() : java.lang.reflect.Array.getLength( data );
+		ByteBuffer buf = ByteBuffer.allocate( 12 + dimensions.length * 8 + length * ( 4 + width ) );
+		buf.putInt( dimensions.length );
+		buf.putInt( 0 );
+		buf.putInt( elementOid );
+		for ( int d : dimensions ) {
+			buf.putInt( d );
+			buf.putInt( 1 );
+		}
+		switch ( elementOid ) {
+			case INT8:
+				if ( data instanceof LongBuffer ) {
+					LongBuffer in = (LongBuffer) data;
+					for ( int i = in.position(); i < in.limit(); i ++ ) {
+						buf.putInt( width );
+						buf.putLong( in.get( i ) );
+					}
+					break;
+				}
+				for ( long v : (long[]) data ) {
+					buf.putInt( width );
+					buf.putLong( v );
+				}
+				break;
+			case FLOAT8:
+				if ( data instanceof DoubleBuffer ) {
+					DoubleBuffer in = (DoubleBuffer) data;
+					for ( int i = in.position(); i < in.limit(); i ++ ) {
+						buf.putInt( width );
+						buf.putDouble( in.get( i ) );
+					}
+					break;
+				}
+				for ( double v : (double[]) data ) {
+					buf.putInt( width );
+					buf.putDouble( v );
+				}
+				break;
+			case FLOAT4:
+				if ( data instanceof FloatBuffer ) {
+					FloatBuffer in = (FloatBuffer) data;
+					for ( int i = in.position(); i < in.limit(); i ++ ) {
+						buf.putInt( width );
+						buf.putFloat( in.get( i ) );
+					}
+					break;
+				}
+				for ( float v : (float[]) data ) {
+					buf.putInt( width );
+					buf.putFloat( v );
+				}
+				break;
+			default:
+				throw new IllegalArgumentException( "No flat array encoding for type OID " + elementOid );
+		}
+		return buf.array();
+	}
+
+	/**
+	 * Writes a one-dimensional array: dimension count, null flag, element type, length, lower bound,
+	 * then length-prefixed elements, with -1 for null.
+	 *
+	 * @param elementOid Element type OID.
+	 * @param values Elements. May contain nulls.
+	 * @return the binary representation
+	 */
+	public static byte[] encode(int elementOid, Object[] values) {
+		final int width = width( elementOid );
+		int nulls = 0;
+		for ( Object v : values ) {
+			if ( v == null ) {
+				nulls ++;
+			}
+		}
+		ByteBuffer buf = ByteBuffer.allocate( 20 + values.length * 4 + ( values.length - nulls ) * width );
+		buf.putInt( 1 );
+		buf.putInt( nulls > 0 ? 1 : 0 );
+		buf.putInt( elementOid );
+		buf.putInt( values.length );
+		buf.putInt( 1 );
+		for ( Object v : values ) {
+			if ( v == null ) {
+				buf.putInt( -1 );
+				continue;
+			}
+			buf.putInt( width );
+			switch ( elementOid ) {
+				case INT2:
+					buf.putShort( (Short) v );
+					break;
+				case INT4:
+					buf.putInt( (Integer) v );
+					break;
+				case INT8:
+					buf.putLong( (Long) v );
+					break;
+				case FLOAT4:
+					buf.putFloat( (Float) v );
+					break;
+				case FLOAT8:
+					buf.putDouble( (Double) v );
+					break;
+				default:
+					UUID uuid = (UUID) v;
+					buf.putLong( uuid.getMostSignificantBits() );
+					buf.putLong( uuid.getLeastSignificantBits() );
+			}
+		}
+		return buf.array();
+	}
+}
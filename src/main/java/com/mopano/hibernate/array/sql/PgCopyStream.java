@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.sql;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * A {@code COPY ... FROM STDIN} operation of PgJDBC. Writes block while the server is not reading,
+ * so a producer writing through it never gets ahead of the database by more than its own buffer.
+ * Like {@link PgJdbcSupport}, the driver classes are only touched on PgJDBC connections.
+ *
+ * @author Yordan Gigov
+ */
+public final class PgCopyStream implements AutoCloseable {
+
+	private final CopyIn copyIn;
+	private boolean finished;
+
+	private PgCopyStream(CopyIn copyIn) {
+		this.copyIn = copyIn;
+	}
+
+	/**
+	 * @param conn Connection. Must satisfy {@link PgJdbcSupport#isPgConnection(java.sql.Connection)}.
+	 * @param sql The {@code COPY ... FROM STDIN} statement.
+	 * @return the started operation
+	 * @throws SQLException if the server rejects the statement
+	 */
+	public static PgCopyStream open(Connection conn, String sql) throws SQLException {
+		return new PgCopyStream( conn.unwrap( PGConnection.class ).getCopyAPI().copyIn( sql ) );
+	}
+
+	/**
+	 * @param text Rows in the COPY text format.
+	 * @throws SQLException if sending fails
+	 */
+	public void write(CharSequence text) throws SQLException {
+		byte[] bytes = text.toString().getBytes( StandardCharsets.UTF_8 );
+		copyIn.writeToCopy( bytes, 0, bytes.length );
+	}
+
+	/**
+	 * @return number of rows the server copied
+	 * @throws SQLException if the server rejects the data
+	 */
+	public long finish() throws SQLException {
+		finished = true;
+		return copyIn.endCopy();
+	}
+
+	/**
+	 * Cancels the operation, unless it was finished.
+	 *
+	 * @throws SQLException if cancelling fails
+	 */
+	@Override
+	public void close() throws SQLException {
+		if ( ! finished && copyIn.isActive() ) {
+			copyIn.cancelCopy();
+		}
+	}
+}
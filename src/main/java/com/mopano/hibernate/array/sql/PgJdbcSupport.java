@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.array.sql;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.postgresql.PGConnection;
+import org.postgresql.jdbc.PgArray;
+import org.postgresql.util.PGbytea;
+import org.postgresql.util.PGobject;
+
+/**
+ * Access to the PgJDBC driver extensions. The driver is an optional dependency,
+ * so nothing in here may touch its classes unless {@link #isAvailable()} is true.
+ *
+ * @author Yordan Gigov
+ */
+public final class PgJdbcSupport {
+
+	private static final boolean AVAILABLE = detect();
+
+	private PgJdbcSupport() {
+	}
+
+	private static boolean detect() {
+		try {
+			Class.forName( "org.postgresql.PGConnection", false, PgJdbcSupport.class.getClassLoader() );
+			return true;
+		}
+		catch ( ClassNotFoundException | LinkageError ex ) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return true if the PgJDBC driver is visible to this library
+	 */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	/**
+	 * @param conn Connection to check.
+	 * @return true if the connection is, or wraps, a PgJDBC connection
+	 * @throws SQLException when the connection is closed
+	 */
+	public static boolean isPgConnection(Connection conn) throws SQLException {
+		return AVAILABLE && conn.isWrapperFor( PGConnection.class );
+	}
+
+	/**
+	 * Creates an array from {@code long[]}, {@code int[]}, {@code short[]}, {@code double[]},
+	 * {@code float[]} or {@code boolean[]} without boxing the elements.
+	 * The caller must make sure {@link #isPgConnection(java.sql.Connection)} is true.
+	 *
+	 * @param conn PgJDBC connection, or a wrapper of one.
+	 * @param typeName Element type name.
+	 * @param elements Primitive array.
+	 * @return driver array
+	 * @throws SQLException if the driver cannot create the array
+	 */
+	public static java.sql.Array createPrimitiveArrayOf(Connection conn, String typeName, Object elements) throws SQLException {
+		return conn.unwrap( PGConnection.class ).createArrayOf( typeName, elements );
+	}
+
+	/**
+	 * Gets the array literal as the server sent it, so it can be parsed straight into the target type
+	 * instead of through the boxed elements of {@link java.sql.Array#getArray()}.
+	 *
+	 * @param array Array read from a result set.
+	 * @return the text, or null if the array is not a text format PgJDBC array
+	 */
+	public static String textOf(java.sql.Array array) {
+		if ( AVAILABLE && array instanceof PgArray && ! ( (PgArray) array ).isBinary() ) {
+			return array.toString();
+		}
+		return null;
+	}
+
+	/**
+	 * PgJDBC returns the elements of {@code bytea[]} as {@link PGobject}s holding the server's text.
+	 *
+	 * @param elements Elements returned by {@link java.sql.Array#getArray()}.
+	 * @return the same elements, or a copy with the {@code bytea} elements decoded to {@code byte[]}
+	 * @throws SQLException if an element is not valid {@code bytea} text
+	 */
+	public static Object[] decodeBytea(Object[] elements) throws SQLException {
+		if ( ! AVAILABLE || elements.getClass() != Object[].class && elements.getClass() != PGobject[].class ) {
+			// typed arrays, such as the Long[] of a bigint[], hold no such elements
+			return elements;
+		}
+		Object[] decoded = elements;
+		for ( int i = 0; i < elements.length; i++ ) {
+			if ( elements[i] instanceof PGobject && "bytea".equals( ( (PGobject) elements[i] ).getType() ) ) {
+				if ( decoded == elements ) {
+					decoded = new Object[elements.length];
+					System.arraycopy( elements, 0, decoded, 0, elements.length );
+				}
+				String text = ( (PGobject) elements[i] ).getValue();
+				decoded[i] = text == null ? null : PGbytea.toBytes( text.getBytes( StandardCharsets.US_ASCII ) );
+			}
+		}
+		return decoded;
+	}
+
+	/**
+	 * PgJDBC writes {@code byte[]} elements of {@link Connection#createArrayOf(java.lang.String, java.lang.Object[])}
+	 * as nested arrays of numbers, so {@code bytea[]} elements are passed in the server's hex format instead.
+	 *
+	 * @param elements Array elements, {@code byte[]} or null.
+	 * @return the elements as {@code \x} hex strings
+	 */
+	public static Object[] encodeBytea(Object[] elements) {
+		final char[] digits = "0123456789abcdef".toCharArray();
+		Object[] encoded = new Object[elements.length];
+		for ( int i = 0; i < elements.length; i++ ) {
+			byte[] bytes = (byte[]) elements[i];
+			if ( bytes != null ) {
+				char[] hex = new char[2 + ( bytes.length << 1 )];
+				hex[0] = '\\';
+				hex[1] = 'x';
+				for ( int j = 0; j < bytes.length; j++ ) {
+					hex[2 + ( j << 1 )] = digits[( bytes[j] >> 4 ) & 0xF];
+					hex[3 + ( j << 1 )] = digits[bytes[j] & 0xF];
+				}
+				encoded[i] = new String( hex );
+			}
+		}
+		return encoded;
+	}
+}
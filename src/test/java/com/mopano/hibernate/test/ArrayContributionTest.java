@@ -7,12 +7,16 @@
  */
 package com.mopano.hibernate.test;
 
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
 import java.io.Serializable;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -40,7 +44,12 @@ import javax.persistence.Id;
 import javax.persistence.Persistence;
 import javax.persistence.Table;
 
+import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.LongType;
+import org.hibernate.type.NumericBooleanType;
+import org.hibernate.type.UUIDBinaryType;
+import org.hibernate.type.YesNoType;
 import org.jboss.logging.Logger;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -97,6 +106,12 @@ public class ArrayContributionTest {
 			entity.offsettimes = new OffsetTime[]{OffsetTime.of(LocalTime.NOON, ZoneOffset.UTC), OffsetTime.of(LocalTime.NOON, ZoneOffset.ofHours(-7))};
 			entity.durations = new Duration[] {Duration.ofHours(36)};
 			entity.classes = new Class[] {MyEntity.class, UUID.class};
+			entity.primitivelongs = new long[]{ 55L, Long.MIN_VALUE, 0L, Long.MAX_VALUE };
+			entity.primitiveints = new int[]{ 41, 2, -2 };
+			entity.primitiveshorts = new short[]{ 2, 33, -3 };
+			entity.primitivedoubles = new double[]{ 33.5, 13.0, 0.0, Double.NaN };
+			entity.primitivefloats = new float[]{ 30.0f, 12.5f, -2.0f };
+			entity.primitivebools = new boolean[]{ false, true, true };
 			LOGGER.info("Persisting entity: " + entity);
 			em.persist(entity);
 			em.flush();
@@ -144,6 +159,12 @@ public class ArrayContributionTest {
 			entity1.offsettimes = new OffsetTime[]{OffsetTime.of(LocalTime.NOON, ZoneOffset.UTC), OffsetTime.of(LocalTime.NOON, ZoneOffset.ofHours(-7))};
 			entity1.durations = new Duration[] {Duration.ofHours(36)};
 			entity1.classes = new Class[] {MyEntity.class, UUID.class};
+			entity1.primitivelongs = new long[]{ 55L, Long.MIN_VALUE, 0L, Long.MAX_VALUE };
+			entity1.primitiveints = new int[]{ 41, 2, -2 };
+			entity1.primitiveshorts = new short[]{ 2, 33, -3 };
+			entity1.primitivedoubles = new double[]{ 33.5, 13.0, 0.0, Double.NaN };
+			entity1.primitivefloats = new float[]{ 30.0f, 12.5f, -2.0f };
+			entity1.primitivebools = new boolean[]{ false, true, true };
 			MyEntity entity2 = new MyEntity();
 			entity2.id = 2l;
 			MyEntity me1 = em.find(MyEntity.class, new Long(1));
@@ -180,6 +201,11 @@ public class ArrayContributionTest {
 					.setParameter("dt", dates)
 					.getResultList();
 			assertEquals(ent.size(), 1);
+			LOGGER.info("Testing primitive long array parameter in non-native query");
+			ent = em.createQuery("SELECT e FROM MyEntity e WHERE e.primitivelongs = :l", MyEntity.class)
+					.setParameter("l", new long[]{ 55L, Long.MIN_VALUE, 0L, Long.MAX_VALUE })
+					.getResultList();
+			assertEquals(ent.size(), 1);
 		}
 		finally {
 			if (em.getTransaction() != null && em.getTransaction().isActive()) {
@@ -190,6 +216,37 @@ public class ArrayContributionTest {
 
 	}
 
+	@Test
+	public void testServerText() {
+		// the element class alone does not tell what the column's text looks like
+		assertTrue(new GenericArrayTypeDescriptor<>(LongType.INSTANCE).readsServerText());
+		assertFalse(new GenericArrayTypeDescriptor<>(UUIDBinaryType.INSTANCE).readsServerText());
+		assertFalse(new GenericArrayTypeDescriptor<>(YesNoType.INSTANCE).readsServerText());
+		assertFalse(new GenericArrayTypeDescriptor<>(NumericBooleanType.INSTANCE).readsServerText());
+
+		UUID uuid = UUID.fromString("bb6afa0a-0160-4de7-be14-708bea53ae51");
+		EntityManager em = emf.createEntityManager();
+		try {
+			SessionImplementor session = em.unwrap(SessionImplementor.class);
+			session.doWork(conn -> {
+				try (Statement st = conn.createStatement();
+						ResultSet rs = st.executeQuery("SELECT ARRAY[decode('" + uuid.toString().replace("-", "")
+								+ "', 'hex'), NULL], CAST(ARRAY['Y', 'N'] AS char(1)[]), ARRAY[1, 0]")) {
+					assertTrue(rs.next());
+					assertArrayEquals(new UUID[]{ uuid, null },
+							new GenericArrayTypeDescriptor<>(UUIDBinaryType.INSTANCE).wrap(rs.getArray(1), session));
+					assertArrayEquals(new Boolean[]{ true, false },
+							new GenericArrayTypeDescriptor<>(YesNoType.INSTANCE).wrap(rs.getArray(2), session));
+					assertArrayEquals(new Boolean[]{ true, false },
+							new GenericArrayTypeDescriptor<>(NumericBooleanType.INSTANCE).wrap(rs.getArray(3), session));
+				}
+			});
+		}
+		finally {
+			em.close();
+		}
+	}
+
 	@Entity(name = "MyEntity")
 	@Table(name = "array_entity")
 	@SuppressWarnings("PersistenceUnitPresent")
@@ -243,6 +300,18 @@ public class ArrayContributionTest {
 		public Duration[] durations;
 		@Column(columnDefinition = "varchar array")
 		public Class[] classes;
+		@Column(columnDefinition = "bigint array")
+		public long[] primitivelongs;
+		@Column(columnDefinition = "integer array")
+		public int[] primitiveints;
+		@Column(columnDefinition = "smallint array")
+		public short[] primitiveshorts;
+		@Column(columnDefinition = "double precision array")
+		public double[] primitivedoubles;
+		@Column(columnDefinition = "real array")
+		public float[] primitivefloats;
+		@Column(columnDefinition = "boolean array")
+		public boolean[] primitivebools;
 
 		@Override
 		public boolean equals(Object other) {
@@ -391,6 +460,30 @@ public class ArrayContributionTest {
 				LOGGER.error("locales differ " + Arrays.toString(this.locales) + " != " + Arrays.toString(that.locales));
 				return false;
 			}
+			if (!Arrays.equals(this.primitivelongs, that.primitivelongs)) {
+				LOGGER.error("primitivelongs differ " + Arrays.toString(this.primitivelongs) + " != " + Arrays.toString(that.primitivelongs));
+				return false;
+			}
+			if (!Arrays.equals(this.primitiveints, that.primitiveints)) {
+				LOGGER.error("primitiveints differ " + Arrays.toString(this.primitiveints) + " != " + Arrays.toString(that.primitiveints));
+				return false;
+			}
+			if (!Arrays.equals(this.primitiveshorts, that.primitiveshorts)) {
+				LOGGER.error("primitiveshorts differ " + Arrays.toString(this.primitiveshorts) + " != " + Arrays.toString(that.primitiveshorts));
+				return false;
+			}
+			if (!Arrays.equals(this.primitivedoubles, that.primitivedoubles)) {
+				LOGGER.error("primitivedoubles differ " + Arrays.toString(this.primitivedoubles) + " != " + Arrays.toString(that.primitivedoubles));
+				return false;
+			}
+			if (!Arrays.equals(this.primitivefloats, that.primitivefloats)) {
+				LOGGER.error("primitivefloats differ " + Arrays.toString(this.primitivefloats) + " != " + Arrays.toString(that.primitivefloats));
+				return false;
+			}
+			if (!Arrays.equals(this.primitivebools, that.primitivebools)) {
+				LOGGER.error("primitivebools differ " + Arrays.toString(this.primitivebools) + " != " + Arrays.toString(that.primitivebools));
+				return false;
+			}
 			return Objects.equals(this.id, that.id);
 		}
 
@@ -420,7 +513,13 @@ public class ArrayContributionTest {
 					Arrays.hashCode(durations),
 					Arrays.hashCode(classes),
 					Arrays.hashCode(urls),
-					Arrays.hashCode(locales)
+					Arrays.hashCode(locales),
+					Arrays.hashCode(primitivelongs),
+					Arrays.hashCode(primitiveints),
+					Arrays.hashCode(primitiveshorts),
+					Arrays.hashCode(primitivedoubles),
+					Arrays.hashCode(primitivefloats),
+					Arrays.hashCode(primitivebools)
 			);
 		}
 
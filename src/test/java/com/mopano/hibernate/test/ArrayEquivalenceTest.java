@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.hibernate.type.BigDecimalType;
+import org.hibernate.type.LocalDateType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.StringType;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArrayEquivalenceTest {
+
+	private static <T> void assertEquivalent(GenericArrayTypeDescriptor<T> descriptor, T[] one, T[] another) {
+		assertTrue(descriptor.areEqual(one, another));
+		assertTrue(descriptor.areEqual(another, one));
+		assertEquals(descriptor.extractHashCode(one), descriptor.extractHashCode(another));
+	}
+
+	@Test
+	public void testSpecialized() {
+		GenericArrayTypeDescriptor<Long> longs = new GenericArrayTypeDescriptor<>(LongType.INSTANCE);
+		assertEquivalent(longs, new Long[]{ 1000L, null, -5L }, new Long[]{ new Long(1000L), null, new Long(-5L) });
+		assertFalse(longs.areEqual(new Long[]{ 1L, null }, new Long[]{ 1L, 2L }));
+		assertFalse(longs.areEqual(new Long[]{ 1L, 2L }, new Long[]{ 1L, 3L }));
+		assertEquals(java.util.Arrays.hashCode(new Long[]{ 7L, null }), longs.extractHashCode(new Long[]{ 7L, null }));
+
+		GenericArrayTypeDescriptor<String> strings = new GenericArrayTypeDescriptor<>(StringType.INSTANCE);
+		assertEquivalent(strings, new String[]{ "a", null }, new String[]{ new String("a"), null });
+		assertFalse(strings.areEqual(new String[]{ "a" }, new String[]{ "b" }));
+
+		GenericArrayTypeDescriptor<UUID> uuids = new GenericArrayTypeDescriptor<>(PostgresUUIDType.INSTANCE);
+		UUID uuid = UUID.randomUUID();
+		assertEquivalent(uuids, new UUID[]{ uuid }, new UUID[]{ UUID.fromString(uuid.toString()) });
+		assertFalse(uuids.areEqual(new UUID[]{ uuid }, new UUID[]{ UUID.randomUUID() }));
+	}
+
+	@Test
+	public void testDescriptorConsistent() {
+		GenericArrayTypeDescriptor<BigDecimal> decimals = new GenericArrayTypeDescriptor<>(BigDecimalType.INSTANCE);
+		// equal for BigDecimalTypeDescriptor, not for BigDecimal.equals
+		assertEquivalent(decimals, new BigDecimal[]{ new BigDecimal("1.0"), null }, new BigDecimal[]{ new BigDecimal("1.00"), null });
+		assertFalse(decimals.areEqual(new BigDecimal[]{ new BigDecimal("1.0") }, new BigDecimal[]{ new BigDecimal("1.01") }));
+
+		GenericArrayTypeDescriptor<LocalDate> dates = new GenericArrayTypeDescriptor<>(LocalDateType.INSTANCE);
+		assertEquivalent(dates, new LocalDate[]{ LocalDate.of(2018, 1, 2) }, new LocalDate[]{ LocalDate.parse("2018-01-02") });
+	}
+
+	@Test
+	public void testMemoizedHashes() {
+		GenericArrayTypeDescriptor<Long> longs = new GenericArrayTypeDescriptor<>(LongType.INSTANCE);
+		GenericArrayTypeDescriptor<Long> memoized = longs.withMemoizedHashes();
+		assertSame(memoized, memoized.withMemoizedHashes());
+		Long[] one = new Long[GenericArrayTypeDescriptor.MEMOIZED_LENGTH];
+		Long[] another = new Long[one.length];
+		for (int i = 0; i < one.length; i++) {
+			one[i] = (long) i;
+			another[i] = (long) -i;
+		}
+		assertEquals(longs.extractHashCode(one), memoized.extractHashCode(one));
+		assertEquals(longs.extractHashCode(one), memoized.extractHashCode(one));
+		memoized.extractHashCode(another);
+		assertFalse(memoized.areEqual(one, another));
+		assertTrue(memoized.areEqual(one, one.clone()));
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.test.ArrayContributionTest.MyEntity;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArrayEventTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate",
+				Collections.singletonMap("hibernate.arrays.event_threshold", "4"));
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testEvents() throws Exception {
+		Set<String> events = new HashSet<>();
+		Path file = Files.createTempFile("arrays", ".jfr");
+		try (Recording recording = new Recording()) {
+			for (String name : new String[]{ "Bind", "Extract", "Compare", "Copy" }) {
+				recording.enable("com.mopano.hibernate.array." + name).withoutThreshold();
+			}
+			recording.start();
+
+			EntityManager em = emf.createEntityManager();
+			em.getTransaction().begin();
+			MyEntity entity = new MyEntity();
+			entity.id = 1L;
+			entity.longs = new Long[]{ 1L, 2L, 3L, 4L, 5L };
+			entity.strings = new String[]{ "a", "b" };
+			em.persist(entity);
+			em.getTransaction().commit();
+			em.clear();
+
+			em.getTransaction().begin();
+			MyEntity loaded = em.find(MyEntity.class, 1L);
+			loaded.longs[0] = 0L;
+			em.getTransaction().commit();
+			em.close();
+
+			recording.stop();
+			recording.dump(file);
+			for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+				String name = event.getEventType().getName();
+				if (name.startsWith("com.mopano.hibernate.array.")) {
+					events.add(name.substring(27) + ":" + event.getString("arrayType") + ":" + event.getInt("elements"));
+				}
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+		assertTrue(events.toString(), events.contains("Bind:Long[]:5"));
+		assertTrue(events.toString(), events.contains("Extract:Long[]:5"));
+		assertTrue(events.toString(), events.contains("Copy:Long[]:5"));
+		assertTrue(events.toString(), events.contains("Compare:Long[]:5"));
+		for (String event : events) {
+			assertFalse(event, event.contains("String[]"));
+		}
+	}
+}
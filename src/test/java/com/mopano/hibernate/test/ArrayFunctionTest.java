@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.test.ArrayContributionTest.MyEntity;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArrayFunctionTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate");
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		long[][] values = { { 1, 2, 3 }, { 3, 4 }, { 5 } };
+		for (int i = 0; i < values.length; i++) {
+			MyEntity entity = new MyEntity();
+			entity.id = i + 1L;
+			entity.longs = new Long[values[i].length];
+			for (int j = 0; j < values[i].length; j++) {
+				entity.longs[j] = values[i][j];
+			}
+			em.persist(entity);
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	private static List<Long> ids(EntityManager em, String where, String name, Object value) {
+		return em.createQuery("select e.id from MyEntity e where " + where + " order by e.id", Long.class)
+				.setParameter(name, value)
+				.getResultList();
+	}
+
+	@Test
+	public void testHql() {
+		EntityManager em = emf.createEntityManager();
+		assertEquals(Arrays.asList(1L), ids(em, "array_contains(e.longs, :v) = true", "v", new Long[]{ 3L, 1L }));
+		assertEquals(Arrays.asList(2L, 3L), ids(em, "array_contained(e.longs, :v) = true", "v", new Long[]{ 3L, 4L, 5L }));
+		assertEquals(Arrays.asList(1L, 2L), ids(em, "array_overlaps(e.longs, :v) = true", "v", new Long[]{ 3L, 7L }));
+		assertEquals(Arrays.asList(3L), ids(em, "array_any(:v, e.longs) = true", "v", 5L));
+		assertEquals(Arrays.asList(2L), ids(em, "cardinality(e.longs) = :v", "v", 2));
+		assertEquals(Arrays.asList(1L), ids(em, "array_length(e.longs, 1) > :v", "v", 2));
+		em.close();
+	}
+
+	@Test
+	public void testCriteria() {
+		EntityManager em = emf.createEntityManager();
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> q = cb.createQuery(Long.class);
+		Root<MyEntity> root = q.from(MyEntity.class);
+		q.select(root.get("id"))
+				.where(cb.isTrue(cb.function("array_overlaps", Boolean.class, root.get("longs"), cb.parameter(Long[].class, "v"))))
+				.orderBy(cb.asc(root.get("id")));
+		assertEquals(Arrays.asList(2L, 3L), em.createQuery(q).setParameter("v", new Long[]{ 4L, 5L }).getResultList());
+		em.close();
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.java.ArrayLiteralDecoder;
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.PrimitiveDoubleArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.PrimitiveLongArrayTypeDescriptor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.type.BigDecimalType;
+import org.hibernate.type.BooleanType;
+import org.hibernate.type.DoubleType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.StringType;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArrayLiteralTest {
+
+	private static List<String> decode(String literal) {
+		final List<String> elements = new ArrayList<>();
+		ArrayLiteralDecoder.decode(literal, new ArrayLiteralDecoder.Handler() {
+			@Override
+			public void element(CharSequence chars, int start, int end) {
+				elements.add(chars.subSequence(start, end).toString());
+			}
+
+			@Override
+			public void nullElement() {
+				elements.add(null);
+			}
+		});
+		return elements;
+	}
+
+	@Test
+	public void testDecodeElements() {
+		assertEquals(new ArrayList<String>(), decode("{}"));
+		assertEquals(new ArrayList<String>(), decode(" { } "));
+		assertEquals(java.util.Arrays.asList("1", "2", "3"), decode("{1,2,3}"));
+		assertEquals(java.util.Arrays.asList("a b", null, "NULL", null, "x"), decode("{ a b ,NULL,\"NULL\",null, x }"));
+		assertEquals(java.util.Arrays.asList("say \"hi\"", "back\\slash", "", "a,b"), decode("{\"say \\\"hi\\\"\",\"back\\\\slash\",\"\",\"a,b\"}"));
+		assertEquals(java.util.Arrays.asList("es,caped  ", "x"), decode("{es\\,caped\\ \\  ,x}"));
+		assertEquals(java.util.Arrays.asList("{1,2}", "{\"}\",NULL}"), decode("{{1,2},{\"}\",NULL}}"));
+		assertEquals(java.util.Arrays.asList("1", "2"), decode("[0:1]={1,2}"));
+		// legacy: nothing between commas is null
+		assertEquals(java.util.Arrays.asList("1", null, "2"), decode("{1,,2}"));
+	}
+
+	@Test
+	public void testDecodeMalformed() {
+		for (String bad : new String[] { "", "{", "1,2", "{\"unterminated}", "{a\"b}", "{{1,2}", "{1 2 \"3\"}" }) {
+			try {
+				decode(bad);
+				fail("Should not parse: " + bad);
+			}
+			catch (IllegalArgumentException ex) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testFromString() {
+		assertArrayEquals(new Long[] { 55L, 12L, null, Long.MIN_VALUE, Long.MAX_VALUE },
+				new GenericArrayTypeDescriptor<>(LongType.INSTANCE).fromString("{55,\"12\",NULL,-9223372036854775808,9223372036854775807}"));
+		assertArrayEquals(new String[] { "512", "", null, "null" },
+				new GenericArrayTypeDescriptor<>(StringType.INSTANCE).fromString("{\"512\",\"\",null,\"null\"}"));
+		assertArrayEquals(new BigDecimal[] { new BigDecimal("-0.010"), new BigDecimal("444444444.4444444442111"), new BigDecimal("1E+3") },
+				new GenericArrayTypeDescriptor<>(BigDecimalType.INSTANCE).fromString("{-0.010,444444444.4444444442111,1E+3}"));
+		assertArrayEquals(new Double[] { 0.1, -0.0, 1e300, Double.NaN, 123456.789 },
+				new GenericArrayTypeDescriptor<>(DoubleType.INSTANCE).fromString("{0.1,-0,1e300,NaN,123456.789}"));
+		assertArrayEquals(new Boolean[] { true, false, null },
+				new GenericArrayTypeDescriptor<>(BooleanType.INSTANCE).fromString("{t,false,NULL}"));
+		assertArrayEquals(new UUID[] { UUID.fromString("bb6afa0a-0160-4de7-be14-708bea53ae51") },
+				new GenericArrayTypeDescriptor<>(PostgresUUIDType.INSTANCE).fromString("{BB6AFA0A-0160-4DE7-BE14-708BEA53AE51}"));
+		assertArrayEquals(new long[] { 1L, -2L, 3L },
+				PrimitiveLongArrayTypeDescriptor.INSTANCE.fromString("{1, -2 ,3}"));
+		assertArrayEquals(new double[] { 33.5, 13.0, 0.0, Double.POSITIVE_INFINITY },
+				PrimitiveDoubleArrayTypeDescriptor.INSTANCE.fromString("{33.5,13,0,Infinity}"), 0.0);
+	}
+
+	@Test
+	public void testToString() throws Exception {
+		assertEquals("{1,NULL,-9223372036854775808}",
+				new GenericArrayTypeDescriptor<>(LongType.INSTANCE).toString(new Long[] { 1L, null, Long.MIN_VALUE }));
+		assertEquals("{\"a b\",\"say \\\"hi\\\"\",\"back\\\\slash\",\"\",NULL}",
+				new GenericArrayTypeDescriptor<>(StringType.INSTANCE).toString(new String[] { "a b", "say \"hi\"", "back\\slash", "", null }));
+		assertEquals("{t,f}", new GenericArrayTypeDescriptor<>(BooleanType.INSTANCE).toString(new Boolean[] { true, false }));
+		assertEquals("{}", PrimitiveLongArrayTypeDescriptor.INSTANCE.toString(new long[0]));
+		UUID uuid = UUID.randomUUID();
+		StringBuilder sb = new StringBuilder("x");
+		new GenericArrayTypeDescriptor<>(PostgresUUIDType.INSTANCE).appendTo(new UUID[] { uuid }, sb);
+		assertEquals("x{" + uuid + "}", sb.toString());
+		// round trips
+		String[] strings = { "{", "}", ",", "\"", "\\", " NULL ", "null", "" };
+		GenericArrayTypeDescriptor<String> stringDescriptor = new GenericArrayTypeDescriptor<>(StringType.INSTANCE);
+		assertArrayEquals(strings, stringDescriptor.fromString(stringDescriptor.toString(strings)));
+		Double[] doubles = { 0.1, -0.0, 1e300, Double.MIN_VALUE, null };
+		GenericArrayTypeDescriptor<Double> doubleDescriptor = new GenericArrayTypeDescriptor<>(DoubleType.INSTANCE);
+		assertArrayEquals(doubles, doubleDescriptor.fromString(doubleDescriptor.toString(doubles)));
+		BigDecimal[] decimals = { new BigDecimal("1E+30"), new BigDecimal("-0.00100") };
+		GenericArrayTypeDescriptor<BigDecimal> decimalDescriptor = new GenericArrayTypeDescriptor<>(BigDecimalType.INSTANCE);
+		assertArrayEquals(decimals, decimalDescriptor.fromString(decimalDescriptor.toString(decimals)));
+		double[] primitives = { 33.5, -1e-300, Double.NaN };
+		assertArrayEquals(primitives, PrimitiveDoubleArrayTypeDescriptor.INSTANCE.fromString(PrimitiveDoubleArrayTypeDescriptor.INSTANCE.toString(primitives)), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPrimitiveNull() {
+		PrimitiveLongArrayTypeDescriptor.INSTANCE.fromString("{1,NULL}");
+	}
+}
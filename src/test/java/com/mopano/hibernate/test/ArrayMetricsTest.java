@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.ArrayMetrics;
+import com.mopano.hibernate.test.ArrayContributionTest.MyEntity;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArrayMetricsTest {
+
+	private static final Recorder RECORDER = new Recorder();
+	private static EntityManagerFactory emf;
+
+	public static class Recorder implements ArrayMetrics {
+
+		final List<String> bound = new CopyOnWriteArrayList<>();
+		final List<String> extracted = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void bound(Class<?> arrayClass, int elements, long conversionNanos, long createNanos) {
+			assertTrue(conversionNanos >= 0 && createNanos >= 0);
+			bound.add(arrayClass.getSimpleName() + ":" + elements);
+		}
+
+		@Override
+		public void extracted(Class<?> arrayClass, int elements, long nanos) {
+			assertTrue(nanos >= 0);
+			extracted.add(arrayClass.getSimpleName() + ":" + elements);
+		}
+	}
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate",
+				Collections.singletonMap("hibernate.arrays.metrics", RECORDER));
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testBindAndExtract() {
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		MyEntity entity = new MyEntity();
+		entity.id = 1L;
+		entity.longs = new Long[]{ 1L, 2L, 3L };
+		entity.strings = new String[]{ "a", "b" };
+		em.persist(entity);
+		em.getTransaction().commit();
+		em.clear();
+
+		assertTrue(RECORDER.bound.contains("Long[]:3"));
+		assertTrue(RECORDER.bound.contains("String[]:2"));
+
+		MyEntity loaded = em.find(MyEntity.class, 1L);
+		assertArrayEquals(entity.longs, loaded.longs);
+		assertTrue(RECORDER.extracted.contains("Long[]:3"));
+		assertTrue(RECORDER.extracted.contains("String[]:2"));
+		em.close();
+	}
+}
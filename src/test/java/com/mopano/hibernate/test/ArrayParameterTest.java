@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.test.ArrayContributionTest.MyEntity;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.hibernate.cache.spi.QueryKey;
+import org.hibernate.engine.spi.QueryParameters;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.Type;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArrayParameterTest {
+
+	private static EntityManagerFactory emf;
+	private static final UUID[] UUIDS = { UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID() };
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate");
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		for (int i = 0; i < UUIDS.length; i++) {
+			MyEntity entity = new MyEntity();
+			entity.id = i + 1L;
+			entity.uuids = new UUID[]{ UUIDS[i] };
+			entity.strings = new String[]{ "tag" + i };
+			em.persist(entity);
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testHql() {
+		EntityManager em = emf.createEntityManager();
+		String hql = "select e.id from MyEntity e where array_any(e.id, :ids) = true order by e.id";
+		assertEquals(Arrays.asList(2L), em.createQuery(hql, Long.class).setParameter("ids", new Long[]{ 2L }).getResultList());
+		assertEquals(Arrays.asList(1L, 3L), em.createQuery(hql, Long.class).setParameter("ids", new Long[]{ 3L, 1L, 7L }).getResultList());
+		assertEquals(Collections.emptyList(), em.createQuery(hql, Long.class).setParameter("ids", new Long[0]).getResultList());
+		em.close();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testNative() {
+		EntityManager em = emf.createEntityManager();
+		List<Number> ids = em.createNativeQuery("select id from array_entity where id = ANY(?1) order by id")
+				.setParameter(1, new Long[]{ 1L, 2L })
+				.getResultList();
+		assertEquals(Arrays.asList(BigInteger.valueOf(1), BigInteger.valueOf(2)), toBigIntegers(ids));
+		ids = em.createNativeQuery("select id from array_entity where uuids[1] = ANY(?1) order by id")
+				.setParameter(1, new UUID[]{ UUIDS[2], UUID.randomUUID() })
+				.getResultList();
+		assertEquals(Arrays.asList(BigInteger.valueOf(3)), toBigIntegers(ids));
+		ids = em.createNativeQuery("select id from array_entity where strings[1] = ANY(?1) order by id")
+				.setParameter(1, new String[]{ "tag0", "tag2" })
+				.getResultList();
+		assertEquals(Arrays.asList(BigInteger.valueOf(1), BigInteger.valueOf(3)), toBigIntegers(ids));
+		em.close();
+	}
+
+	private static List<BigInteger> toBigIntegers(List<Number> values) {
+		BigInteger[] result = new BigInteger[values.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = BigInteger.valueOf(values.get(i).longValue());
+		}
+		return Arrays.asList(result);
+	}
+
+	private static QueryKey key(SharedSessionContractImplementor session, Type type, Object value) {
+		QueryParameters parameters = new QueryParameters(new Type[]{ type }, new Object[]{ value });
+		return QueryKey.generateQueryKey("select 1", parameters, null, session, null);
+	}
+
+	@Test
+	public void testQueryKey() {
+		EntityManager em = emf.createEntityManager();
+		SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+		SessionFactoryImplementor factory = session.getFactory();
+		Object[][] values = {
+			{ new Long[]{ 1L, null, 3L }, new Long[]{ 1L, null, 3L }, new Long[]{ 1L, null, 4L } },
+			{ new UUID[]{ UUIDS[0], UUIDS[1] }, new UUID[]{ UUIDS[0], UUIDS[1] }, new UUID[]{ UUIDS[1], UUIDS[0] } },
+			{ new String[]{ "a", "b" }, new String[]{ "a", "b" }, new String[]{ "a", "c" } },
+		};
+		for (Object[] row : values) {
+			Type type = factory.getTypeResolver().heuristicType(row[0].getClass().getName());
+			QueryKey one = key(session, type, row[0]);
+			QueryKey same = key(session, type, row[1]);
+			assertEquals(one, same);
+			assertEquals(one.hashCode(), same.hashCode());
+			assertFalse(one.equals(key(session, type, row[2])));
+		}
+		em.close();
+	}
+}
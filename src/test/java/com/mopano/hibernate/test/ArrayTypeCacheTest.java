@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.ArrayTypes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.dialect.PostgreSQL9Dialect;
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.InstantType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArrayTypeCacheTest {
+
+	private static StandardServiceRegistry registry() {
+		return new StandardServiceRegistryBuilder()
+				.applySetting("hibernate.dialect", PostgreSQL9Dialect.class.getName())
+				.applySetting("hibernate.temp.use_jdbc_metadata_defaults", "false")
+				.build();
+	}
+
+	@Test
+	public void testPerRegistry() {
+		StandardServiceRegistry one = registry();
+		StandardServiceRegistry another = registry();
+		try {
+			ArrayTypes<Long> longs = ArrayTypes.get(LongType.INSTANCE, one);
+			assertSame(longs, ArrayTypes.get(LongType.INSTANCE, one));
+			assertNotSame(longs, ArrayTypes.get(LongType.INSTANCE, another));
+			assertNotSame(ArrayTypes.get(InstantType.INSTANCE, one), ArrayTypes.get(InstantType.INSTANCE, one, java.sql.Timestamp.class));
+			ArrayTypes.release(one);
+			assertNotSame(longs, ArrayTypes.get(LongType.INSTANCE, one));
+		}
+		finally {
+			StandardServiceRegistryBuilder.destroy(one);
+			StandardServiceRegistryBuilder.destroy(another);
+		}
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		final List<StandardServiceRegistry> registries = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			registries.add(registry());
+		}
+		final AbstractStandardBasicType<?>[] baseTypes = { LongType.INSTANCE, StringType.INSTANCE, InstantType.INSTANCE };
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ArrayTypes<?>[]>> results = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				final StandardServiceRegistry registry = registries.get(i % registries.size());
+				results.add(executor.submit(new Callable<ArrayTypes<?>[]>() {
+					@Override
+					public ArrayTypes<?>[] call() {
+						ArrayTypes<?>[] types = new ArrayTypes<?>[baseTypes.length];
+						for (int j = 0; j < baseTypes.length; j++) {
+							types[j] = ArrayTypes.get(baseTypes[j], registry);
+						}
+						return types;
+					}
+				}));
+			}
+			Set<ArrayTypes<?>> distinct = Collections.newSetFromMap(new IdentityHashMap<ArrayTypes<?>, Boolean>());
+			for (int i = 0; i < results.size(); i++) {
+				ArrayTypes<?>[] types = results.get(i).get();
+				ArrayTypes<?>[] first = results.get(i % registries.size()).get();
+				for (int j = 0; j < types.length; j++) {
+					assertSame(first[j], types[j]);
+					distinct.add(types[j]);
+				}
+			}
+			assertEquals(registries.size() * baseTypes.length, distinct.size());
+		}
+		finally {
+			executor.shutdown();
+			for (StandardServiceRegistry registry : registries) {
+				StandardServiceRegistryBuilder.destroy(registry);
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.ArrayTypeContributor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.boot.model.TypeContributions;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.dialect.PostgreSQL9Dialect;
+import org.hibernate.type.BasicType;
+import org.hibernate.usertype.CompositeUserType;
+import org.hibernate.usertype.UserType;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArrayTypeFilterTest {
+
+	private static Set<String> contributedKeys(String types) {
+		StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder()
+				.applySetting("hibernate.dialect", PostgreSQL9Dialect.class.getName())
+				.applySetting("hibernate.temp.use_jdbc_metadata_defaults", "false");
+		if (types != null) {
+			builder.applySetting("hibernate.arrays.types", types);
+		}
+		StandardServiceRegistry registry = builder.build();
+		final Set<String> keys = new HashSet<>();
+		try {
+			new ArrayTypeContributor().contribute(new TypeContributions() {
+				@Override
+				public void contributeType(BasicType type) {
+					keys.addAll(Arrays.asList(type.getRegistrationKeys()));
+				}
+
+				@Override
+				public void contributeType(BasicType type, String... registrationKeys) {
+					keys.addAll(Arrays.asList(registrationKeys));
+				}
+
+				@Override
+				public void contributeType(UserType type, String... registrationKeys) {
+					keys.addAll(Arrays.asList(registrationKeys));
+				}
+
+				@Override
+				public void contributeType(CompositeUserType type, String... registrationKeys) {
+					keys.addAll(Arrays.asList(registrationKeys));
+				}
+			}, registry);
+		}
+		finally {
+			StandardServiceRegistryBuilder.destroy(registry);
+		}
+		return keys;
+	}
+
+	@Test
+	public void testAllowList() {
+		Set<String> keys = contributedKeys("Long, java.util.UUID double");
+		assertTrue(keys.contains("[Ljava.lang.Long;"));
+		assertTrue(keys.contains("imm_Long[]"));
+		assertTrue(keys.contains("lazy_Long[]"));
+		assertTrue(keys.contains("List<Long>"));
+		assertTrue(keys.contains("[Ljava.util.UUID;"));
+		assertTrue(keys.contains("[D"));
+		assertTrue(keys.contains("java.nio.DoubleBuffer"));
+		assertFalse(keys.contains("[Ljava.lang.String;"));
+		assertFalse(keys.contains("List<String>"));
+		assertFalse(keys.contains("[Ljava.util.Calendar;"));
+		assertFalse(keys.contains("[J"));
+		assertFalse(keys.contains("java.nio.LongBuffer"));
+	}
+
+	@Test
+	public void testDefault() {
+		Set<String> keys = contributedKeys(null);
+		assertTrue(keys.contains("[Ljava.lang.Long;"));
+		assertTrue(keys.contains("[Ljava.lang.String;"));
+		assertTrue(keys.contains("[Ljava.util.Calendar;"));
+		assertTrue(keys.contains("[J"));
+		assertTrue(keys.contains("java.nio.LongBuffer"));
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.sql.PgBinaryArrays;
+import com.mopano.hibernate.test.ArrayContributionTest.MyEntity;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.hibernate.Session;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BinaryArrayBindTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate",
+				Collections.singletonMap("hibernate.arrays.binary", "true"));
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testEncoding() {
+		EntityManager em = emf.createEntityManager();
+		try {
+			em.unwrap(Session.class).doWork(conn -> {
+				UUID uuid = UUID.fromString("bb6afa0a-0160-4de7-be14-708bea53ae51");
+				try (PreparedStatement st = conn.prepareStatement("SELECT ?::text, ?::text, ?::text")) {
+					st.setArray(1, PgBinaryArrays.create(conn, PgBinaryArrays.INT8, new Long[]{ Long.MIN_VALUE, null, 7L }));
+					st.setArray(2, PgBinaryArrays.create(conn, PgBinaryArrays.UUID_OID, new UUID[]{ uuid, null }));
+					st.setArray(3, PgBinaryArrays.create(conn, PgBinaryArrays.FLOAT8, new Double[]{ 0.5, -1e300 }));
+					try (ResultSet rs = st.executeQuery()) {
+						assertTrue(rs.next());
+						assertEquals("{-9223372036854775808,NULL,7}", rs.getString(1));
+						assertEquals("{" + uuid + ",NULL}", rs.getString(2));
+						assertEquals("{0.5,-1e+300}", rs.getString(3));
+					}
+				}
+			});
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	@Test
+	public void testWriteRead() {
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		MyEntity entity = new MyEntity();
+		entity.id = 1L;
+		entity.longs = new Long[]{ 55L, null, Long.MAX_VALUE };
+		entity.ints = new Integer[]{ 41, null, -2 };
+		entity.shorts = new Short[]{ 2, 33, null };
+		entity.doubles = new Double[]{ 33.5, null };
+		entity.reals = new Float[]{ 30.0f, -2.5f };
+		entity.uuids = new UUID[]{ UUID.randomUUID(), null };
+		try {
+			em.persist(entity);
+			em.getTransaction().commit();
+		}
+		finally {
+			if (em.getTransaction().isActive()) {
+				em.getTransaction().rollback();
+			}
+			em.close();
+		}
+
+		em = emf.createEntityManager();
+		try {
+			assertEquals(entity, em.find(MyEntity.class, 1L));
+			List<MyEntity> found = em.createQuery("SELECT e FROM MyEntity e WHERE e.uuids = :u", MyEntity.class)
+					.setParameter("u", entity.uuids)
+					.getResultList();
+			assertEquals(1, found.size());
+		}
+		finally {
+			em.close();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.java.DoubleBufferTypeDescriptor;
+import com.mopano.hibernate.array.java.FloatBufferTypeDescriptor;
+import com.mopano.hibernate.array.java.LongBufferTypeDescriptor;
+
+import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Id;
+import javax.persistence.Persistence;
+import javax.persistence.Table;
+
+import org.hibernate.type.descriptor.java.MutabilityPlan;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BufferArrayTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate");
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testLiterals() {
+		LongBufferTypeDescriptor longs = LongBufferTypeDescriptor.INSTANCE;
+		LongBuffer parsed = longs.fromString("{1, -2,\"3\"}");
+		assertTrue(parsed.isDirect());
+		assertEquals(LongBuffer.wrap(new long[]{ 1, -2, 3 }), parsed);
+		assertEquals("{1,-2,3}", longs.toString(parsed));
+		// the elements up to the limit make the value, whatever the position
+		LongBuffer window = LongBuffer.wrap(new long[]{ 9, 1, -2, 3, 9 }, 1, 3);
+		assertEquals("{9,1,-2,3}", longs.toString(window));
+		assertEquals("{1,-2,3}", longs.toString(window.slice()));
+		LongBuffer read = LongBuffer.wrap(new long[]{ 1, -2, 3 });
+		read.get();
+		assertTrue(longs.areEqual(parsed, read));
+		assertEquals(longs.extractHashCode(parsed), longs.extractHashCode(read));
+		assertEquals(parsed, longs.getMutabilityPlan().deepCopy(read));
+		assertEquals(0, longs.fromString("{}").remaining());
+
+		MutabilityPlan<FloatBuffer> plan = FloatBufferTypeDescriptor.INSTANCE.getMutabilityPlan();
+		FloatBuffer floats = FloatBuffer.wrap(new float[]{ 0.5f, Float.NaN });
+		FloatBuffer copy = plan.deepCopy(floats);
+		assertTrue(copy.isDirect());
+		assertEquals(floats, copy);
+		assertEquals(floats, plan.assemble(plan.disassemble(floats)));
+		try {
+			DoubleBufferTypeDescriptor.INSTANCE.fromString("{1,NULL}");
+			fail("null accepted");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testWriteRead() {
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		VectorEntity entity = new VectorEntity();
+		entity.id = 1L;
+		entity.longs = LongBuffer.wrap(new long[]{ Long.MIN_VALUE, 0, Long.MAX_VALUE });
+		entity.doubles = DoubleBuffer.wrap(new double[]{ 1e300, -0.5, Double.NaN });
+		entity.floats = FloatBuffer.wrap(new float[]{ 0.25f, Float.NEGATIVE_INFINITY });
+		em.persist(entity);
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		VectorEntity loaded = em.find(VectorEntity.class, 1L);
+		assertTrue(loaded.longs.isDirect());
+		assertEquals(entity.longs, loaded.longs);
+		assertEquals(entity.doubles, loaded.doubles);
+		assertEquals(entity.floats, loaded.floats);
+		// modified in place
+		loaded.floats.put(1, 2f);
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		loaded = em.find(VectorEntity.class, 1L);
+		assertEquals(FloatBuffer.wrap(new float[]{ 0.25f, 2f }), loaded.floats);
+		// relative reads move the position, but leave the value as it was
+		loaded.floats.get(new float[2]);
+		loaded.longs.get();
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		loaded = em.find(VectorEntity.class, 1L);
+		assertEquals(FloatBuffer.wrap(new float[]{ 0.25f, 2f }), loaded.floats);
+		assertEquals(entity.longs, loaded.longs);
+		em.close();
+	}
+
+	@Entity(name = "VectorEntity")
+	@Table(name = "vector_entity")
+	@SuppressWarnings("PersistenceUnitPresent")
+	public static class VectorEntity implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Id
+		public Long id;
+		@Column(columnDefinition = "bigint[]")
+		public LongBuffer longs;
+		@Column(columnDefinition = "double precision[]")
+		public DoubleBuffer doubles;
+		@Column(columnDefinition = "real[]")
+		public FloatBuffer floats;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.TrackedList;
+import com.mopano.hibernate.array.TrackedSet;
+import com.mopano.hibernate.array.TrackedSortedSet;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Id;
+import javax.persistence.Persistence;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Type;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CollectionArrayTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		Map<String, String> settings = new HashMap<>();
+		settings.put("hibernate.generate_statistics", "true");
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate", settings);
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testModificationCount() {
+		TrackedList<Long> list = TrackedList.wrap(new Long[]{ 1L, 2L, 3L, 4L });
+		TrackedList<Long> copy = list.copy();
+		assertTrue(copy.isUnmodifiedCopyOf(list));
+		assertFalse(list.isUnmodifiedCopyOf(copy));
+		list.set(0, 1L);
+		assertFalse(copy.isUnmodifiedCopyOf(list));
+		int count = list.getModificationCount();
+		list.subList(1, 3).clear();
+		assertEquals(Arrays.asList(1L, 4L), list);
+		assertTrue(list.getModificationCount() > count);
+		count = list.getModificationCount();
+		Iterator<Long> it = list.iterator();
+		it.next();
+		it.remove();
+		assertEquals(count + 1, list.getModificationCount());
+		Object[] array = list.toArray();
+		assertEquals(Object[].class, array.getClass());
+		array[0] = "any object";
+
+		TrackedSortedSet<Integer> sorted = TrackedSortedSet.wrap(new Integer[]{ 5, 1, 3 });
+		TrackedSortedSet<Integer> sortedCopy = sorted.copy();
+		assertTrue(sortedCopy.isUnmodifiedCopyOf(sorted));
+		sorted.headSet(3).add(0);
+		assertEquals(new TreeSet<>(Arrays.asList(0, 1, 3, 5)), sorted);
+		assertFalse(sortedCopy.isUnmodifiedCopyOf(sorted));
+
+		TrackedSet<String> set = TrackedSet.wrap(new String[]{ "b", "a", "b" });
+		assertEquals(Arrays.asList("b", "a"), Arrays.asList(set.toArray()));
+		assertEquals(Object[].class, set.toArray().getClass());
+		assertFalse(set.add("a"));
+		assertEquals(0, set.getModificationCount());
+	}
+
+	@Test
+	public void testDirtyChecking() {
+		Statistics stats = emf.unwrap(SessionFactoryImplementor.class).getStatistics();
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		TaggedEntity entity = new TaggedEntity();
+		entity.id = 1L;
+		entity.ids = Arrays.asList(3L, null, 1L);
+		entity.tags = new LinkedHashSet<>(Arrays.asList("x", "y"));
+		entity.ranks = new TreeSet<>(Arrays.asList(2, 1));
+		em.persist(entity);
+		em.getTransaction().commit();
+		em.close();
+
+		stats.clear();
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		TaggedEntity loaded = em.find(TaggedEntity.class, 1L);
+		assertTrue(loaded.ids instanceof TrackedList);
+		assertTrue(loaded.tags instanceof TrackedSet);
+		assertTrue(loaded.ranks instanceof TrackedSortedSet);
+		assertEquals(entity.ids, loaded.ids);
+		assertEquals(entity.tags, loaded.tags);
+		assertEquals(entity.ranks, loaded.ranks);
+		em.getTransaction().commit();
+		em.close();
+		assertEquals(0, stats.getEntityUpdateCount());
+
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		loaded = em.find(TaggedEntity.class, 1L);
+		loaded.ids.set(1, 2L);
+		loaded.tags.remove("x");
+		loaded.ranks.add(0);
+		em.getTransaction().commit();
+		em.close();
+		assertEquals(1, stats.getEntityUpdateCount());
+
+		em = emf.createEntityManager();
+		loaded = em.find(TaggedEntity.class, 1L);
+		assertEquals(Arrays.asList(3L, 2L, 1L), loaded.ids);
+		assertEquals(new LinkedHashSet<>(Arrays.asList("y")), loaded.tags);
+		assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2)), loaded.ranks);
+		em.close();
+	}
+
+	@Entity(name = "TaggedEntity")
+	@Table(name = "tagged_entity")
+	@SuppressWarnings("PersistenceUnitPresent")
+	public static class TaggedEntity implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Id
+		public Long id;
+		@Type(type = "List<Long>")
+		@Column(columnDefinition = "bigint[]")
+		public List<Long> ids;
+		@Type(type = "Set<String>")
+		@Column(columnDefinition = "text[]")
+		public Set<String> tags;
+		@Type(type = "SortedSet<Integer>")
+		@Column(columnDefinition = "integer[]")
+		public SortedSet<Integer> ranks;
+	}
+}
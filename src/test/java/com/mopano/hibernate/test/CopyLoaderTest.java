@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.ArrayTypes;
+import com.mopano.hibernate.array.CopyLoader;
+import com.mopano.hibernate.test.ArrayContributionTest.MyEntity;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.BigDecimalType;
+import org.hibernate.type.BinaryType;
+import org.hibernate.type.BooleanType;
+import org.hibernate.type.CalendarType;
+import org.hibernate.type.CurrencyType;
+import org.hibernate.type.DoubleType;
+import org.hibernate.type.DurationType;
+import org.hibernate.type.InstantType;
+import org.hibernate.type.LocalDateTimeType;
+import org.hibernate.type.LocalDateType;
+import org.hibernate.type.LocalTimeType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.NumericBooleanType;
+import org.hibernate.type.StringType;
+import org.hibernate.type.TextType;
+import org.hibernate.type.TimestampType;
+import org.hibernate.type.TrueFalseType;
+import org.hibernate.type.UUIDBinaryType;
+import org.hibernate.type.YesNoType;
+import org.hibernate.type.ZonedDateTimeType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CopyLoaderTest {
+
+	private static final String[] AWKWARD = new String[]{ "tab\there", "back\\slash", "quote\"", "new\nline", "{,}", "NULL", null, "" };
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate");
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	private static MyEntity entity(long id) {
+		MyEntity entity = new MyEntity();
+		entity.id = id;
+		entity.longs = new Long[]{ id, null, -id };
+		entity.strings = AWKWARD;
+		entity.uuids = new UUID[]{ new UUID(id, id) };
+		entity.primitivelongs = new long[(int) (id % 5)];
+		entity.dates = new LocalDate[]{ LocalDate.ofEpochDay(id), null };
+		entity.instants = new Instant[]{ Instant.ofEpochSecond(id, 123456000) };
+		entity.localdatetimes = new LocalDateTime[]{ LocalDateTime.of(2019, 5, 1, 10, 20, 30, 100000), null };
+		return entity;
+	}
+
+	@Test
+	public void testCopyEntities() {
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		Iterator<MyEntity> entities = LongStream.rangeClosed(1, 3000).mapToObj(CopyLoaderTest::entity).iterator();
+		assertEquals(3000, CopyLoader.copyEntities(em.unwrap(Session.class), MyEntity.class, entities));
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		for (long id : new long[]{ 1, 1234, 3000 }) {
+			MyEntity loaded = em.find(MyEntity.class, id);
+			MyEntity expected = entity(id);
+			assertArrayEquals(expected.longs, loaded.longs);
+			assertArrayEquals(expected.strings, loaded.strings);
+			assertArrayEquals(expected.uuids, loaded.uuids);
+			assertArrayEquals(expected.primitivelongs, loaded.primitivelongs);
+			assertArrayEquals(expected.dates, loaded.dates);
+			assertArrayEquals(expected.instants, loaded.instants);
+			assertArrayEquals(expected.localdatetimes, loaded.localdatetimes);
+		}
+		em.close();
+	}
+
+	@Test
+	public void testCopyRows() {
+		ArrayTypes<String> strings = ArrayTypes.get(StringType.INSTANCE,
+				emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry());
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		Iterator<Object[]> rows = Arrays.asList(
+				new Object[]{ 10001L, AWKWARD },
+				new Object[]{ 10002L, null }).iterator();
+		long copied = CopyLoader.copyRows(em.unwrap(Session.class), "array_entity", new String[]{ "id", "strings" },
+				new AbstractStandardBasicType<?>[]{ LongType.INSTANCE, strings }, rows);
+		assertEquals(2, copied);
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		assertArrayEquals(AWKWARD, em.find(MyEntity.class, 10001L).strings);
+		assertNull(em.find(MyEntity.class, 10002L).strings);
+		em.close();
+	}
+
+	@Test
+	public void testCopyScalars() {
+		Instant instant = Instant.parse("2019-05-01T10:20:30.123456Z");
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		Session session = em.unwrap(Session.class);
+		session.doWork(conn -> {
+			try (Statement st = conn.createStatement()) {
+				st.execute("CREATE TEMPORARY TABLE copy_scalars (l bigint, d double precision, n numeric, b boolean, yn char(1), tf char(1),"
+						+ " nb integer, s text, bin bytea, ldt timestamp, inst timestamptz, zdt timestamptz, ld date, lt time, dur bigint, cur varchar)");
+			}
+		});
+		Iterator<Object[]> rows = Collections.singletonList(new Object[]{
+			Long.MIN_VALUE, 0.1, new BigDecimal("-1E+3"), true, true, false, true, "tab\tback\\slash",
+			new byte[]{ 0, -1, 16, 127 }, LocalDateTime.of(2019, 5, 1, 10, 20, 30, 123456000), instant,
+			instant.atZone(ZoneId.of("Asia/Tokyo")), LocalDate.of(2019, 5, 1), LocalTime.of(23, 59, 58, 999000000),
+			Duration.ofSeconds(5, 7), Currency.getInstance("EUR") }).iterator();
+		assertEquals(1, CopyLoader.copyRows(session, "copy_scalars",
+				new String[]{ "l", "d", "n", "b", "yn", "tf", "nb", "s", "bin", "ldt", "inst", "zdt", "ld", "lt", "dur", "cur" },
+				new AbstractStandardBasicType<?>[]{ LongType.INSTANCE, DoubleType.INSTANCE, BigDecimalType.INSTANCE, BooleanType.INSTANCE,
+					YesNoType.INSTANCE, TrueFalseType.INSTANCE, NumericBooleanType.INSTANCE, TextType.INSTANCE, BinaryType.INSTANCE,
+					LocalDateTimeType.INSTANCE, InstantType.INSTANCE, ZonedDateTimeType.INSTANCE, LocalDateType.INSTANCE, LocalTimeType.INSTANCE,
+					DurationType.INSTANCE, CurrencyType.INSTANCE },
+				rows));
+		session.doWork(conn -> {
+			try (PreparedStatement st = conn.prepareStatement("SELECT l, d, n, b, yn, tf, nb, s, bin, ldt, inst = ?, zdt = ?, ld, lt, dur, cur FROM copy_scalars")) {
+				st.setTimestamp(1, Timestamp.from(instant));
+				st.setTimestamp(2, Timestamp.from(instant));
+				try (ResultSet rs = st.executeQuery()) {
+					assertTrue(rs.next());
+					assertEquals(Long.MIN_VALUE, rs.getLong(1));
+					assertEquals(0.1, rs.getDouble(2), 0.0);
+					assertEquals(0, new BigDecimal("-1000").compareTo(rs.getBigDecimal(3)));
+					assertTrue(rs.getBoolean(4));
+					assertEquals("Y", rs.getString(5));
+					assertEquals("F", rs.getString(6));
+					assertEquals(1, rs.getInt(7));
+					assertEquals("tab\tback\\slash", rs.getString(8));
+					assertArrayEquals(new byte[]{ 0, -1, 16, 127 }, rs.getBytes(9));
+					assertEquals("2019-05-01 10:20:30.123456", rs.getString(10));
+					assertTrue(rs.getBoolean(11));
+					assertTrue(rs.getBoolean(12));
+					assertEquals("2019-05-01", rs.getString(13));
+					assertEquals("23:59:58.999", rs.getString(14));
+					assertEquals(5000000007L, rs.getLong(15));
+					assertEquals("EUR", rs.getString(16));
+				}
+			}
+		});
+		em.getTransaction().rollback();
+		em.close();
+	}
+
+	@Test
+	public void testCopyArrays() {
+		ServiceRegistry registry = emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry();
+		Timestamp timestamp = Timestamp.valueOf("2019-05-01 10:20:30.123456");
+		UUID uuid = new UUID(1L, 2L);
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		Session session = em.unwrap(Session.class);
+		session.doWork(conn -> {
+			try (Statement st = conn.createStatement()) {
+				st.execute("CREATE TEMPORARY TABLE copy_arrays (ts timestamp[], yn char(1)[], nb int4[], ub bytea[])");
+			}
+		});
+		Iterator<Object[]> rows = Collections.singletonList(new Object[]{
+			new Timestamp[]{ timestamp, null }, new Boolean[]{ true, false }, new Boolean[]{ true, null }, new UUID[]{ uuid } }).iterator();
+		assertEquals(1, CopyLoader.copyRows(session, "copy_arrays", new String[]{ "ts", "yn", "nb", "ub" },
+				new AbstractStandardBasicType<?>[]{ ArrayTypes.get(TimestampType.INSTANCE, registry), ArrayTypes.get(YesNoType.INSTANCE, registry),
+					ArrayTypes.get(NumericBooleanType.INSTANCE, registry), ArrayTypes.get(UUIDBinaryType.INSTANCE, registry) },
+				rows));
+		session.doWork(conn -> {
+			try (Statement st = conn.createStatement();
+					ResultSet rs = st.executeQuery("SELECT ts[1] = '2019-05-01 10:20:30.123456', ts[2] IS NULL, yn, nb, length(ub[1]) FROM copy_arrays")) {
+				assertTrue(rs.next());
+				assertTrue(rs.getBoolean(1));
+				assertTrue(rs.getBoolean(2));
+				assertEquals("{Y,N}", rs.getString(3));
+				assertEquals("{1,NULL}", rs.getString(4));
+				assertEquals(16, rs.getInt(5));
+			}
+		});
+		em.getTransaction().rollback();
+		em.close();
+	}
+
+	@Test(expected = HibernateException.class)
+	public void testUnsupportedArray() {
+		EntityManager em = emf.createEntityManager();
+		try {
+			CopyLoader.copyRows(em.unwrap(Session.class), "array_entity", new String[]{ "id" },
+					new AbstractStandardBasicType<?>[]{ ArrayTypes.get(CalendarType.INSTANCE, emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry()) },
+					Collections.<Object[]>emptyIterator());
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	@Test(expected = HibernateException.class)
+	public void testUnsupportedScalar() {
+		EntityManager em = emf.createEntityManager();
+		try {
+			CopyLoader.copyRows(em.unwrap(Session.class), "array_entity", new String[]{ "id" },
+					new AbstractStandardBasicType<?>[]{ CalendarType.INSTANCE }, Collections.<Object[]>emptyIterator());
+		}
+		finally {
+			em.close();
+		}
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.java.EnumJavaTypeDescriptor;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Id;
+import javax.persistence.Persistence;
+import javax.persistence.Table;
+
+import org.hibernate.HibernateException;
+import org.hibernate.annotations.Type;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.TypeResolver;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EnumArrayTest {
+
+	private static EntityManagerFactory emf;
+
+	public enum Role {
+		ADMIN, USER, GUEST
+	}
+
+	public enum Flag {
+		ALPHA, BETA, GAMMA
+	}
+
+	public static class Legacy {
+
+		public enum Flag {
+			ON, OFF
+		}
+	}
+
+	private static void execute(String sql) throws SQLException {
+		try (Connection conn = DriverManager.getConnection("jdbc:postgresql:hibernate_orm_test", "hibernate_orm_test", "hibernate_orm_test");
+				Statement st = conn.createStatement()) {
+			st.execute(sql);
+		}
+	}
+
+	@BeforeClass
+	public static void setupJPA() throws SQLException {
+		// the enum type must exist before the table is created
+		execute("DROP TYPE IF EXISTS test_role CASCADE; CREATE TYPE test_role AS ENUM ('ADMIN', 'USER', 'GUEST')");
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate.enums");
+	}
+
+	@AfterClass
+	public static void closeJPA() throws SQLException {
+		emf.close();
+		execute("DROP TYPE IF EXISTS test_role CASCADE");
+	}
+
+	@Test
+	public void testDescriptor() {
+		EnumJavaTypeDescriptor<Role> names = new EnumJavaTypeDescriptor<>(Role.class, false);
+		assertSame(Role.USER, names.fromName("{ADMIN,USER}", 7, 11));
+		assertSame(Role.GUEST, names.fromString("GUEST"));
+		assertEquals("GUEST", names.toString(Role.GUEST));
+		try {
+			names.fromName("{ADMIN,USERS}", 7, 12);
+			fail("Unknown name accepted");
+		}
+		catch (HibernateException ex) {
+			// expected
+		}
+		EnumJavaTypeDescriptor<Flag> ordinals = new EnumJavaTypeDescriptor<>(Flag.class, true);
+		assertSame(Flag.GAMMA, ordinals.fromString("2"));
+		assertEquals("1", ordinals.toString(Flag.BETA));
+		assertEquals(Short.valueOf((short) 1), ordinals.unwrap(Flag.BETA, Short.class, null));
+		try {
+			ordinals.fromOrdinal(3);
+			fail("Unknown ordinal accepted");
+		}
+		catch (HibernateException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testWriteRead() {
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		RoleEntity entity = new RoleEntity();
+		entity.id = 1L;
+		entity.roles = new Role[]{ Role.ADMIN, null, Role.GUEST };
+		entity.flags = new Flag[]{ Flag.GAMMA, Flag.ALPHA };
+		entity.flagList = Arrays.asList(Flag.BETA, null);
+		em.persist(entity);
+		em.getTransaction().commit();
+		em.clear();
+
+		RoleEntity loaded = em.find(RoleEntity.class, 1L);
+		assertArrayEquals(entity.roles, loaded.roles);
+		assertArrayEquals(entity.flags, loaded.flags);
+		assertEquals(entity.flagList, loaded.flagList);
+
+		Object[] stored = (Object[]) em.createNativeQuery("SELECT CAST(roles AS text), CAST(flags AS text) FROM role_entity").getSingleResult();
+		assertEquals("{ADMIN,NULL,GUEST}", stored[0]);
+		assertEquals("{2,0}", stored[1]);
+
+		assertEquals(1, em.createQuery("SELECT e FROM RoleEntity e WHERE e.roles = :r AND e.flags = :f", RoleEntity.class)
+				.setParameter("r", entity.roles)
+				.setParameter("f", entity.flags)
+				.getResultList().size());
+
+		em.getTransaction().begin();
+		loaded.roles[1] = Role.USER;
+		em.getTransaction().commit();
+		em.clear();
+		assertArrayEquals(new Role[]{ Role.ADMIN, Role.USER, Role.GUEST }, em.find(RoleEntity.class, 1L).roles);
+		em.close();
+	}
+
+	@Test
+	public void testSimpleNameCollision() {
+		EntityManagerFactory other = Persistence.createEntityManagerFactory("com.mopano.hibernate", Collections.singletonMap(
+				"hibernate.arrays.enum_ordinals", Flag.class.getName() + " " + Legacy.Flag.class.getName() + " " + Role.class.getName()));
+		try {
+			TypeResolver types = other.unwrap(SessionFactoryImplementor.class).getTypeResolver();
+			assertNull(types.basic("Flag[]"));
+			assertNull(types.basic("List<Flag>"));
+			String flag = Flag.class.getName();
+			String legacy = Legacy.Flag.class.getName();
+			assertSame(Flag[].class, types.basic(flag + "[]").getReturnedClass());
+			assertSame(Legacy.Flag[].class, types.basic(legacy + "[]").getReturnedClass());
+			assertSame(Legacy.Flag[].class, types.basic("imm_" + legacy + "[]").getReturnedClass());
+			assertSame(Legacy.Flag[].class, types.basic(Legacy.Flag[].class.getName()).getReturnedClass());
+			assertNotNull(types.basic("List<" + legacy + ">"));
+			// names that are unique stay short
+			assertSame(Role[].class, types.basic("Role[]").getReturnedClass());
+			assertNotNull(types.basic("Set<Role>"));
+		}
+		finally {
+			other.close();
+		}
+	}
+
+	@Entity(name = "RoleEntity")
+	@Table(name = "role_entity")
+	public static class RoleEntity implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Id
+		public Long id;
+		@Type(type = "Role[]")
+		@Column(columnDefinition = "test_role array")
+		public Role[] roles;
+		@Type(type = "Flag[]")
+		@Column(columnDefinition = "smallint array")
+		public Flag[] flags;
+		@Type(type = "List<Flag>")
+		@Column(columnDefinition = "smallint array")
+		public List<Flag> flagList;
+	}
+}
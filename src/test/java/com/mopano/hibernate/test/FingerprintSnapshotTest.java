@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.test.ArrayContributionTest.MyEntity;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Id;
+import javax.persistence.Persistence;
+import javax.persistence.PersistenceException;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLockType;
+import org.hibernate.annotations.OptimisticLocking;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FingerprintSnapshotTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		Map<String, String> settings = new HashMap<>();
+		settings.put("hibernate.arrays.fingerprint_threshold", "4");
+		settings.put("hibernate.generate_statistics", "true");
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate", settings);
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testDirtyChecking() {
+		Statistics stats = emf.unwrap(SessionFactoryImplementor.class).getStatistics();
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		MyEntity entity = new MyEntity();
+		entity.id = 1L;
+		entity.longs = new Long[]{ 1L, 2L, null, 4L, 5L };
+		entity.strings = new String[]{ "a", "b", "c", null };
+		entity.uuids = new UUID[]{ UUID.randomUUID() };
+		em.persist(entity);
+		em.getTransaction().commit();
+		em.close();
+
+		stats.clear();
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		MyEntity loaded = em.find(MyEntity.class, 1L);
+		assertArrayEquals(entity.longs, loaded.longs);
+		// the snapshot of the longs is an empty stand-in for the fingerprint, not a copy
+		Object[] snapshot = em.unwrap(SessionImplementor.class).getPersistenceContext().getEntry(loaded).getLoadedState();
+		assertTrue(Arrays.stream(snapshot).anyMatch(v -> v != null && v.getClass() == Object[].class && ((Object[]) v).length == 1));
+		em.getTransaction().commit();
+		em.close();
+		assertEquals(0, stats.getEntityUpdateCount());
+
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		loaded = em.find(MyEntity.class, 1L);
+		loaded.longs[2] = 3L;
+		loaded.strings[3] = "d";
+		em.getTransaction().commit();
+		em.close();
+		assertEquals(1, stats.getEntityUpdateCount());
+
+		em = emf.createEntityManager();
+		loaded = em.find(MyEntity.class, 1L);
+		assertArrayEquals(new Long[]{ 1L, 2L, 3L, 4L, 5L }, loaded.longs);
+		assertArrayEquals(new String[]{ "a", "b", "c", "d" }, loaded.strings);
+		em.close();
+	}
+
+	@Test
+	public void testMerge() {
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		MyEntity entity = new MyEntity();
+		entity.id = 2L;
+		entity.longs = new Long[]{ 1L, 2L, 3L, 4L };
+		em.persist(entity);
+		em.getTransaction().commit();
+		em.close();
+
+		entity.longs = new Long[]{ 4L, 3L, 2L, 1L, 0L };
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		MyEntity merged = em.merge(entity);
+		assertArrayEquals(entity.longs, merged.longs);
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		assertArrayEquals(entity.longs, em.find(MyEntity.class, 2L).longs);
+		em.close();
+	}
+
+	@Test
+	public void testOptimisticLocking() {
+		Map<String, String> settings = new HashMap<>();
+		settings.put("hibernate.arrays.fingerprint_threshold", "4");
+		try {
+			Persistence.createEntityManagerFactory("com.mopano.hibernate.locking", settings).close();
+			fail("Fingerprints accepted with optimistic locking of dirty properties");
+		}
+		catch (PersistenceException ex) {
+			Throwable cause = ex;
+			while (cause.getCause() != null && !cause.getMessage().contains("fingerprinted")) {
+				cause = cause.getCause();
+			}
+			assertTrue(cause.getMessage(), cause.getMessage().contains("LockedEntity.longs"));
+		}
+		// without fingerprints the loaded state is a copy
+		Persistence.createEntityManagerFactory("com.mopano.hibernate.locking").close();
+	}
+
+	@Entity(name = "LockedEntity")
+	@Table(name = "locked_entity")
+	@OptimisticLocking(type = OptimisticLockType.DIRTY)
+	@DynamicUpdate
+	public static class LockedEntity implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Id
+		public Long id;
+		@Column(columnDefinition = "bigint array")
+		public Long[] longs;
+	}
+}
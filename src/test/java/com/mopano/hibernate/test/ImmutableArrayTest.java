@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.test.ArrayContributionTest.MyEntity;
+
+import java.util.Collections;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.Type;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ImmutableArrayTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate",
+				Collections.singletonMap("hibernate.arrays.immutable", "true"));
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testTypes() {
+		SessionFactoryImplementor sf = emf.unwrap(SessionFactoryImplementor.class);
+		for (String name : new String[]{ "[Ljava.lang.Long;", "imm_Long[]", "imm_[Ljava.lang.Long;", "[J", "imm_long[]", "imm_string[]" }) {
+			Type type = sf.getTypeResolver().basic(name);
+			assertNotNull(name, type);
+			assertFalse(name, type.isMutable());
+		}
+		Long[] value = new Long[]{ 1L, 2L };
+		assertSame(value, sf.getTypeResolver().basic("[Ljava.lang.Long;").deepCopy(value, sf));
+	}
+
+	@Test
+	public void testReplace() {
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		MyEntity entity = new MyEntity();
+		entity.id = 1L;
+		entity.longs = new Long[]{ 1L, null };
+		entity.primitivelongs = new long[]{ 1L };
+		em.persist(entity);
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		MyEntity loaded = em.find(MyEntity.class, 1L);
+		loaded.longs = new Long[]{ 2L };
+		loaded.primitivelongs = new long[]{ 2L, 3L };
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		loaded = em.find(MyEntity.class, 1L);
+		assertArrayEquals(new Long[]{ 2L }, loaded.longs);
+		assertArrayEquals(new long[]{ 2L, 3L }, loaded.primitivelongs);
+		em.close();
+	}
+}
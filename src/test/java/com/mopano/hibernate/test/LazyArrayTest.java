@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.LazyArray;
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Id;
+import javax.persistence.Persistence;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Type;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LazyArrayTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate");
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testSlices() {
+		LazyArray<String> strings = new LazyArray<>(new GenericArrayTypeDescriptor<>(StringType.INSTANCE), "{a,NULL,\"b,c\",d}");
+		assertEquals(4, strings.length());
+		assertEquals("b,c", strings.get(2));
+		assertNull(strings.get(1));
+		assertArrayEquals(new String[]{ "b,c", "d" }, strings.slice(2, 10));
+		assertArrayEquals(new String[0], strings.slice(5, 6));
+		assertFalse(strings.isLoaded());
+		try {
+			strings.get(4);
+			fail("element past the end");
+		}
+		catch (ArrayIndexOutOfBoundsException ex) {
+			// expected
+		}
+		try {
+			strings.get(-1);
+			fail("element before the start");
+		}
+		catch (ArrayIndexOutOfBoundsException ex) {
+			// expected
+		}
+		assertArrayEquals(new String[]{ "a", null, "b,c", "d" }, strings.toArray());
+		assertTrue(strings.isLoaded());
+		assertArrayEquals(new String[]{ null, "b,c" }, strings.slice(1, 3));
+	}
+
+	@Test
+	public void testLoop() {
+		LazyArray<Long> longs = new LazyArray<>(new GenericArrayTypeDescriptor<>(LongType.INSTANCE), "{1,2,3,4,5,6,7,8}");
+		long sum = 0;
+		for (int i = 0; i < longs.length(); i++) {
+			sum += longs.get(i);
+		}
+		assertEquals(36L, sum);
+		assertTrue(longs.isLoaded());
+	}
+
+	@Test
+	public void testWriteRead() {
+		Long[] samples = new Long[1000];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = i * 7L;
+		}
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		TraceEntity entity = new TraceEntity();
+		entity.id = 1L;
+		entity.samples = LazyArray.of(samples);
+		em.persist(entity);
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		TraceEntity loaded = em.find(TraceEntity.class, 1L);
+		assertEquals(1000, loaded.samples.length());
+		assertEquals(Long.valueOf(70L), loaded.samples.get(10));
+		assertArrayEquals(new Long[]{ 6979L, 6986L, 6993L }, loaded.samples.slice(997, 1000));
+		assertFalse(loaded.samples.isLoaded());
+		loaded.samples = LazyArray.of(new Long[]{ 1L, null });
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		loaded = em.find(TraceEntity.class, 1L);
+		assertArrayEquals(new Long[]{ 1L, null }, loaded.samples.toArray());
+		assertEquals(LazyArray.of(new Long[]{ 1L, null }), loaded.samples);
+		em.close();
+	}
+
+	@Entity(name = "TraceEntity")
+	@Table(name = "trace_entity")
+	@SuppressWarnings("PersistenceUnitPresent")
+	public static class TraceEntity implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Id
+		public Long id;
+		@Type(type = "lazy_Long[]")
+		@Column(columnDefinition = "bigint[]")
+		public LazyArray<Long> samples;
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.sql.ArrayTypeDescriptor;
+import com.mopano.hibernate.test.ArrayContributionTest.MyEntity;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.TypeResolver;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LiteralArrayBindTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		Map<String, String> settings = new HashMap<>();
+		settings.put("hibernate.arrays.literal", "true");
+		settings.put("hibernate.arrays.uuidtype", "all");
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate", settings);
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testDescriptor() {
+		SessionFactoryImplementor factory = emf.unwrap(SessionFactoryImplementor.class);
+		AbstractStandardBasicType<?> type = (AbstractStandardBasicType<?>) factory.getTypeResolver().heuristicType(Long[].class.getName());
+		assertSame(ArrayTypeDescriptor.LITERAL, type.getSqlTypeDescriptor());
+	}
+
+	@Test
+	public void testWriteRead() {
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		MyEntity entity = new MyEntity();
+		entity.id = 1L;
+		entity.longs = new Long[]{ 55L, null, Long.MIN_VALUE };
+		entity.strings = new String[]{ "a,b", null, "NULL", "quote \" and \\ backslash", "", " {x} " };
+		entity.uuids = new UUID[]{ UUID.randomUUID(), null };
+		entity.bools = new Boolean[]{ true, false, null };
+		entity.doubles = new Double[]{ 33.5, -1e300, null };
+		entity.bigdecimals = new BigDecimal[]{ new BigDecimal("1.50"), new BigDecimal("-1E+3") };
+		entity.bigints = new BigInteger[]{ BigInteger.TEN.pow(30) };
+		entity.ints = new Integer[0];
+		// not written as literals, bound through createArrayOf
+		entity.dates = new LocalDate[]{ LocalDate.of(2019, 5, 1) };
+		entity.instants = new Instant[]{ Instant.ofEpochSecond(1556668800L) };
+		try {
+			em.persist(entity);
+			em.getTransaction().commit();
+		}
+		finally {
+			if (em.getTransaction().isActive()) {
+				em.getTransaction().rollback();
+			}
+			em.close();
+		}
+
+		em = emf.createEntityManager();
+		try {
+			MyEntity loaded = em.find(MyEntity.class, 1L);
+			assertArrayEquals(entity.longs, loaded.longs);
+			assertArrayEquals(entity.strings, loaded.strings);
+			assertArrayEquals(entity.uuids, loaded.uuids);
+			assertArrayEquals(entity.bools, loaded.bools);
+			assertArrayEquals(entity.doubles, loaded.doubles);
+			assertEquals(0, entity.bigdecimals[0].compareTo(loaded.bigdecimals[0]));
+			assertEquals(0, entity.bigdecimals[1].compareTo(loaded.bigdecimals[1]));
+			assertArrayEquals(entity.bigints, loaded.bigints);
+			assertArrayEquals(entity.ints, loaded.ints);
+			assertArrayEquals(entity.dates, loaded.dates);
+			assertArrayEquals(entity.instants, loaded.instants);
+
+			List<MyEntity> found = em.createQuery("SELECT e FROM MyEntity e WHERE e.uuids = :u", MyEntity.class)
+					.setParameter("u", entity.uuids)
+					.getResultList();
+			assertEquals(1, found.size());
+			assertEquals(Arrays.asList(1L), em.createQuery("SELECT e.id FROM MyEntity e WHERE array_any(e.id, :ids) = true", Long.class)
+					.setParameter("ids", new Long[]{ 3L, 1L })
+					.getResultList());
+			assertEquals(1, em.createNativeQuery("SELECT id FROM array_entity WHERE strings[1] = ANY(?1)")
+					.setParameter(1, new String[]{ "a,b", "c" })
+					.getResultList().size());
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	@Test
+	public void testOtherTextForms() {
+		// types whose column text differs from the element class's literal keep binding through createArrayOf
+		UUID uuid = UUID.fromString("bb6afa0a-0160-4de7-be14-708bea53ae51");
+		TypeResolver types = emf.unwrap(SessionFactoryImplementor.class).getTypeResolver();
+		EntityManager em = emf.createEntityManager();
+		try {
+			SessionImplementor session = em.unwrap(SessionImplementor.class);
+			session.doWork(conn -> {
+				try (Statement st = conn.createStatement()) {
+					st.execute("CREATE TEMPORARY TABLE literal_forms (yn char(1)[], nb int4[], ub bytea[])");
+				}
+				try (PreparedStatement st = conn.prepareStatement("INSERT INTO literal_forms VALUES (?, ?, ?)")) {
+					types.basic("yes_no[]").nullSafeSet(st, new Boolean[]{ true, false }, 1, session);
+					types.basic("numeric_boolean[]").nullSafeSet(st, new Boolean[]{ true, false }, 2, session);
+					types.basic("uuid-binary[]").nullSafeSet(st, new UUID[]{ uuid }, 3, session);
+					st.executeUpdate();
+				}
+				try (Statement st = conn.createStatement();
+						ResultSet rs = st.executeQuery("SELECT CAST(yn AS text), CAST(nb AS text), length(ub[1]), ub FROM literal_forms")) {
+					assertTrue(rs.next());
+					assertEquals("{Y,N}", rs.getString(1));
+					assertEquals("{1,0}", rs.getString(2));
+					assertEquals(16, rs.getInt(3));
+					assertArrayEquals(new UUID[]{ uuid }, (UUID[]) types.basic("uuid-binary[]").nullSafeGet(rs, "ub", session, null));
+				}
+			});
+		}
+		finally {
+			em.close();
+		}
+	}
+}
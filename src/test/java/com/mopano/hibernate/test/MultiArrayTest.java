@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.DoubleMultiArray;
+import com.mopano.hibernate.array.LongMultiArray;
+import com.mopano.hibernate.array.java.DoubleMultiArrayTypeDescriptor;
+import com.mopano.hibernate.array.java.LongMultiArrayTypeDescriptor;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Id;
+import javax.persistence.Persistence;
+import javax.persistence.Table;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MultiArrayTest {
+
+	private static EntityManagerFactory emf;
+
+	@BeforeClass
+	public static void setupJPA() {
+		emf = Persistence.createEntityManagerFactory("com.mopano.hibernate");
+	}
+
+	@AfterClass
+	public static void closeJPA() {
+		emf.close();
+	}
+
+	@Test
+	public void testLiterals() {
+		LongMultiArrayTypeDescriptor longs = LongMultiArrayTypeDescriptor.INSTANCE;
+		LongMultiArray grid = LongMultiArray.of(new long[][]{ { 1, 2, 3 }, { 4, 5, -6 } });
+		assertEquals("{{1,2,3},{4,5,-6}}", longs.toString(grid));
+		assertEquals(grid, longs.fromString("{{1,2,3},{4,5,-6}}"));
+		assertEquals(grid, longs.fromString("[1:2][1:3]={ {1, 2,3} , {4,5,\"-6\"} }"));
+		assertEquals(new LongMultiArray(0), longs.fromString("{}"));
+		assertEquals(new LongMultiArray(2, 1, 2), longs.fromString("{{{0,0}},{{0,0}}}"));
+		try {
+			longs.fromString("{{1,2},{3}}");
+			fail("jagged literal accepted");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected
+		}
+		try {
+			longs.fromString("{{1,NULL}}");
+			fail("null accepted");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected
+		}
+
+		DoubleMultiArrayTypeDescriptor doubles = DoubleMultiArrayTypeDescriptor.INSTANCE;
+		DoubleMultiArray matrix = new DoubleMultiArray(new double[]{ 0.5, Double.NaN, -1e300, 2 }, 2, 2);
+		assertEquals(matrix, doubles.fromString(doubles.toString(matrix)));
+		assertEquals(matrix, doubles.wrap(new Double[][]{ { 0.5, Double.NaN }, { -1e300, 2.0 } }, null));
+		assertEquals(grid, longs.wrap(new long[][]{ { 1, 2, 3 }, { 4, 5, -6 } }, null));
+	}
+
+	@Test
+	public void testWriteRead() {
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		GridEntity entity = new GridEntity();
+		entity.id = 1L;
+		entity.longs = LongMultiArray.of(new long[][]{ { 1, 2, 3 }, { 4, 5, Long.MIN_VALUE } });
+		entity.doubles = new DoubleMultiArray(new double[]{ 1, 2, 3, 4, 5, 6, 7, 8 }, 2, 2, 2);
+		em.persist(entity);
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		em.getTransaction().begin();
+		GridEntity loaded = em.find(GridEntity.class, 1L);
+		assertEquals(entity.longs, loaded.longs);
+		assertEquals(entity.doubles, loaded.doubles);
+		assertEquals("[1:2][1:3]", em.createNativeQuery("SELECT array_dims(longs) FROM grid_entity").getSingleResult());
+		assertEquals("[1:2][1:2][1:2]", em.createNativeQuery("SELECT array_dims(doubles) FROM grid_entity").getSingleResult());
+		// modified in place
+		loaded.longs.set(42L, 1, 0);
+		em.getTransaction().commit();
+		em.close();
+
+		em = emf.createEntityManager();
+		loaded = em.find(GridEntity.class, 1L);
+		assertEquals(42L, loaded.longs.get(1, 0));
+		em.close();
+	}
+
+	@Entity(name = "GridEntity")
+	@Table(name = "grid_entity")
+	@SuppressWarnings("PersistenceUnitPresent")
+	public static class GridEntity implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Id
+		public Long id;
+		@Column(columnDefinition = "bigint[][]")
+		public LongMultiArray longs;
+		@Column(columnDefinition = "double precision[][][]")
+		public DoubleMultiArray doubles;
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) Mak-Si Management Ltd. Varna, Bulgaria
+ *
+ * License: BSD 3-Clause license.
+ * See the LICENSE.md file in the root directory or <https://opensource.org/licenses/BSD-3-Clause>.
+ * See also <https://tldrlegal.com/license/bsd-3-clause-license-(revised)>.
+ */
+package com.mopano.hibernate.test;
+
+import com.mopano.hibernate.array.java.GenericArrayTypeDescriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import org.hibernate.type.AbstractStandardBasicType;
+import org.hibernate.type.BooleanType;
+import org.hibernate.type.DoubleType;
+import org.hibernate.type.DurationType;
+import org.hibernate.type.FloatType;
+import org.hibernate.type.InstantType;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.LocalDateTimeType;
+import org.hibernate.type.LocalDateType;
+import org.hibernate.type.LocalTimeType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.ShortType;
+import org.hibernate.type.StringType;
+import org.hibernate.type.descriptor.java.MutabilityPlan;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PackedCacheEntryTest {
+
+	private static byte[] serialize(Object value) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+			oos.writeObject(value);
+		}
+		return out.toByteArray();
+	}
+
+	private static <T> byte[] assertRoundTrip(AbstractStandardBasicType<T> baseType, T[] value) throws Exception {
+		MutabilityPlan<T[]> plan = new GenericArrayTypeDescriptor<>(baseType).getMutabilityPlan();
+		byte[] bytes = serialize(plan.disassemble(value));
+		Serializable cached;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			cached = (Serializable) in.readObject();
+		}
+		T[] assembled = plan.assemble(cached);
+		assertArrayEquals(value, assembled);
+		assertSame(value.getClass(), assembled.getClass());
+		return bytes;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		assertRoundTrip(LongType.INSTANCE, new Long[]{ Long.MIN_VALUE, null, 0L, Long.MAX_VALUE });
+		assertRoundTrip(IntegerType.INSTANCE, new Integer[]{ null, -1, Integer.MAX_VALUE });
+		assertRoundTrip(ShortType.INSTANCE, new Short[]{ Short.MIN_VALUE, null });
+		assertRoundTrip(DoubleType.INSTANCE, new Double[]{ -0.0, Double.NaN, null, 1e300 });
+		assertRoundTrip(FloatType.INSTANCE, new Float[]{ 1.5f, null });
+		Boolean[] bools = new Boolean[130];
+		for (int i = 0; i < bools.length; i++) {
+			bools[i] = i % 3 == 0 ? null : i % 3 == 1;
+		}
+		assertRoundTrip(BooleanType.INSTANCE, bools);
+		assertRoundTrip(PostgresUUIDType.INSTANCE, new UUID[]{ UUID.randomUUID(), null });
+		assertRoundTrip(StringType.INSTANCE, new String[]{ "plain", null, "", "\u00e9\u4e2d\ud83d\ude00", "tail" });
+		assertRoundTrip(InstantType.INSTANCE, new Instant[]{ Instant.ofEpochSecond(-5, 999), null });
+		assertRoundTrip(DurationType.INSTANCE, new Duration[]{ Duration.ofNanos(-1), null });
+		assertRoundTrip(LocalDateTimeType.INSTANCE, new LocalDateTime[]{ LocalDateTime.of(1900, 1, 2, 3, 4, 5, 6), null });
+		assertRoundTrip(LocalDateType.INSTANCE, new LocalDate[]{ LocalDate.of(1, 1, 1), null });
+		assertRoundTrip(LocalTimeType.INSTANCE, new LocalTime[]{ LocalTime.MAX, null });
+		assertRoundTrip(LongType.INSTANCE, new Long[0]);
+	}
+
+	@Test
+	public void testSize() throws Exception {
+		Long[] longs = new Long[1000];
+		UUID[] uuids = new UUID[1000];
+		String[] strings = new String[1000];
+		for (int i = 0; i < longs.length; i++) {
+			longs[i] = i * 1000003L;
+			uuids[i] = UUID.randomUUID();
+			strings[i] = "element " + i;
+		}
+		assertTrue(assertRoundTrip(LongType.INSTANCE, longs).length < serialize(longs).length);
+		assertTrue(assertRoundTrip(PostgresUUIDType.INSTANCE, uuids).length < serialize(uuids).length);
+		assertTrue(assertRoundTrip(StringType.INSTANCE, strings).length < serialize(strings).length);
+	}
+
+	@Test
+	public void testCachedCopy() {
+		// entries cached before the packed form was introduced are still read
+		MutabilityPlan<Long[]> plan = new GenericArrayTypeDescriptor<>(LongType.INSTANCE).getMutabilityPlan();
+		Long[] cached = new Long[]{ 1L, null };
+		Long[] assembled = plan.assemble(cached);
+		assertArrayEquals(cached, assembled);
+		assertNotSame(cached, assembled);
+	}
+
+	@Test
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void testPackedKeys() {
+		// query cache keys hold packed values, compared and hashed as they are
+		GenericArrayTypeDescriptor descriptor = new GenericArrayTypeDescriptor<>(StringType.INSTANCE);
+		MutabilityPlan plan = descriptor.getMutabilityPlan();
+		Object[] key = (Object[]) plan.disassemble(new String[]{ "a", null, "\u00e9" });
+		Object[] same = (Object[]) plan.disassemble(new String[]{ "a", null, "\u00e9" });
+		assertTrue(descriptor.areEqual(key, same));
+		assertEquals(descriptor.extractHashCode(key), descriptor.extractHashCode(same));
+		assertFalse(descriptor.areEqual(key, plan.disassemble(new String[]{ "a", "", "\u00e9" })));
+		assertFalse(descriptor.areEqual(key, plan.disassemble(new String[]{ "a", null })));
+		assertTrue(descriptor.areEqual(key, new String[]{ "a", null, "\u00e9" }));
+
+		descriptor = new GenericArrayTypeDescriptor<>(DoubleType.INSTANCE);
+		plan = descriptor.getMutabilityPlan();
+		key = (Object[]) plan.disassemble(new Double[]{ 1.5, null, Double.NaN });
+		same = (Object[]) plan.disassemble(new Double[]{ 1.5, null, Double.NaN });
+		assertTrue(descriptor.areEqual(key, same));
+		assertEquals(descriptor.extractHashCode(key), descriptor.extractHashCode(same));
+		assertFalse(descriptor.areEqual(key, plan.disassemble(new Double[]{ 1.5, 0.0, Double.NaN })));
+	}
+}